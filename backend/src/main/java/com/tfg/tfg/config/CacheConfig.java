@@ -1,46 +1,118 @@
 package com.tfg.tfg.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.tfg.tfg.config.cache.InstrumentedCacheManager;
+import com.tfg.tfg.config.cache.MeteredRedisSerializer;
+import com.tfg.tfg.config.cache.RedisAvailability;
+import com.tfg.tfg.config.cache.SmileRedisSerializer;
+import com.tfg.tfg.config.cache.TwoLevelCacheManager;
+import com.tfg.tfg.service.riot.RiotIdResolver;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
 
-        @Bean
-        public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-                // Create ObjectMapper with proper configuration for Redis serialization
-                ObjectMapper objectMapper = new ObjectMapper();
+        /** TTL of the summoners cache (to keep rank/level relatively fresh) */
+        public static final Duration SUMMONERS_TTL = Duration.ofMinutes(10);
 
-                // Ignore unknown properties (like computed getters 'kda', 'kdaRatio') during
-                // deserialization
-                objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        @Value("${cache.l1.enabled:true}")
+        private boolean l1Enabled;
 
-                objectMapper.activateDefaultTyping(
-                                BasicPolymorphicTypeValidator.builder()
-                                                .allowIfBaseType(Object.class)
-                                                .build(),
-                                ObjectMapper.DefaultTyping.EVERYTHING,
-                                JsonTypeInfo.As.WRAPPER_OBJECT);
+        @Value("${cache.l1.maximum-size:10000}")
+        private long l1MaximumSize;
 
-                // Create serializer with configured ObjectMapper
-                GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        @Value("${cache.l1.ttl-seconds:60}")
+        private long l1TtlSeconds;
+
+        @Value("${cache.l1.invalidation-channel:spiritblade:cache-invalidation}")
+        private String invalidationChannel;
+
+        @Value("${cache.codec.binary-caches:matches,masteries,summoners}")
+        private Set<String> binaryCaches;
+
+        @Value("${cache.codec.compression-threshold-bytes:2048}")
+        private int compressionThresholdBytes;
+
+        @Value("${cache.degraded.ttl-seconds:600}")
+        private long degradedTtlSeconds;
+
+        /**
+         * Tracks Redis failures so the caches switch to L1 alone while it is down
+         * instead of stalling every call on connection timeouts.
+         */
+        @Bean(destroyMethod = "shutdown")
+        public RedisAvailability redisAvailability(MeterRegistry meterRegistry,
+                        @Value("${cache.degraded.retry-ms:5000}") long retryMillis) {
+                return new RedisAvailability(retryMillis, meterRegistry);
+        }
+
+        /**
+         * A cache that fails (e.g. Redis down with {@code cache.l1.enabled=false},
+         * or an unreadable entry) is logged and skipped, so the cached method runs
+         * instead of failing the request.
+         */
+        @Override
+        public CacheErrorHandler errorHandler() {
+                return new LoggingCacheErrorHandler();
+        }
+
+        /**
+         * Caches are served from an in-process L1 in front of Redis; changes are
+         * broadcast over Redis pub/sub so the L1 of every replica stays coherent
+         * (see {@link com.tfg.tfg.config.cache.CacheInvalidationSubscriber}).
+         * While Redis is down the L1 serves alone (see
+         * {@link com.tfg.tfg.config.cache.RedisAvailability}).
+         * With {@code cache.l1.enabled=false} Redis is used directly.
+         * Either way every cache is instrumented (see
+         * {@link com.tfg.tfg.config.cache.InstrumentedCache}) and the encoded size
+         * of its Redis values is recorded; {@code /actuator/cachestats} sums it up.
+         */
+        @Bean
+        public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                        StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry,
+                        RedisAvailability redisAvailability,
+                        @Value("${riot.account.resolution-ttl-hours:168}") long riotIdResolutionTtlHours,
+                        @Value("${riot.account.not-found-ttl-seconds:300}") long riotIdNotFoundTtlSeconds) {
+                RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory, riotIdResolutionTtlHours,
+                                riotIdNotFoundTtlSeconds, meterRegistry);
+                if (!l1Enabled) {
+                        return new InstrumentedCacheManager(redisCacheManager, meterRegistry);
+                }
+                return new InstrumentedCacheManager(new TwoLevelCacheManager(redisCacheManager, l1MaximumSize,
+                                Duration.ofSeconds(l1TtlSeconds), stringRedisTemplate, invalidationChannel,
+                                redisAvailability, Duration.ofSeconds(degradedTtlSeconds)), meterRegistry);
+        }
+
+        private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                        long riotIdResolutionTtlHours, long riotIdNotFoundTtlSeconds, MeterRegistry meterRegistry) {
+                GenericJackson2JsonRedisSerializer serializer = jsonRedisSerializer();
 
                 // Default configuration: 1 hour TTL, JSON serialization
                 RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
@@ -56,7 +128,15 @@ public class CacheConfig {
                 Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
 
                 // Summoners cache: 10 minutes (to keep rank/level relatively fresh)
-                cacheConfigurations.put("summoners", defaultCacheConfig.entryTtl(Duration.ofMinutes(10)));
+                cacheConfigurations.put("summoners", defaultCacheConfig.entryTtl(SUMMONERS_TTL));
+
+                // Riot ID -> PUUID resolutions: long-lived (a PUUID never changes for an account)
+                cacheConfigurations.put(RiotIdResolver.RIOT_IDS_CACHE,
+                                defaultCacheConfig.entryTtl(Duration.ofHours(riotIdResolutionTtlHours)));
+
+                // Riot IDs account-v1 does not know: short-lived, the name may be taken at any time
+                cacheConfigurations.put(RiotIdResolver.UNKNOWN_RIOT_IDS_CACHE,
+                                defaultCacheConfig.entryTtl(Duration.ofSeconds(riotIdNotFoundTtlSeconds)));
 
                 // Masteries cache: 1 hour (doesn't change too often)
                 cacheConfigurations.put("masteries", defaultCacheConfig.entryTtl(Duration.ofHours(1)));
@@ -64,12 +144,61 @@ public class CacheConfig {
                 // Matches cache: 24 hours (finished matches don't change)
                 cacheConfigurations.put("matches", defaultCacheConfig.entryTtl(Duration.ofHours(24)));
 
-                // Champions cache: 24 hours (static data)
-                cacheConfigurations.put("champions", defaultCacheConfig.entryTtl(Duration.ofHours(24)));
+                // Caches stored with the binary codec; their keys get their own prefix so
+                // entries written with the JSON codec are never read back as Smile
+                SmileRedisSerializer smileSerializer = new SmileRedisSerializer(compressionThresholdBytes);
+                for (String cacheName : binaryCaches) {
+                        RedisCacheConfiguration jsonConfig = cacheConfigurations.getOrDefault(cacheName,
+                                        defaultCacheConfig);
+                        cacheConfigurations.put(cacheName, jsonConfig
+                                        .computePrefixWith(name -> name + "::smile::")
+                                        .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                                        .fromSerializer(smileSerializer)));
+                }
+
+                // Record the encoded size of the values of every named cache
+                for (Map.Entry<String, RedisCacheConfiguration> entry : cacheConfigurations.entrySet()) {
+                        RedisSerializer<Object> valueSerializer = binaryCaches.contains(entry.getKey())
+                                        ? smileSerializer
+                                        : serializer;
+                        entry.setValue(entry.getValue().serializeValuesWith(RedisSerializationContext.SerializationPair
+                                        .fromSerializer(new MeteredRedisSerializer<>(valueSerializer, entry.getKey(),
+                                                        meterRegistry))));
+                }
 
-                return RedisCacheManager.builder(connectionFactory)
+                // Only the caches configured above exist; unknown names get no cache (and
+                // no L1 or meters) instead of one created on demand
+                RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                                 .cacheDefaults(defaultCacheConfig)
                                 .withInitialCacheConfigurations(cacheConfigurations)
+                                .disableCreateOnMissingCache()
+                                .enableStatistics()
                                 .build();
+                // Not a bean of its own, so load the configured caches here
+                redisCacheManager.afterPropertiesSet();
+                return redisCacheManager;
+        }
+
+        /**
+         * JSON codec of the caches not listed in {@code cache.codec.binary-caches}:
+         * every value wrapped with its type, readable with redis-cli.
+         */
+        public static GenericJackson2JsonRedisSerializer jsonRedisSerializer() {
+                // Create ObjectMapper with proper configuration for Redis serialization
+                ObjectMapper objectMapper = new ObjectMapper();
+
+                // Ignore unknown properties (like computed getters 'kda', 'kdaRatio') during
+                // deserialization
+                objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+                objectMapper.activateDefaultTyping(
+                                BasicPolymorphicTypeValidator.builder()
+                                                .allowIfBaseType(Object.class)
+                                                .build(),
+                                ObjectMapper.DefaultTyping.EVERYTHING,
+                                JsonTypeInfo.As.WRAPPER_OBJECT);
+
+                // Create serializer with configured ObjectMapper
+                return new GenericJackson2JsonRedisSerializer(objectMapper);
         }
 }
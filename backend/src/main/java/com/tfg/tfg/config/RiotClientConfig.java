@@ -0,0 +1,92 @@
+package com.tfg.tfg.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import com.tfg.tfg.service.riot.RiotRateLimitInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Outbound HTTP client shared by RiotService and DataDragonService.
+ *
+ * Uses a pooled Apache HttpClient so connections (and their TLS sessions) to
+ * each Riot routing host and Data Dragon are kept alive and reused, responses
+ * are requested gzip-compressed, and every call has connect/read timeouts.
+ * Every request also goes through the Riot rate limit governor, which retries
+ * transient failures; HttpClient's own retries are disabled so a call is never
+ * retried by both.
+ */
+@Configuration
+public class RiotClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager riotConnectionManager(
+            @Value("${riot.http.max-connections:50}") int maxConnections,
+            @Value("${riot.http.max-connections-per-host:20}") int maxConnectionsPerHost,
+            @Value("${riot.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${riot.http.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${riot.http.connection-ttl-seconds:300}") long connectionTtlSeconds,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                // LIFO keeps the most recently used (warm) connections busy and lets the rest idle out
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "riot").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient riotHttpClient(PoolingHttpClientConnectionManager riotConnectionManager,
+            @Value("${riot.http.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${riot.http.pool-acquire-timeout-ms:5000}") long poolAcquireTimeoutMs,
+            @Value("${riot.http.idle-evict-seconds:30}") long idleEvictSeconds) {
+        // Content compression (Accept-Encoding: gzip, deflate + transparent decoding)
+        // and keep-alive are on by default in HttpClient 5
+        return HttpClients.custom()
+                .setConnectionManager(riotConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEvictSeconds, TimeUnit.SECONDS))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate riotRestTemplate(CloseableHttpClient riotHttpClient,
+            RiotRateLimitInterceptor rateLimitInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(riotHttpClient));
+        // Must stay the last interceptor: it re-executes the request on retry
+        restTemplate.getInterceptors().add(rateLimitInterceptor);
+        return restTemplate;
+    }
+}
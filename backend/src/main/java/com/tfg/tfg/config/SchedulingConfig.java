@@ -0,0 +1,13 @@
+package com.tfg.tfg.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs, such as the background prefetch of linked
+ * and favorite summoners.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,38 @@
+package com.tfg.tfg.config.cache;
+
+/**
+ * Invalidation broadcast between instances over Redis pub/sub, telling the
+ * other instances to drop an entry (or a whole cache) from their L1.
+ *
+ * Encoded as {@code origin|cacheName|key}; an absent key clears the cache.
+ *
+ * @param origin    Instance that changed the entry; it ignores its own messages
+ * @param cacheName Name of the cache
+ * @param key       String form of the key, or null to clear the cache
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key) {
+
+    private static final String SEPARATOR = "|";
+    private static final String CLEAR_MARKER = "*";
+
+    public String encode() {
+        return origin + SEPARATOR + cacheName + SEPARATOR + (key == null ? CLEAR_MARKER : "=" + key);
+    }
+
+    /**
+     * @return The decoded message, or null if the payload is malformed
+     */
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            return null;
+        }
+        if (CLEAR_MARKER.equals(parts[2])) {
+            return new CacheInvalidationMessage(parts[0], parts[1], null);
+        }
+        if (!parts[2].startsWith("=")) {
+            return null;
+        }
+        return new CacheInvalidationMessage(parts[0], parts[1], parts[2].substring(1));
+    }
+}
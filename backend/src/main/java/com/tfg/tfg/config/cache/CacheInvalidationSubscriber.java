@@ -0,0 +1,93 @@
+package com.tfg.tfg.config.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Subscribes the {@link TwoLevelCacheManager} to the invalidations published
+ * by other instances.
+ *
+ * The listener container is not started with the context, which would fail
+ * the boot while Redis is unreachable; instead subscribing is retried every
+ * {@code cache.l1.subscribe-retry-ms} until it succeeds. Until then the L1
+ * caches rely on their TTL alone.
+ */
+@Component
+public class CacheInvalidationSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationSubscriber.class);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final CacheManager cacheManager;
+    private final String channel;
+    private RedisMessageListenerContainer container;
+    private volatile boolean subscribed;
+    private boolean failureLogged;
+
+    public CacheInvalidationSubscriber(RedisConnectionFactory connectionFactory, CacheManager cacheManager,
+            @Value("${cache.l1.invalidation-channel:spiritblade:cache-invalidation}") String channel) {
+        this.connectionFactory = connectionFactory;
+        this.cacheManager = cacheManager;
+        this.channel = channel;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${cache.l1.subscribe-retry-ms:30000}")
+    public synchronized void subscribe() {
+        CacheManager target = cacheManager instanceof InstrumentedCacheManager instrumented
+                ? instrumented.getDelegate()
+                : cacheManager;
+        if (subscribed || !(target instanceof TwoLevelCacheManager twoLevelCacheManager)) {
+            return;
+        }
+        RedisMessageListenerContainer candidate = new RedisMessageListenerContainer();
+        candidate.setConnectionFactory(connectionFactory);
+        candidate.addMessageListener(twoLevelCacheManager, new ChannelTopic(channel));
+        try {
+            candidate.afterPropertiesSet();
+            candidate.start();
+            container = candidate;
+            subscribed = true;
+            logger.info("Subscribed to cache invalidations on {}", channel);
+        } catch (RuntimeException e) {
+            destroyQuietly(candidate);
+            if (!failureLogged) {
+                logger.warn("Cannot subscribe to cache invalidations yet, L1 entries expire by TTL only: {}",
+                        e.getMessage());
+                failureLogged = true;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} once invalidations from other instances are received
+     */
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (container != null) {
+            destroyQuietly(container);
+            container = null;
+            subscribed = false;
+        }
+    }
+
+    private static void destroyQuietly(RedisMessageListenerContainer listenerContainer) {
+        try {
+            listenerContainer.destroy();
+        } catch (Exception e) {
+            logger.debug("Could not stop cache invalidation listener: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.tfg.tfg.config.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through caching that keeps entries expiring together from turning into
+ * a burst of recomputations.
+ *
+ * Entries are stored as {@link RefreshableValue}s. Before an entry expires,
+ * each read decides with probability growing towards the expiry whether to
+ * recompute it early (XFetch: refresh when
+ * {@code now - delta * beta * ln(rand) >= expiry}, where {@code delta} is how
+ * long the value took to compute). Recomputing takes a per-key lock in Redis:
+ * the holder recomputes while everyone else keeps getting the still-valid
+ * value, and on a plain miss the others wait up to
+ * {@code cache.refresh.lock-wait-ms} for the holder's result. If Redis cannot
+ * be reached (or is known to be down) every caller recomputes on its own.
+ */
+@Component
+public class CacheRefreshCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheRefreshCoordinator.class);
+    private static final String LOCK_PREFIX = "lock:";
+    private static final long WAIT_POLL_MILLIS = 50;
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisAvailability redisAvailability;
+    private final MeterRegistry meterRegistry;
+    private final double beta;
+    private final long lockTtlMillis;
+    private final long lockWaitMillis;
+
+    /**
+     * @param redisTemplate     Template holding the recompute locks, null to recompute without locking
+     * @param redisAvailability Skips the locks while Redis is down, may be null
+     */
+    public CacheRefreshCoordinator(CacheManager cacheManager, StringRedisTemplate redisTemplate,
+            RedisAvailability redisAvailability, MeterRegistry meterRegistry,
+            @Value("${cache.refresh.beta:1.0}") double beta,
+            @Value("${cache.refresh.lock-ttl-ms:10000}") long lockTtlMillis,
+            @Value("${cache.refresh.lock-wait-ms:3000}") long lockWaitMillis) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.redisAvailability = redisAvailability;
+        this.meterRegistry = meterRegistry;
+        this.beta = Math.max(0, beta);
+        this.lockTtlMillis = Math.max(1, lockTtlMillis);
+        this.lockWaitMillis = Math.max(0, lockWaitMillis);
+    }
+
+    /**
+     * Returns the cached value for the key, computing it when missing and
+     * possibly refreshing it ahead of its expiry.
+     *
+     * @param ttl       How long a computed value stays valid
+     * @param loader    Computes the value
+     * @param cacheable Whether a computed value may be stored
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Duration ttl, Supplier<T> loader, Predicate<T> cacheable) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+
+        RefreshableValue entry = read(cache, key);
+        if (entry != null) {
+            if (!shouldRefreshEarly(entry, System.currentTimeMillis())) {
+                return (T) entry.value();
+            }
+            Lock lock = tryLock(cacheName, key);
+            if (!lock.acquired()) {
+                return (T) entry.value();
+            }
+            meterRegistry.counter("cache.refresh.early", "cache", cacheName).increment();
+            try {
+                return compute(cache, key, ttl, loader, cacheable);
+            } catch (RuntimeException e) {
+                logger.debug("Early refresh of {}::{} failed, keeping the current value: {}",
+                        cacheName, key, e.getMessage());
+                return (T) entry.value();
+            } finally {
+                unlock(lock);
+            }
+        }
+
+        Lock lock = tryLock(cacheName, key);
+        if (!lock.acquired()) {
+            RefreshableValue computedByHolder = awaitHolder(cache, key);
+            if (computedByHolder != null) {
+                meterRegistry.counter("cache.refresh.waited", "cache", cacheName).increment();
+                return (T) computedByHolder.value();
+            }
+        }
+        try {
+            return compute(cache, key, ttl, loader, cacheable);
+        } finally {
+            unlock(lock);
+        }
+    }
+
+    /**
+     * Stores a value computed outside {@link #get}, e.g. by a background
+     * revalidation.
+     */
+    public void put(String cacheName, String key, Duration ttl, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && value != null) {
+            cache.put(key, new RefreshableValue(value, 0, System.currentTimeMillis() + ttl.toMillis()));
+        }
+    }
+
+    private boolean shouldRefreshEarly(RefreshableValue entry, long nowMillis) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double headStart = -entry.deltaMillis() * beta * Math.log(random);
+        return nowMillis + headStart >= entry.expiresAtMillis();
+    }
+
+    private <T> T compute(Cache cache, String key, Duration ttl, Supplier<T> loader, Predicate<T> cacheable) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        long deltaMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (value != null && cacheable.test(value)) {
+            cache.put(key, new RefreshableValue(value, deltaMillis, System.currentTimeMillis() + ttl.toMillis()));
+        }
+        return value;
+    }
+
+    private static RefreshableValue read(Cache cache, String key) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        if (wrapper != null && wrapper.get() instanceof RefreshableValue entry
+                && entry.expiresAtMillis() > System.currentTimeMillis()) {
+            return entry;
+        }
+        return null;
+    }
+
+    private RefreshableValue awaitHolder(Cache cache, String key) {
+        long deadline = System.currentTimeMillis() + lockWaitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(WAIT_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            RefreshableValue entry = read(cache, key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private record Lock(String key, String token, boolean acquired) {
+        static final Lock UNAVAILABLE = new Lock(null, null, true);
+    }
+
+    private Lock tryLock(String cacheName, String key) {
+        if (redisTemplate == null) {
+            return Lock.UNAVAILABLE;
+        }
+        if (redisAvailability != null && !redisAvailability.allowRequest()) {
+            meterRegistry.counter("cache.refresh.lock", "cache", cacheName, "result", "unavailable").increment();
+            return Lock.UNAVAILABLE;
+        }
+        String lockKey = LOCK_PREFIX + cacheName + "::" + key;
+        String token = UUID.randomUUID().toString();
+        try {
+            boolean acquired = Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(lockKey, token, Duration.ofMillis(lockTtlMillis)));
+            if (redisAvailability != null) {
+                redisAvailability.onSuccess();
+            }
+            meterRegistry.counter("cache.refresh.lock", "cache", cacheName, "result", acquired ? "acquired" : "busy")
+                    .increment();
+            return new Lock(lockKey, token, acquired);
+        } catch (RuntimeException e) {
+            if (redisAvailability != null) {
+                redisAvailability.onFailure(e);
+            }
+            meterRegistry.counter("cache.refresh.lock", "cache", cacheName, "result", "unavailable").increment();
+            logger.debug("Recompute lock unavailable for {}::{}: {}", cacheName, key, e.getMessage());
+            return Lock.UNAVAILABLE;
+        }
+    }
+
+    private void unlock(Lock lock) {
+        if (lock.token() == null || !lock.acquired()
+                || (redisAvailability != null && redisAvailability.isDown())) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lock.key()), lock.token());
+        } catch (RuntimeException e) {
+            // The lock expires on its own after cache.refresh.lock-ttl-ms
+            logger.debug("Could not release recompute lock {}: {}", lock.key(), e.getMessage());
+        }
+    }
+}
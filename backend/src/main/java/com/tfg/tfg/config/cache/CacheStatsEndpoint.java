@@ -0,0 +1,123 @@
+package com.tfg.tfg.config.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Actuator endpoint ({@code /actuator/cachestats}) summarising the meters of
+ * every named cache, plus the statistics of its in-process L1 and its Redis
+ * L2 when it has them.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public CacheStatsEndpoint(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public record Operation(long count, double meanMillis, double maxMillis) {
+    }
+
+    public record Payload(long count, double meanBytes, double maxBytes) {
+    }
+
+    public record Level(long hits, long misses, long puts, long evictions, long size) {
+    }
+
+    public record Stats(long hits, long misses, double hitRatio, long puts, long evictions,
+            Operation get, Operation put, Payload written, Payload read, Level l1, Level l2) {
+    }
+
+    @ReadOperation
+    public Map<String, Stats> caches() {
+        Map<String, Stats> stats = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Stats cacheStats = cache(name);
+            if (cacheStats != null) {
+                stats.put(name, cacheStats);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * @return Statistics of a configured cache; {@code null} (404) for any
+     *         other name, without creating a cache or meters for it
+     */
+    @ReadOperation
+    public Stats cache(@Selector String name) {
+        if (!cacheManager.getCacheNames().contains(name)) {
+            return null;
+        }
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return null;
+        }
+        long hits = count("cache.gets", name, "result", "hit");
+        long misses = count("cache.gets", name, "result", "miss");
+        double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        Cache target = cache instanceof InstrumentedCache instrumented ? instrumented.getDelegate() : cache;
+        Level l1 = null;
+        Cache remote = target;
+        if (target instanceof TwoLevelCache twoLevelCache) {
+            CacheStats local = twoLevelCache.getLocalCache().stats();
+            l1 = new Level(local.hitCount(), local.missCount(), 0, local.evictionCount(),
+                    twoLevelCache.getLocalCache().estimatedSize());
+            remote = twoLevelCache.getRemoteCache();
+        }
+        Level l2 = null;
+        if (remote instanceof RedisCache redisCache) {
+            CacheStatistics redis = redisCache.getStatistics();
+            l2 = new Level(redis.getHits(), redis.getMisses(), redis.getPuts(), redis.getDeletes(), -1);
+        }
+        return new Stats(hits, misses, hitRatio,
+                count("cache.puts", name), count("cache.evictions", name),
+                operation("cache.get.latency", name), operation("cache.put.latency", name),
+                payload(name, "write"), payload(name, "read"), l1, l2);
+    }
+
+    private long count(String meter, String cacheName, String... tags) {
+        Counter counter = meterRegistry.find(meter).tag("cache", cacheName).tags(tags).counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+
+    private Operation operation(String meter, String cacheName) {
+        Timer timer = meterRegistry.find(meter).tag("cache", cacheName).timer();
+        if (timer == null) {
+            return new Operation(0, 0.0, 0.0);
+        }
+        return new Operation(timer.count(), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+    }
+
+    private Payload payload(String cacheName, String operation) {
+        DistributionSummary summary = meterRegistry.find("cache.payload.size")
+                .tags("cache", cacheName, "operation", operation)
+                .summary();
+        if (summary == null) {
+            return new Payload(0, 0.0, 0.0);
+        }
+        return new Payload(summary.count(), summary.mean(), summary.max());
+    }
+}
@@ -0,0 +1,29 @@
+package com.tfg.tfg.config.cache;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.tfg.tfg.service.CacheWarmupService;
+
+/**
+ * Reports the cache warm-up as {@code cacheWarmup} on the health endpoint:
+ * OUT_OF_SERVICE while it runs, UP once it finished (or ran out of time), with
+ * its progress as details. It is part of the readiness group, so an instance
+ * only receives traffic once its caches are warm.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmupService cacheWarmupService;
+
+    public CacheWarmupHealthIndicator(CacheWarmupService cacheWarmupService) {
+        this.cacheWarmupService = cacheWarmupService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = cacheWarmupService.isWarmingUp() ? Health.outOfService() : Health.up();
+        return builder.withDetails(cacheWarmupService.getProgress()).build();
+    }
+}
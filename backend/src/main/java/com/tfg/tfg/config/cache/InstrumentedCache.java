@@ -0,0 +1,152 @@
+package com.tfg.tfg.config.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.cache.Cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Cache decorator that publishes per-cache Micrometer meters, all tagged with
+ * the cache name:
+ * <ul>
+ * <li>{@code cache.gets} with {@code result=hit|miss}</li>
+ * <li>{@code cache.puts} and {@code cache.evictions}</li>
+ * <li>{@code cache.get.latency} and {@code cache.put.latency}</li>
+ * </ul>
+ * A {@link #get(Object, Callable)} that has to run the loader counts as a
+ * miss, and its latency includes the load.
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter evictions;
+    private final Timer getLatency;
+    private final Timer putLatency;
+
+    public InstrumentedCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        String name = delegate.getName();
+        this.hits = Counter.builder("cache.gets")
+                .description("Cache lookups that found a value")
+                .tags("cache", name, "result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+                .description("Cache lookups that found no value")
+                .tags("cache", name, "result", "miss")
+                .register(meterRegistry);
+        this.puts = Counter.builder("cache.puts")
+                .description("Values written to the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions")
+                .description("Entries removed from the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.getLatency = Timer.builder("cache.get.latency")
+                .description("Time spent reading the cache, loading included")
+                .tag("cache", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.putLatency = Timer.builder("cache.put.latency")
+                .description("Time spent writing the cache")
+                .tag("cache", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The decorated cache
+     */
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = getLatency.record(() -> delegate.get(key));
+        countLookup(wrapper != null);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = getLatency.record(() -> delegate.get(key, type));
+        countLookup(value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        T value = getLatency.record(() -> delegate.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        }));
+        countLookup(!loaded.get());
+        if (loaded.get()) {
+            puts.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putLatency.record(() -> delegate.put(key, value));
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = putLatency.record(() -> delegate.putIfAbsent(key, value));
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        evictions.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private void countLookup(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+}
@@ -0,0 +1,52 @@
+package com.tfg.tfg.config.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link CacheManager} that hands out the caches of another manager wrapped in
+ * an {@link InstrumentedCache}, so every named cache gets its own meters
+ * whatever its implementation.
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, InstrumentedCache> caches = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return The decorated cache manager
+     */
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        InstrumentedCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new InstrumentedCache(target, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
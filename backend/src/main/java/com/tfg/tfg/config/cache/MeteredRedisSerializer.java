@@ -0,0 +1,52 @@
+package com.tfg.tfg.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Redis value codec that records the encoded size of the values of one cache
+ * in {@code cache.payload.size}, tagged with the cache name and
+ * {@code operation=write|read}.
+ */
+public class MeteredRedisSerializer<T> implements RedisSerializer<T> {
+
+    private final RedisSerializer<T> delegate;
+    private final DistributionSummary written;
+    private final DistributionSummary read;
+
+    public MeteredRedisSerializer(RedisSerializer<T> delegate, String cacheName, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.written = payloadSize(cacheName, "write", meterRegistry);
+        this.read = payloadSize(cacheName, "read", meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(T value) {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes != null) {
+            written.record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes != null) {
+            read.record(bytes.length);
+        }
+        return delegate.deserialize(bytes);
+    }
+
+    private static DistributionSummary payloadSize(String cacheName, String operation, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("cache.payload.size")
+                .description("Encoded size of the values stored in Redis")
+                .baseUnit("bytes")
+                .tags("cache", cacheName, "operation", operation)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(64.0)
+                .maximumExpectedValue(1024.0 * 1024.0)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.tfg.tfg.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tracks whether the Redis behind the caches answers, so callers stop waiting
+ * on it as soon as it fails.
+ *
+ * After a failure Redis is considered down: {@link #allowRequest()} turns
+ * callers away at once, except for a single probe every
+ * {@code retryMillis}. The first success after that marks Redis up again and
+ * runs the recovery listeners on a background thread, so the caches can
+ * reconcile what they changed meanwhile. Publishes {@code cache.redis.available}
+ * (1 or 0) and counts failures in {@code cache.redis.failures}.
+ */
+public class RedisAvailability {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisAvailability.class);
+
+    private final long retryMillis;
+    private final AtomicBoolean down = new AtomicBoolean();
+    private final AtomicLong nextProbeAt = new AtomicLong();
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService recoveryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final MeterRegistry meterRegistry;
+
+    public RedisAvailability(long retryMillis, MeterRegistry meterRegistry) {
+        this.retryMillis = Math.max(0, retryMillis);
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("cache.redis.available", down, d -> d.get() ? 0 : 1);
+    }
+
+    /**
+     * @return {@code true} if Redis should be called: it is up, or it is down
+     *         and this caller gets to probe it
+     */
+    public boolean allowRequest() {
+        if (!down.get()) {
+            return true;
+        }
+        long probeAt = nextProbeAt.get();
+        long now = System.currentTimeMillis();
+        return now >= probeAt && nextProbeAt.compareAndSet(probeAt, now + retryMillis);
+    }
+
+    /**
+     * @return {@code true} while Redis is considered down
+     */
+    public boolean isDown() {
+        return down.get();
+    }
+
+    public void onSuccess() {
+        if (down.compareAndSet(true, false)) {
+            logger.info("Redis is reachable again, reconciling caches");
+            for (Runnable listener : recoveryListeners) {
+                recoveryExecutor.execute(listener);
+            }
+        }
+    }
+
+    public void onFailure(RuntimeException e) {
+        meterRegistry.counter("cache.redis.failures").increment();
+        nextProbeAt.set(System.currentTimeMillis() + retryMillis);
+        if (down.compareAndSet(false, true)) {
+            logger.warn("Redis is unavailable, serving caches from memory only: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registers work to run (in the background) each time Redis comes back.
+     */
+    public void addRecoveryListener(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    public void shutdown() {
+        recoveryExecutor.shutdownNow();
+    }
+}
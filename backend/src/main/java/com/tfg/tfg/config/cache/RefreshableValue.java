@@ -0,0 +1,12 @@
+package com.tfg.tfg.config.cache;
+
+/**
+ * Cached value together with what probabilistic early refresh needs to know
+ * about it.
+ *
+ * @param value           The cached value
+ * @param deltaMillis     How long computing the value took
+ * @param expiresAtMillis Epoch millis at which the value stops being valid
+ */
+public record RefreshableValue(Object value, long deltaMillis, long expiresAtMillis) {
+}
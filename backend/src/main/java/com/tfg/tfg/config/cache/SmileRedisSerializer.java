@@ -0,0 +1,141 @@
+package com.tfg.tfg.config.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Binary codec for Redis cache values: Jackson Smile, optionally deflated.
+ *
+ * Smile writes field names once and refers back to them afterwards, and with
+ * shared string values enabled the class names used as type ids are stored
+ * once per value as well. Type ids are only written where the declared type
+ * is not final ({@code NON_FINAL}), so strings and numbers carry none.
+ *
+ * Every value starts with a format byte; values of at least
+ * {@code compressionThreshold} bytes are deflated when that makes them
+ * smaller. A negative threshold disables compression.
+ */
+public class SmileRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte FORMAT_SMILE = 1;
+    private static final byte FORMAT_SMILE_DEFLATED = 2;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final int compressionThreshold;
+
+    public SmileRedisSerializer(int compressionThreshold) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        this.objectMapper = new ObjectMapper(smileFactory)
+                .registerModule(new JavaTimeModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.objectMapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfBaseType(Object.class)
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        // Written as Object so final root types (e.g. unmodifiable lists) get a type id too
+        this.writer = objectMapper.writerFor(Object.class);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] smile;
+        try {
+            smile = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+        if (compressionThreshold >= 0 && smile.length >= compressionThreshold) {
+            byte[] deflated = deflate(smile);
+            if (deflated.length < smile.length) {
+                return withFormat(FORMAT_SMILE_DEFLATED, deflated);
+            }
+        }
+        return withFormat(FORMAT_SMILE, smile);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        byte[] body = Arrays.copyOfRange(bytes, 1, bytes.length);
+        try {
+            return switch (bytes[0]) {
+                case FORMAT_SMILE -> objectMapper.readValue(body, Object.class);
+                case FORMAT_SMILE_DEFLATED -> objectMapper.readValue(inflate(body), Object.class);
+                default -> throw new SerializationException("Unknown cache value format " + bytes[0]);
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] withFormat(byte format, byte[] body) {
+        byte[] framed = new byte[body.length + 1];
+        framed[0] = format;
+        System.arraycopy(body, 0, framed, 1, body.length);
+        return framed;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated deflated cache value");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt deflated cache value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.tfg.tfg.config.cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Cache with a bounded in-process L1 (Caffeine) in front of a shared L2
+ * (Redis).
+ *
+ * Reads are served from L1 when possible and fill it from L2 otherwise.
+ * Writes and evictions go to both levels and are broadcast so other instances
+ * drop their L1 copy. Keys are held in L1 in their string form, the same form
+ * Redis keys and invalidation messages use.
+ *
+ * With a {@link RedisAvailability}, a failing L2 does not fail the cache: it
+ * is skipped while Redis is down and L1 serves alone. Keys written or evicted
+ * meanwhile are replayed to L2 by {@link #reconcile()} once Redis is back;
+ * past {@code maxPending} changes the cache is cleared in L2 instead.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    /**
+     * Receives the changes made through this cache, to broadcast them.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        /**
+         * @param key String form of the changed key, or null if the cache was cleared
+         */
+        void changed(String cacheName, String key);
+    }
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final ChangeListener changeListener;
+    private final RedisAvailability availability;
+    private final long maxPending;
+    private final Set<String> pendingWrites = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private volatile boolean pendingClear;
+
+    public TwoLevelCache(String name, Cache remote, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            ChangeListener changeListener) {
+        this(name, remote, local, changeListener, null, 0);
+    }
+
+    /**
+     * @param availability Tracks Redis failures, null to let them propagate
+     * @param maxPending   Changes remembered per cache while Redis is down
+     */
+    public TwoLevelCache(String name, Cache remote, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            ChangeListener changeListener, RedisAvailability availability, long maxPending) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.changeListener = changeListener;
+        this.availability = availability;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    /**
+     * @return The L2 of this cache
+     */
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    /**
+     * @return The L1 of this cache
+     */
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        RemoteResult<ValueWrapper> result = callRemote(() -> remote.get(key));
+        ValueWrapper wrapper = result.value();
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+        // Redis may fail after running the loader (on the L2 write): reuse that value
+        // rather than calling the loader a second time
+        AtomicReference<T> loadedByRemote = new AtomicReference<>();
+        AtomicBoolean loaderRan = new AtomicBoolean();
+        Callable<T> recordingLoader = () -> {
+            T loadedValue = valueLoader.call();
+            loadedByRemote.set(loadedValue);
+            loaderRan.set(true);
+            return loadedValue;
+        };
+        RemoteResult<T> result = callRemote(() -> remote.get(key, recordingLoader));
+        T loaded = result.value();
+        if (!result.done()) {
+            loaded = loaderRan.get() ? loadedByRemote.get() : load(key, valueLoader);
+            if (loaded != null) {
+                rememberWrite(localKey);
+            }
+        }
+        if (loaded != null) {
+            local.put(localKey, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        boolean stored = callRemote(() -> {
+            remote.put(key, value);
+            return null;
+        }).done();
+        String localKey = localKey(key);
+        if (value != null) {
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        if (!stored) {
+            rememberWrite(localKey);
+        }
+        changed(localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        RemoteResult<ValueWrapper> result = callRemote(() -> remote.putIfAbsent(key, value));
+        if (!result.done()) {
+            Object current = local.getIfPresent(localKey);
+            if (current != null) {
+                return new SimpleValueWrapper(current);
+            }
+            if (value != null) {
+                local.put(localKey, value);
+                rememberWrite(localKey);
+            }
+            return null;
+        }
+        ValueWrapper existing = result.value();
+        if (existing == null) {
+            if (value != null) {
+                local.put(localKey, value);
+            }
+            changed(localKey);
+        } else if (existing.get() != null) {
+            local.put(localKey, existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        boolean evicted = callRemote(() -> {
+            remote.evict(key);
+            return null;
+        }).done();
+        evictLocal(localKey);
+        if (!evicted) {
+            rememberEviction(localKey);
+        }
+        changed(localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        boolean presentLocally = local.getIfPresent(localKey) != null;
+        RemoteResult<Boolean> result = callRemote(() -> remote.evictIfPresent(key));
+        evictLocal(localKey);
+        if (!result.done()) {
+            rememberEviction(localKey);
+        }
+        changed(localKey);
+        return result.done() ? Boolean.TRUE.equals(result.value()) : presentLocally;
+    }
+
+    @Override
+    public void clear() {
+        boolean cleared = callRemote(() -> {
+            remote.clear();
+            return null;
+        }).done();
+        clearLocal();
+        if (!cleared) {
+            rememberClear();
+        }
+        changed(null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        RemoteResult<Boolean> result = callRemote(remote::invalidate);
+        clearLocal();
+        if (!result.done()) {
+            rememberClear();
+        }
+        changed(null);
+        return result.done() && Boolean.TRUE.equals(result.value());
+    }
+
+    /**
+     * Drops an entry from L1 only, after another instance changed it.
+     */
+    public void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    /**
+     * Drops every entry from L1 only, after another instance cleared the cache.
+     */
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * @return {@code true} if changes made while Redis was down still have to
+     *         be replayed to it
+     */
+    public boolean hasPendingChanges() {
+        return pendingClear || !pendingWrites.isEmpty() || !pendingEvictions.isEmpty();
+    }
+
+    /**
+     * Replays to L2 the changes made while Redis was down: a clear, then the
+     * evictions, then the values still held in L1 (which overwrite the older
+     * copies Redis kept from before). Other instances are told to drop their
+     * L1 copy of each replayed key. Stops at the first Redis failure, leaving
+     * the rest for the next recovery.
+     */
+    public void reconcile() {
+        try {
+            if (pendingClear) {
+                remote.clear();
+                pendingClear = false;
+                changed(null);
+            }
+            for (String key : pendingEvictions) {
+                remote.evict(key);
+                pendingEvictions.remove(key);
+                changed(key);
+            }
+            for (String key : pendingWrites) {
+                Object value = local.getIfPresent(key);
+                if (value != null) {
+                    remote.put(key, value);
+                }
+                pendingWrites.remove(key);
+                changed(key);
+            }
+        } catch (DataAccessException e) {
+            if (availability != null) {
+                availability.onFailure(e);
+            }
+            logger.debug("Reconciling cache {} interrupted: {}", name, e.getMessage());
+        }
+    }
+
+    private record RemoteResult<T>(T value, boolean done) {
+    }
+
+    /**
+     * Runs an L2 operation, unless Redis is known to be down.
+     *
+     * @return The result, not done if L2 was skipped or failed
+     */
+    private <T> RemoteResult<T> callRemote(Supplier<T> call) {
+        if (availability == null) {
+            return new RemoteResult<>(call.get(), true);
+        }
+        if (!availability.allowRequest()) {
+            return new RemoteResult<>(null, false);
+        }
+        try {
+            T value = call.get();
+            availability.onSuccess();
+            return new RemoteResult<>(value, true);
+        } catch (DataAccessException e) {
+            availability.onFailure(e);
+            return new RemoteResult<>(null, false);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void changed(String key) {
+        changeListener.changed(name, key);
+    }
+
+    private void rememberWrite(String key) {
+        pendingEvictions.remove(key);
+        if (!pendingClear && !remember(pendingWrites, key)) {
+            rememberClear();
+        }
+    }
+
+    private void rememberEviction(String key) {
+        pendingWrites.remove(key);
+        if (!pendingClear && !remember(pendingEvictions, key)) {
+            rememberClear();
+        }
+    }
+
+    /**
+     * Too many changes to replay one by one, or a clear: the whole cache is
+     * cleared in L2 on recovery.
+     */
+    private void rememberClear() {
+        pendingClear = true;
+        pendingWrites.clear();
+        pendingEvictions.clear();
+    }
+
+    private boolean remember(Set<String> keys, String key) {
+        if (keys.size() >= maxPending) {
+            return false;
+        }
+        keys.add(key);
+        return true;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,172 @@
+package com.tfg.tfg.config.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * {@link CacheManager} that puts a bounded in-process L1 in front of every
+ * cache of the shared L2 manager (Redis).
+ *
+ * Each L1 holds at most {@code maximumSize} entries for at most {@code ttl}
+ * after they were written, which bounds how stale an instance can be if an
+ * invalidation message is lost. Changes are published on the invalidation
+ * channel, and messages from other instances evict the matching L1 entries,
+ * so replicas stay coherent.
+ *
+ * With a {@link RedisAvailability} the caches keep working from L1 alone while
+ * Redis is down; entries written meanwhile stay up to {@code degradedTtl} in
+ * L1, and every cache is reconciled with Redis when it comes back.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final CacheManager remote;
+    private final long maximumSize;
+    private final Duration ttl;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final RedisAvailability availability;
+    private final Duration degradedTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param remote        Shared L2 cache manager
+     * @param maximumSize   Maximum entries per L1 cache
+     * @param ttl           Time an entry stays in L1 after being written
+     * @param redisTemplate Template used to publish invalidations, null to keep them local
+     * @param channel       Pub/sub channel of the invalidation messages
+     */
+    public TwoLevelCacheManager(CacheManager remote, long maximumSize, Duration ttl,
+            StringRedisTemplate redisTemplate, String channel) {
+        this(remote, maximumSize, ttl, redisTemplate, channel, null, ttl);
+    }
+
+    /**
+     * @param availability Tracks Redis failures, null to let them propagate
+     * @param degradedTtl  Time an entry written while Redis is down stays in L1
+     */
+    public TwoLevelCacheManager(CacheManager remote, long maximumSize, Duration ttl,
+            StringRedisTemplate redisTemplate, String channel, RedisAvailability availability,
+            Duration degradedTtl) {
+        this.remote = remote;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.availability = availability;
+        this.degradedTtl = degradedTtl;
+        if (availability != null) {
+            availability.addRecoveryListener(this::reconcile);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoLevelCache(n, remoteCache, newLocalCache(),
+                this::publish, availability, maximumSize));
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> newLocalCache() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats();
+        if (availability == null) {
+            return builder.expireAfterWrite(ttl).build();
+        }
+        return builder.expireAfter(new Expiry<String, Object>() {
+            @Override
+            public long expireAfterCreate(String key, Object value, long currentTime) {
+                return (availability.isDown() ? degradedTtl : ttl).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        }).build();
+    }
+
+    /**
+     * Replays to Redis what every cache changed while it was down.
+     */
+    public void reconcile() {
+        for (TwoLevelCache cache : caches.values()) {
+            if (cache.hasPendingChanges()) {
+                cache.reconcile();
+            }
+        }
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    /**
+     * @return Identifier of this instance in invalidation messages
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation = CacheInvalidationMessage
+                .decode(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (invalidation == null || instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private void publish(String cacheName, String key) {
+        if (redisTemplate == null || (availability != null && availability.isDown())) {
+            // Replayed by reconcile() once Redis is back
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidationMessage(instanceId, cacheName, key).encode());
+        } catch (RuntimeException e) {
+            // Other instances fall back to the L1 TTL
+            logger.debug("Could not publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
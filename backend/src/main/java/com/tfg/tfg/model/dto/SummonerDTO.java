@@ -27,6 +27,11 @@ public class SummonerDTO {
     private Integer wins;
     private Integer losses;
     private LocalDateTime lastSearchedAt;
+
+    /**
+     * True when served from the stored copy because Riot could not be reached
+     */
+    private boolean stale;
     
     /**
      * Creates a SummonerDTO from a Summoner entity
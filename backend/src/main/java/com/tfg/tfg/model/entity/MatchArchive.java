@@ -0,0 +1,46 @@
+package com.tfg.tfg.model.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Raw match-v5 payload of a finished match, stored gzip-compressed.
+ * Finished matches never change, so one archived copy replaces every later
+ * Riot call for the same match ID.
+ */
+@Entity
+@Table(name = "match_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MatchArchive {
+
+    @Id
+    @Column(name = "match_id", length = 32)
+    private String matchId;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "raw_size", nullable = false)
+    private int rawSize;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public MatchArchive(String matchId, byte[] payload, int rawSize) {
+        this.matchId = matchId;
+        this.payload = payload;
+        this.rawSize = rawSize;
+        this.archivedAt = LocalDateTime.now();
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -20,6 +21,9 @@ import lombok.Setter;
         @Index(name = "idx_match_summoner", columnList = "summoner_id"),
         @Index(name = "idx_match_timestamp", columnList = "timestamp"),
         @Index(name = "idx_match_id", columnList = "matchId")
+}, uniqueConstraints = {
+        // One row per player and match, however many requests store it at once
+        @UniqueConstraint(name = "uk_match_summoner", columnNames = { "matchId", "summoner_id" })
 })
 @Getter
 @Setter
@@ -0,0 +1,13 @@
+package com.tfg.tfg.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.tfg.tfg.model.entity.MatchArchive;
+
+/**
+ * Repository for archived raw match-v5 payloads, keyed by match ID.
+ */
+@Repository
+public interface MatchArchiveRepository extends JpaRepository<MatchArchive, String> {
+}
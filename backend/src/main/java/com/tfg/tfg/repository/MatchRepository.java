@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,14 @@ public interface MatchRepository extends JpaRepository<MatchEntity, Long> {
     @Query("SELECT m FROM MatchEntity m WHERE m.matchId IN :matchIds AND m.summoner = :summoner")
     List<MatchEntity> findByMatchIdInAndSummoner(@Param("matchIds") List<String> matchIds, @Param("summoner") Summoner summoner);
 
+    /**
+     * Find the PUUIDs of the given summoners that already have a row for the match
+     * (used to skip participants when fanning a match out)
+     */
+    @Query("SELECT m.summoner.puuid FROM MatchEntity m WHERE m.matchId = :matchId AND m.summoner IN :summoners")
+    List<String> findSummonerPuuidsByMatchIdAndSummonerIn(@Param("matchId") String matchId,
+            @Param("summoners") Collection<Summoner> summoners);
+
     /**
      * Find ranked matches by queueId (420 = Solo/Duo, 440 = Flex)
      * Uses JOIN FETCH to avoid N+1 query problem
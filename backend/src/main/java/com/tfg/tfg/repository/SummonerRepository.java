@@ -1,5 +1,6 @@
 package com.tfg.tfg.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,11 +16,21 @@ public interface SummonerRepository extends JpaRepository<Summoner, Long> {
      */
     Optional<Summoner> findByName(String name);
 
+    /**
+     *  Find the most recently searched summoner with the given name, ignoring case
+     */
+    Optional<Summoner> findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc(String name);
+
     /**
      *  Find summoner by exact puuid
      */
     Optional<Summoner> findByPuuid(String puuid);
 
+    /**
+     *  Find all summoners whose puuid is in the given collection
+     */
+    List<Summoner> findByPuuidIn(Collection<String> puuids);
+
     /**
      *  Find top 9 summoners ordered by last searched date descending
      */
@@ -1,10 +1,12 @@
 package com.tfg.tfg.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.tfg.tfg.model.entity.UserModel;
@@ -56,5 +58,18 @@ public interface UserModelRepository extends JpaRepository<UserModel, Long> {
      */
     Page<UserModel> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
         String name, String email, Pageable pageable);
+
+    /**
+     * PUUIDs of the summoners linked to active accounts.
+     */
+    @Query("SELECT DISTINCT u.linkedSummonerPuuid FROM UserModel u "
+            + "WHERE u.active = true AND u.linkedSummonerPuuid IS NOT NULL")
+    List<String> findLinkedSummonerPuuids();
+
+    /**
+     * PUUIDs of the summoners marked as favorite by active accounts.
+     */
+    @Query("SELECT DISTINCT s.puuid FROM UserModel u JOIN u.favoriteSummoners s "
+            + "WHERE u.active = true AND s.puuid IS NOT NULL")
+    List<String> findFavoriteSummonerPuuids();
 }
-   
@@ -0,0 +1,218 @@
+package com.tfg.tfg.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.tfg.tfg.model.entity.MatchEntity;
+import com.tfg.tfg.model.entity.Summoner;
+import com.tfg.tfg.repository.MatchRepository;
+import com.tfg.tfg.repository.SummonerRepository;
+import com.tfg.tfg.repository.UserModelRepository;
+import com.tfg.tfg.service.interfaces.IDataDragonService;
+import com.tfg.tfg.service.interfaces.IRiotService;
+import com.tfg.tfg.service.riot.RiotPriority;
+
+/**
+ * Preloads the caches a fresh instance would otherwise serve cold, before it
+ * reports ready: the champion registry, the recently searched and favorite
+ * summoners, and the newest stored matches of those summoners.
+ *
+ * Runs once as an {@link ApplicationRunner}, so Spring only flips the
+ * readiness state to accepting traffic once it is done. The whole warm-up is
+ * bounded by {@code cache.warmup.budget-seconds}; whatever is not loaded by
+ * then is left to the first requests. Progress is reported by the
+ * {@code cacheWarmup} health indicator. Summoners are loaded through
+ * {@link IRiotService#warmSummoner(String)}, which does not count as a search,
+ * so warming them leaves the recent searches list alone. Riot calls run in
+ * the {@link RiotPriority#PREFETCH} lane (summoners) and the
+ * {@link RiotPriority#BULK} lane (matches), although most lookups are
+ * answered by Redis or the match archive.
+ */
+@Service
+public class CacheWarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    public enum Phase {
+        PENDING, RUNNING, COMPLETED, TIMED_OUT, DISABLED
+    }
+
+    private final SummonerRepository summonerRepository;
+    private final UserModelRepository userRepository;
+    private final MatchRepository matchRepository;
+    private final IDataDragonService dataDragonService;
+    private final IRiotService riotService;
+    private final boolean enabled;
+    private final long budgetMillis;
+    private final int matchesPerSummoner;
+
+    private final AtomicInteger champions = new AtomicInteger();
+    private final AtomicInteger summoners = new AtomicInteger();
+    private final AtomicInteger matches = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile Phase phase = Phase.PENDING;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public CacheWarmupService(SummonerRepository summonerRepository,
+            UserModelRepository userRepository,
+            MatchRepository matchRepository,
+            IDataDragonService dataDragonService,
+            IRiotService riotService,
+            @Value("${cache.warmup.enabled:true}") boolean enabled,
+            @Value("${cache.warmup.budget-seconds:60}") long budgetSeconds,
+            @Value("${cache.warmup.matches-per-summoner:3}") int matchesPerSummoner) {
+        this.summonerRepository = summonerRepository;
+        this.userRepository = userRepository;
+        this.matchRepository = matchRepository;
+        this.dataDragonService = dataDragonService;
+        this.riotService = riotService;
+        this.enabled = enabled;
+        this.budgetMillis = Math.max(0, budgetSeconds) * 1000;
+        this.matchesPerSummoner = Math.max(0, matchesPerSummoner);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Loads the champions, then the summoners, then their matches, until
+     * everything is cached or the time budget runs out. A lookup that fails
+     * is counted and skipped.
+     */
+    public void warmUp() {
+        if (!enabled) {
+            phase = Phase.DISABLED;
+            return;
+        }
+        startedAt = System.currentTimeMillis();
+        phase = Phase.RUNNING;
+        long deadline = startedAt + budgetMillis;
+        logger.info("Warming up caches (budget {} s)", budgetMillis / 1000);
+
+        boolean inTime = warmChampions(deadline);
+        List<Summoner> warmSummoners = new ArrayList<>();
+        if (inTime) {
+            inTime = warm("summoners", summonersToWarm(), deadline, summoners, summoner -> {
+                RiotPriority.PREFETCH.run(() -> riotService.warmSummoner(summoner.getName()));
+                warmSummoners.add(summoner);
+            });
+        }
+        if (inTime) {
+            inTime = warm("matches", matchIdsToWarm(warmSummoners), deadline, matches,
+                    matchId -> RiotPriority.BULK.run(() -> riotService.getMatchDetails(matchId)));
+        }
+
+        finishedAt = System.currentTimeMillis();
+        phase = inTime ? Phase.COMPLETED : Phase.TIMED_OUT;
+        logger.info("Cache warm-up {} in {} ms: {} champions, {} summoners, {} matches, {} failures",
+                inTime ? "completed" : "ran out of time", finishedAt - startedAt,
+                champions.get(), summoners.get(), matches.get(), failures.get());
+    }
+
+    /**
+     * @return {@code true} while the caches are still being loaded
+     */
+    public boolean isWarmingUp() {
+        return phase == Phase.PENDING || phase == Phase.RUNNING;
+    }
+
+    /**
+     * @return Current phase and what has been loaded so far
+     */
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("phase", phase);
+        if (startedAt > 0) {
+            long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+            progress.put("elapsedMs", end - startedAt);
+        }
+        progress.put("budgetMs", budgetMillis);
+        progress.put("champions", champions.get());
+        progress.put("summoners", summoners.get());
+        progress.put("matches", matches.get());
+        progress.put("failures", failures.get());
+        return progress;
+    }
+
+    private List<Summoner> summonersToWarm() {
+        Map<String, Summoner> byPuuid = new LinkedHashMap<>();
+        for (Summoner summoner : summonerRepository.findTop9ByOrderByLastSearchedAtDesc()) {
+            byPuuid.putIfAbsent(summoner.getPuuid(), summoner);
+        }
+        for (Summoner summoner : summonerRepository.findByPuuidIn(userRepository.findFavoriteSummonerPuuids())) {
+            byPuuid.putIfAbsent(summoner.getPuuid(), summoner);
+        }
+        return byPuuid.values().stream()
+                .filter(summoner -> summoner.getName() != null && summoner.getName().contains("#"))
+                .toList();
+    }
+
+    private List<String> matchIdsToWarm(List<Summoner> warmSummoners) {
+        Set<String> matchIds = new LinkedHashSet<>();
+        if (matchesPerSummoner == 0) {
+            return List.of();
+        }
+        for (Summoner summoner : warmSummoners) {
+            for (MatchEntity match : matchRepository.findRecentMatchesBySummoner(summoner,
+                    PageRequest.of(0, matchesPerSummoner))) {
+                matchIds.add(match.getMatchId());
+            }
+        }
+        return new ArrayList<>(matchIds);
+    }
+
+    /**
+     * @return {@code false} if the deadline passed before the registry was loaded
+     */
+    private boolean warmChampions(long deadline) {
+        if (System.currentTimeMillis() >= deadline) {
+            logger.warn("Cache warm-up budget exhausted while loading champions");
+            return false;
+        }
+        try {
+            champions.set(dataDragonService.loadChampions());
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            logger.debug("Could not warm up champions: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the deadline passed before every item was loaded
+     */
+    private <T> boolean warm(String step, Iterable<T> items, long deadline, AtomicInteger loaded,
+            Consumer<T> loader) {
+        for (T item : items) {
+            if (System.currentTimeMillis() >= deadline) {
+                logger.warn("Cache warm-up budget exhausted while loading {}", step);
+                return false;
+            }
+            try {
+                loader.accept(item);
+                loaded.incrementAndGet();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                logger.debug("Could not warm up {} entry: {}", step, e.getMessage());
+            }
+        }
+        return true;
+    }
+}
@@ -299,8 +299,12 @@ public class DashboardService implements IDashboardService {
 
     private List<MatchHistoryDTO> fetchAndSaveFreshMatches(Summoner summoner, Integer queueId, int page, int size) {
         logger.info("Fetching fresh match data from Riot API for summoner {}", summoner.getName());
-        List<MatchHistoryDTO> allMatches = riotService.getMatchHistory(summoner.getPuuid(), page * size, size);
-        List<MatchHistoryDTO> rankedMatches = filterRankedMatches(allMatches, queueId, size);
+        // Queue/type filters are applied by match-v5, so only ranked games are fetched
+        List<MatchHistoryDTO> apiMatches = queueId != null
+                ? riotService.getMatchHistory(summoner.getPuuid(), page * size, size, queueId, null)
+                : riotService.getMatchHistory(summoner.getPuuid(), page * size, size, null,
+                        IRiotService.MATCH_TYPE_RANKED);
+        List<MatchHistoryDTO> rankedMatches = filterRankedMatches(apiMatches, queueId, size);
         saveMatchesToDatabaseWithLP(summoner, rankedMatches);
         return rankedMatches.stream().limit(size).toList();
     }
@@ -350,7 +354,9 @@ public class DashboardService implements IDashboardService {
     }
 
     /**
-     * Check if cached matches need update from API
+     * Check if cached matches need update from API.
+     * The latest match ID comes from the freshness tracker when it was checked
+     * recently, so repeated dashboard loads do not probe Riot every time.
      */
     private boolean checkIfCacheNeedsUpdate(List<MatchEntity> cachedMatches, String puuid) {
         if (cachedMatches.isEmpty()) {
@@ -361,15 +367,11 @@ public class DashboardService implements IDashboardService {
         String mostRecentMatchId = mostRecentCached.getMatchId();
 
         try {
-            List<MatchHistoryDTO> latestFromApi = riotService.getMatchHistory(puuid, 0, 1);
+            Optional<String> latestApiMatchId = riotService.getLatestMatchId(puuid);
 
-            if (!latestFromApi.isEmpty()) {
-                String latestApiMatchId = latestFromApi.get(0).getMatchId();
-
-                if (!latestApiMatchId.equals(mostRecentMatchId)) {
-                    logger.info("New matches detected, updating cache");
-                    return true;
-                }
+            if (latestApiMatchId.isPresent() && !latestApiMatchId.get().equals(mostRecentMatchId)) {
+                logger.info("New matches detected, updating cache");
+                return true;
             }
         } catch (Exception e) {
             logger.warn("Could not check latest match from API: {}", e.getMessage());
@@ -1,9 +1,9 @@
 package com.tfg.tfg.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,47 +11,89 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tfg.tfg.model.entity.Champion;
 import com.tfg.tfg.repository.ChampionRepository;
+import com.tfg.tfg.service.datadragon.ChampionBatchWriter;
+import com.tfg.tfg.service.datadragon.ChampionRegistry;
+import com.tfg.tfg.service.datadragon.ChampionSnapshot;
 import com.tfg.tfg.service.interfaces.IDataDragonService;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Service to interact with Riot's Data Dragon static data API
  * Data Dragon provides champion names, images, and other static game data
+ *
+ * Champion lookups are answered from an in-memory {@link ChampionRegistry},
+ * loaded on first use from the local snapshot file (or the champion table if
+ * there is none) and replaced after every Data Dragon update.
+ *
+ * An update asks versions.json for the latest version (unless one is pinned)
+ * and does nothing if the champions of that version are already loaded.
+ * Otherwise it downloads champion.json, writes the changed rows in JDBC
+ * batches and stores a new snapshot, so the next boot needs neither the
+ * database nor the network to resolve champions.
  */
 @Service
 public class DataDragonService implements IDataDragonService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataDragonService.class);
 
-    private static final String DATA_DRAGON_VERSION = "16.8.1";
+    /** Version used until one is detected or loaded from the snapshot */
+    private static final String DEFAULT_VERSION = "16.8.1";
     private static final String DATA_DRAGON_BASE_URL = "https://ddragon.leagueoflegends.com";
-    private static final String CDN_BASE = DATA_DRAGON_BASE_URL + "/cdn/" + DATA_DRAGON_VERSION;
-    private static final String CHAMPION_JSON_URL = CDN_BASE + "/data/en_US/champion.json";
+    private static final String VERSIONS_URL = DATA_DRAGON_BASE_URL + "/api/versions.json";
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final ChampionRepository championRepository;
+    private final ChampionBatchWriter championBatchWriter;
+    private final String pinnedVersion;
+    private final Path snapshotPath;
+    private volatile ChampionRegistry championRegistry;
+    /** Version whose champions are in the registry, null if unknown */
+    private volatile String loadedVersion;
+    private volatile String version;
 
-    public DataDragonService(ChampionRepository championRepository) {
-        this.restTemplate = new RestTemplate();
+    public DataDragonService(ChampionRepository championRepository, RestTemplate restTemplate,
+            ChampionBatchWriter championBatchWriter,
+            @Value("${datadragon.version:}") String pinnedVersion,
+            @Value("${datadragon.snapshot-path:data/champions-snapshot.json}") String snapshotPath) {
+        this.restTemplate = restTemplate;
         this.objectMapper = new ObjectMapper();
         this.championRepository = championRepository;
+        this.championBatchWriter = championBatchWriter;
+        this.pinnedVersion = pinnedVersion == null || pinnedVersion.isBlank() ? null : pinnedVersion.trim();
+        this.snapshotPath = snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath.trim());
+        this.version = this.pinnedVersion != null ? this.pinnedVersion : DEFAULT_VERSION;
     }
 
     /**
-     * Update champion data in the database from Data Dragon
-     * This should be called on application startup
+     * Update champion data in the database from Data Dragon, unless the
+     * latest version is already loaded and every loaded champion is stored.
+     * The row count is checked because the registry may come from the local
+     * snapshot while the table is empty or was reset. Run in the background
+     * by {@link com.tfg.tfg.service.datadragon.DataDragonSyncJob}.
      */
-    @Transactional
     public void updateChampionDatabase() {
         try {
-            logger.info("Updating champion database from Data Dragon...");
+            String latestVersion = latestVersion();
+            ChampionRegistry registry = championRegistry();
+            if (latestVersion.equals(loadedVersion) && championRepository.count() >= registry.size()) {
+                logger.debug("Champion data already at Data Dragon version {}", latestVersion);
+                return;
+            }
+            logger.info("Updating champion database from Data Dragon {}...", latestVersion);
 
-            String jsonResponse = restTemplate.getForObject(CHAMPION_JSON_URL, String.class);
+            String cdnBase = cdnBase(latestVersion);
+            String jsonResponse = restTemplate.getForObject(cdnBase + "/data/en_US/champion.json", String.class);
             JsonNode root = objectMapper.readTree(jsonResponse);
             JsonNode championsData = root.get("data");
 
             if (championsData != null && championsData.isObject()) {
-                int count = 0;
+                List<Champion> champions = new ArrayList<>();
                 var fields = championsData.fields();
                 while (fields.hasNext()) {
                     var entry = fields.next();
@@ -61,14 +103,18 @@ public class DataDragonService implements IDataDragonService {
                     String name = championInfo.get("name").asText();
                     long id = Long.parseLong(championInfo.get("key").asText());
 
-                    String imageUrl = CDN_BASE + "/img/champion/" + championKey + ".png";
+                    String imageUrl = cdnBase + "/img/champion/" + championKey + ".png";
 
-                    Champion champion = new Champion(id, championKey, name, imageUrl);
-                    championRepository.save(champion);
-                    count++;
+                    champions.add(new Champion(id, championKey, name, imageUrl));
                 }
+                int written = championBatchWriter.upsert(champions);
+                championRegistry = ChampionRegistry.of(champions);
+                loadedVersion = latestVersion;
+                version = latestVersion;
+                writeSnapshot(ChampionSnapshot.of(latestVersion, champions));
 
-                logger.info("Successfully updated {} champions in database", count);
+                logger.info("Successfully loaded {} champions of version {} ({} rows written)",
+                        champions.size(), latestVersion, written);
             } else {
                 logger.warn("No champion data found in Data Dragon response");
             }
@@ -85,14 +131,12 @@ public class DataDragonService implements IDataDragonService {
      * @param championId Numeric champion ID from Riot API
      * @return Champion name or "Unknown Champion" if not found
      */
-    @Cacheable(value = "champions", key = "#championId")
     public String getChampionNameById(Long championId) {
         if (championId == null || championId == -1) {
             return "Unknown Champion";
         }
-        return championRepository.findById(championId)
-                .map(Champion::getName)
-                .orElse("Champion " + championId);
+        String name = championRegistry().name(championId);
+        return name != null ? name : "Champion " + championId;
     }
 
     /**
@@ -101,14 +145,56 @@ public class DataDragonService implements IDataDragonService {
      * @param championId Numeric champion ID
      * @return URL to champion icon image
      */
-    @Cacheable(value = "champions", key = "'icon_' + #championId")
     public String getChampionIconUrl(Long championId) {
         if (championId == null || championId == -1)
             return "";
 
-        return championRepository.findById(championId)
-                .map(Champion::getImageUrl)
-                .orElse("");
+        String iconUrl = championRegistry().iconUrl(championId);
+        return iconUrl != null ? iconUrl : "";
+    }
+
+    /**
+     * Loads the champion registry if it is not loaded yet
+     * 
+     * @return Number of champions in the registry
+     */
+    public int loadChampions() {
+        return championRegistry().size();
+    }
+
+    private ChampionRegistry championRegistry() {
+        ChampionRegistry registry = championRegistry;
+        if (registry == null) {
+            synchronized (this) {
+                if (championRegistry == null) {
+                    championRegistry = loadChampionRegistry();
+                }
+                registry = championRegistry;
+            }
+        }
+        return registry;
+    }
+
+    private ChampionRegistry loadChampionRegistry() {
+        Optional<ChampionSnapshot> snapshot = readSnapshot();
+        if (snapshot.isPresent()) {
+            ChampionRegistry registry = ChampionRegistry.of(snapshot.get().toChampions());
+            loadedVersion = snapshot.get().version();
+            if (pinnedVersion == null) {
+                version = loadedVersion;
+            }
+            logger.info("Loaded {} champions of version {} from {}", registry.size(), loadedVersion, snapshotPath);
+            return registry;
+        }
+        try {
+            ChampionRegistry registry = ChampionRegistry.of(championRepository.findAll());
+            logger.info("Loaded {} champions into the champion registry", registry.size());
+            return registry;
+        } catch (DataAccessException e) {
+            // Filled by the next Data Dragon update
+            logger.warn("Could not load champions from the database: {}", e.getMessage());
+            return ChampionRegistry.EMPTY;
+        }
     }
 
     /**
@@ -121,6 +207,53 @@ public class DataDragonService implements IDataDragonService {
         if (profileIconId == null) {
             return "";
         }
-        return CDN_BASE + "/img/profileicon/" + profileIconId + ".png";
+        return cdnBase(version) + "/img/profileicon/" + profileIconId + ".png";
+    }
+
+    /**
+     * @return The pinned version, else the newest one listed by versions.json,
+     *         else the version in use
+     */
+    private String latestVersion() {
+        if (pinnedVersion != null) {
+            return pinnedVersion;
+        }
+        try {
+            JsonNode versions = objectMapper.readTree(restTemplate.getForObject(VERSIONS_URL, String.class));
+            if (versions != null && versions.isArray() && !versions.isEmpty()) {
+                return versions.get(0).asText();
+            }
+            logger.warn("No versions found in Data Dragon versions.json");
+        } catch (Exception e) {
+            logger.warn("Could not detect the latest Data Dragon version: {}", e.getMessage());
+        }
+        return version;
+    }
+
+    private Optional<ChampionSnapshot> readSnapshot() {
+        if (snapshotPath == null) {
+            return Optional.empty();
+        }
+        try {
+            return ChampionSnapshot.read(snapshotPath, objectMapper);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable champion snapshot {}: {}", snapshotPath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeSnapshot(ChampionSnapshot snapshot) {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            snapshot.write(snapshotPath, objectMapper);
+        } catch (IOException e) {
+            logger.warn("Could not write champion snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private static String cdnBase(String version) {
+        return DATA_DRAGON_BASE_URL + "/cdn/" + version;
     }
 }
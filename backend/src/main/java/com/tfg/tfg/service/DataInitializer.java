@@ -13,7 +13,6 @@ import com.tfg.tfg.service.interfaces.IStorageService;
 import jakarta.annotation.PostConstruct;
 import java.nio.file.Files;
 import org.springframework.web.multipart.MultipartFile;
-import com.tfg.tfg.service.interfaces.IDataDragonService;
 
 @Component
 public class DataInitializer {
@@ -29,16 +28,13 @@ public class DataInitializer {
     private final UserModelRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final IStorageService storageService;
-    private final IDataDragonService dataDragonService;
 
     public DataInitializer(UserModelRepository userRepository,
             PasswordEncoder passwordEncoder,
-            IStorageService storageService,
-            IDataDragonService dataDragonService) {
+            IStorageService storageService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.storageService = storageService;
-        this.dataDragonService = dataDragonService;
     }
 
     @PostConstruct
@@ -55,8 +51,6 @@ public class DataInitializer {
 
         createAdminUserIfNotExists(adminPassword, isProduction);
         createRegularUserIfNotExists(userPassword, isProduction);
-
-        dataDragonService.updateChampionDatabase();
     }
 
     /**
@@ -0,0 +1,105 @@
+package com.tfg.tfg.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.tfg.tfg.model.entity.MatchArchive;
+import com.tfg.tfg.repository.MatchArchiveRepository;
+import com.tfg.tfg.service.interfaces.IMatchArchiveService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Durable archive of raw match-v5 payloads.
+ * Payloads are gzip-compressed (match JSON shrinks to roughly a fifth) and
+ * written once per match ID; the archive is read before any Riot call so a
+ * finished match is downloaded at most once.
+ */
+@Service
+public class MatchArchiveService implements IMatchArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchArchiveService.class);
+
+    private final MatchArchiveRepository matchArchiveRepository;
+    private final MeterRegistry meterRegistry;
+
+    public MatchArchiveService(MatchArchiveRepository matchArchiveRepository, MeterRegistry meterRegistry) {
+        this.matchArchiveRepository = matchArchiveRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Looks up the archived payload of a match.
+     *
+     * @param matchId The match ID
+     * @return The uncompressed match-v5 JSON, or empty if the match is not archived
+     *         or the archive cannot be read
+     */
+    @Override
+    public Optional<byte[]> findPayload(String matchId) {
+        try {
+            Optional<byte[]> payload = matchArchiveRepository.findById(matchId)
+                    .map(archive -> decompress(archive.getPayload()));
+            meterRegistry.counter("riot.archive.lookups", "result", payload.isPresent() ? "hit" : "miss").increment();
+            return payload;
+        } catch (DataAccessException | UncheckedIOException e) {
+            logger.warn("Could not read archived match {}: {}", matchId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the payload of a finished match unless it is already archived.
+     * Failures are logged and swallowed: the archive is an optimization and must
+     * not break the request that fetched the match.
+     *
+     * @param matchId The match ID
+     * @param payload Raw match-v5 JSON as returned by Riot
+     */
+    @Override
+    public void archive(String matchId, byte[] payload) {
+        if (matchId == null || payload == null || payload.length == 0) {
+            return;
+        }
+        try {
+            if (matchArchiveRepository.existsById(matchId)) {
+                return;
+            }
+            byte[] compressed = compress(payload);
+            matchArchiveRepository.save(new MatchArchive(matchId, compressed, payload.length));
+            meterRegistry.counter("riot.archive.stored").increment();
+            logger.debug("Archived match {} ({} -> {} bytes)", matchId, payload.length, compressed.length);
+        } catch (DataAccessException | UncheckedIOException e) {
+            // A concurrent request may have archived the same match first
+            logger.debug("Could not archive match {}: {}", matchId, e.getMessage());
+        }
+    }
+
+    private static byte[] compress(byte[] payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
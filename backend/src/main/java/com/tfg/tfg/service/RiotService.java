@@ -1,18 +1,25 @@
 package com.tfg.tfg.service;
 
 import com.tfg.tfg.service.interfaces.IDataDragonService;
+import com.tfg.tfg.service.interfaces.IMatchArchiveService;
 import com.tfg.tfg.service.interfaces.IRankHistoryService;
 import com.tfg.tfg.service.interfaces.IRiotService;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tfg.tfg.exception.RiotApiException;
 import com.tfg.tfg.exception.SummonerNotFoundException;
 import com.tfg.tfg.model.dto.SummonerDTO;
@@ -30,27 +37,71 @@ import com.tfg.tfg.model.mapper.RiotMatchMapper;
 import com.tfg.tfg.model.mapper.SummonerMapper;
 import com.tfg.tfg.repository.MatchRepository;
 import com.tfg.tfg.repository.SummonerRepository;
+import com.tfg.tfg.config.CacheConfig;
+import com.tfg.tfg.config.cache.CacheRefreshCoordinator;
+import com.tfg.tfg.service.riot.MatchFreshnessTracker;
+import com.tfg.tfg.service.riot.RiotCircuitBreaker;
+import com.tfg.tfg.service.riot.RiotFetchExecutor;
+import com.tfg.tfg.service.riot.RiotIdResolver;
+import com.tfg.tfg.service.riot.RiotMatchStreamParser;
+import com.tfg.tfg.service.riot.RiotPriority;
+import com.tfg.tfg.service.riot.RiotRequestCoalescer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 public class RiotService implements IRiotService {
 
     private static final Logger logger = LoggerFactory.getLogger(RiotService.class);
     private static final String STACKTRACE_LOG_MESSAGE = "Stacktrace:";
+    private static final String MASTERIES_CACHE = "masteries";
+    private static final String SUMMONERS_CACHE = "summoners";
+    private static final int TOP_MASTERIES_COUNT = 3;
 
     @Value("${riot.api.key}")
     private String apiKey;
 
+    /**
+     * Deadline for each summoner-v4 / league-v4 call of a profile lookup (0 = none)
+     */
+    @Value("${riot.summoner.call-timeout-ms:5000}")
+    private long summonerCallTimeoutMs;
+
+    /**
+     * Whether a profile lookup also warms the masteries cache in the background
+     */
+    @Value("${riot.summoner.prefetch-masteries:true}")
+    private boolean prefetchMasteries;
+
+    /**
+     * Whether history rows are read with the streaming match-v5 parser instead of
+     * binding the whole payload
+     */
+    @Value("${riot.matches.streaming-parse:true}")
+    private boolean streamingParse;
+
     private static final String RIOT_API_BASE_URL = "https://euw1.api.riotgames.com";
     private static final String RIOT_REGIONAL_BASE_URL = "https://europe.api.riotgames.com";
+    private static final String RIOT_API_HOST = URI.create(RIOT_API_BASE_URL).getHost();
+    private static final String RIOT_REGIONAL_HOST = URI.create(RIOT_REGIONAL_BASE_URL).getHost();
 
     private static final String ACCOUNT_BY_RIOT_ID_URL = RIOT_REGIONAL_BASE_URL
             + "/riot/account/v1/accounts/by-riot-id/{gameName}/{tagLine}?api_key={apiKey}";
@@ -67,6 +118,22 @@ public class RiotService implements IRiotService {
     private static final String MATCH_IDS_BY_PUUID_URL = RIOT_REGIONAL_BASE_URL
             + "/lol/match/v5/matches/by-puuid/{puuid}/ids?start={start}&count={count}&api_key={apiKey}";
 
+    private static final String MATCH_IDS_SINCE_BY_PUUID_URL = RIOT_REGIONAL_BASE_URL
+            + "/lol/match/v5/matches/by-puuid/{puuid}/ids?startTime={startTime}&start={start}&count={count}&api_key={apiKey}";
+
+    /** Values accepted by the type filter of the match-v5 ID listing */
+    private static final Set<String> MATCH_TYPES = Set.of(
+            IRiotService.MATCH_TYPE_RANKED, "normal", "tourney", "tutorial");
+
+    /** match-v5 upper bound for the count parameter of the match-ID listing */
+    private static final int MAX_MATCH_IDS_PER_REQUEST = 100;
+
+    /**
+     * Most match IDs an incremental sync pages through; a longer gap is left to
+     * the full fetch
+     */
+    private static final int MAX_SYNC_MATCH_IDS = 1000;
+
     private static final String MATCH_BY_ID_URL = RIOT_REGIONAL_BASE_URL
             + "/lol/match/v5/matches/{matchId}?api_key={apiKey}";
 
@@ -74,17 +141,44 @@ public class RiotService implements IRiotService {
     private final MatchRepository matchRepository;
     private final IDataDragonService dataDragonService;
     private final IRankHistoryService rankHistoryService;
+    private final RiotFetchExecutor fetchExecutor;
+    private final RiotRequestCoalescer requestCoalescer;
+    private final MatchFreshnessTracker freshnessTracker;
+    private final IMatchArchiveService matchArchiveService;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
     private final RestTemplate restTemplate;
+    private final RiotCircuitBreaker circuitBreaker;
+    private final RiotIdResolver riotIdResolver;
+    private final CacheRefreshCoordinator cacheRefresher;
 
     public RiotService(SummonerRepository summonerRepository,
             MatchRepository matchRepository,
             IDataDragonService dataDragonService,
-            IRankHistoryService rankHistoryService) {
+            IRankHistoryService rankHistoryService,
+            RiotFetchExecutor fetchExecutor,
+            RiotRequestCoalescer requestCoalescer,
+            MatchFreshnessTracker freshnessTracker,
+            IMatchArchiveService matchArchiveService,
+            CacheManager cacheManager,
+            RestTemplate restTemplate,
+            RiotCircuitBreaker circuitBreaker,
+            RiotIdResolver riotIdResolver,
+            CacheRefreshCoordinator cacheRefresher) {
         this.summonerRepository = summonerRepository;
         this.matchRepository = matchRepository;
         this.dataDragonService = dataDragonService;
         this.rankHistoryService = rankHistoryService;
-        this.restTemplate = new RestTemplate();
+        this.fetchExecutor = fetchExecutor;
+        this.requestCoalescer = requestCoalescer;
+        this.freshnessTracker = freshnessTracker;
+        this.matchArchiveService = matchArchiveService;
+        this.objectMapper = new ObjectMapper();
+        this.cacheManager = cacheManager;
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.riotIdResolver = riotIdResolver;
+        this.cacheRefresher = cacheRefresher;
     }
 
     /**
@@ -96,37 +190,112 @@ public class RiotService implements IRiotService {
 
     /**
      * Gets summoner data from Riot API by Riot ID (gameName#tagLine)
+     * Concurrent lookups of the same Riot ID share a single set of upstream calls.
+     * The PUUID comes from the {@link RiotIdResolver} when the Riot ID was
+     * resolved before, so account-v1 is only asked for new Riot IDs; Riot IDs
+     * it recently reported as unknown are rejected without asking again.
+     * Once the PUUID is resolved, summoner-v4 and league-v4 are queried in
+     * parallel, each with its own deadline.
+     * While the Riot circuit is open (or the lookup fails) the stored copy is
+     * returned at once, flagged as stale and not cached, and a background
+     * revalidation is queued for when Riot comes back.
+     * Cached profiles are refreshed early by a single caller as they near
+     * expiry, so profiles cached together do not all miss at once.
      * 
      * @param riotId Full Riot ID in format "gameName#tagLine" (e.g., "Player#EUW")
      * @return SummonerDTO with complete data from Riot API
      */
-    @Cacheable(value = "summoners", key = "#riotId")
     public SummonerDTO getSummonerByName(String riotId) {
+        return cacheRefresher.get(SUMMONERS_CACHE, riotId, CacheConfig.SUMMONERS_TTL,
+                () -> requestCoalescer.execute("summoner:" + riotId,
+                        () -> loadSummonerByName(riotId, LookupOrigin.SEARCH)),
+                summoner -> !summoner.isStale());
+    }
+
+    /**
+     * Loads a summoner into the summoners cache like
+     * {@link #getSummonerByName(String)}, but without counting as a search:
+     * the stored row keeps its {@code lastSearchedAt}, so warming a profile
+     * does not move it up the recent searches list, and no revalidation is
+     * queued if Riot is down.
+     *
+     * @param riotId Full Riot ID in format "gameName#tagLine"
+     * @return The cached or freshly loaded summoner
+     */
+    public SummonerDTO warmSummoner(String riotId) {
+        return cacheRefresher.get(SUMMONERS_CACHE, riotId, CacheConfig.SUMMONERS_TTL,
+                () -> requestCoalescer.execute("summoner-warmup:" + riotId,
+                        () -> loadSummonerByName(riotId, LookupOrigin.WARM_UP)),
+                summoner -> !summoner.isStale());
+    }
+
+    /**
+     * Who asked for a summoner lookup, which decides whether it counts as a
+     * search and whether a failed lookup queues a revalidation.
+     */
+    private enum LookupOrigin {
+        /** A user search */
+        SEARCH(true, true),
+        /** A queued revalidation of a user search; must not queue another one */
+        REVALIDATION(true, false),
+        /** Cache warm-up; not a search */
+        WARM_UP(false, false);
+
+        private final boolean search;
+        private final boolean revalidate;
+
+        LookupOrigin(boolean search, boolean revalidate) {
+            this.search = search;
+            this.revalidate = revalidate;
+        }
+    }
+
+    private SummonerDTO loadSummonerByName(String riotId, LookupOrigin origin) {
+        if (circuitBreaker.isOpen(RIOT_REGIONAL_HOST) || circuitBreaker.isOpen(RIOT_API_HOST)) {
+            Optional<Summoner> stored = summonerRepository.findByName(riotId);
+            if (stored.isPresent()) {
+                logger.info("Riot API circuit open, serving stored data for summoner: {}", riotId);
+                return staleSummoner(riotId, stored.get(), origin.revalidate);
+            }
+        }
+        if (riotIdResolver.isKnownMissing(riotId)) {
+            // Answered exactly like the account-v1 404 it stands for: no stored fallback
+            throw new SummonerNotFoundException("Summoner '" + riotId + "' not found in Riot API");
+        }
         try {
             String[] parts = parseRiotId(riotId);
             String gameName = parts[0];
             String tagLine = parts[1];
 
-            String puuid = fetchPuuidByRiotId(riotId, gameName, tagLine);
+            String puuid = riotIdResolver.resolve(riotId)
+                    .orElseGet(() -> fetchPuuidByRiotId(riotId, gameName, tagLine));
 
-            RiotSummonerDTO riotSummoner = fetchSummonerByPuuid(riotId, puuid);
+            CompletableFuture<RiotSummonerDTO> summonerCall = fetchExecutor
+                    .submit(() -> fetchSummonerByPuuid(riotId, puuid), summonerCallTimeoutMs);
+            CompletableFuture<RiotLeagueEntryDTO> leagueCall = fetchExecutor
+                    .submit(() -> fetchRankedEntry(puuid), summonerCallTimeoutMs);
+            if (prefetchMasteries) {
+                prefetchTopChampionMasteries(puuid);
+            }
 
-            RiotLeagueEntryDTO rankedEntry = fetchRankedEntry(puuid);
+            RiotSummonerDTO riotSummoner = fetchExecutor.await(summonerCall, "summoner-v4");
+            RiotLeagueEntryDTO rankedEntry = fetchExecutor.await(leagueCall, "league-v4");
 
             SummonerDTO dto = mapToSummonerDTO(riotSummoner, puuid, riotId, rankedEntry);
 
-            saveSummonerToDatabase(dto);
+            saveSummonerToDatabase(dto, origin.search);
 
             return dto;
 
         } catch (HttpClientErrorException.NotFound e) {
             logger.warn("Summoner not found in Riot API: {}", riotId);
+            riotIdResolver.forget(riotId);
             throw new SummonerNotFoundException("Summoner '" + riotId + "' not found in Riot API");
         } catch (SummonerNotFoundException e) {
             Optional<Summoner> found = summonerRepository.findByName(riotId);
             if (found.isPresent()) {
                 logger.info("Returning cached data for summoner (fallback): {}", riotId);
-                return mapSummonerEntityToDTO(found.get());
+                return staleSummoner(riotId, found.get(), false);
             }
             throw e;
         } catch (HttpClientErrorException e) { // NOSONAR - Exception is logged and rethrown with context
@@ -135,7 +304,7 @@ public class RiotService implements IRiotService {
             Optional<Summoner> found = summonerRepository.findByName(riotId);
             if (found.isPresent()) {
                 logger.info("Returning cached data for summoner: {}", riotId);
-                return mapSummonerEntityToDTO(found.get());
+                return staleSummoner(riotId, found.get(), false);
             }
             throw new RiotApiException(
                     "Riot API is currently unavailable for summoner '" + riotId + "'. Status: " + e.getStatusCode(),
@@ -145,12 +314,84 @@ public class RiotService implements IRiotService {
             logger.debug(STACKTRACE_LOG_MESSAGE, e);
             Optional<Summoner> found = summonerRepository.findByName(riotId);
             if (found.isPresent()) {
-                return mapSummonerEntityToDTO(found.get());
+                return staleSummoner(riotId, found.get(), origin.revalidate && isRiotUnavailable(e));
             }
             throw new RiotApiException("Unexpected error while fetching summoner data: " + e.getMessage(), 500);
         }
     }
 
+    /**
+     * Maps a stored summoner served in place of live data. When Riot itself is
+     * unavailable ({@code revalidate}), also queues a lookup that refreshes the
+     * summoners cache once it answers again; client errors are not retried.
+     */
+    private SummonerDTO staleSummoner(String riotId, Summoner stored, boolean revalidate) {
+        SummonerDTO dto = mapSummonerEntityToDTO(stored);
+        dto.setStale(true);
+        if (revalidate) {
+            circuitBreaker.scheduleRevalidation("summoner:" + riotId, () -> {
+                SummonerDTO fresh = loadSummonerByName(riotId, LookupOrigin.REVALIDATION);
+                if (fresh == null || fresh.isStale()) {
+                    return false;
+                }
+                cacheRefresher.put(SUMMONERS_CACHE, riotId, CacheConfig.SUMMONERS_TTL, fresh);
+                return true;
+            });
+        }
+        return dto;
+    }
+
+    /**
+     * @return {@code true} for server errors and I/O failures (including calls
+     *         rejected by an open circuit or past their deadline), i.e. failures
+     *         a later retry may not hit
+     */
+    private static boolean isRiotUnavailable(Exception e) {
+        if (e instanceof RiotApiException riotApiException) {
+            return riotApiException.getStatusCode() >= 500;
+        }
+        return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+    }
+
+    /**
+     * Re-reads the Solo/Duo entry of a stored summoner from league-v4 and saves
+     * the new rank, dropping the cached profile so the next lookup sees it.
+     * Unlike {@link #getSummonerByName(String)} this needs a single call, since
+     * the PUUID and profile are already known.
+     *
+     * @param puuid The player's PUUID
+     * @return The updated summoner, empty if the summoner is not stored
+     */
+    public Optional<SummonerDTO> refreshRankedEntry(String puuid) {
+        Optional<Summoner> stored = summonerRepository.findByPuuid(puuid);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Summoner summoner = stored.get();
+        RiotLeagueEntryDTO rankedEntry = fetchRankedEntry(puuid);
+        if (rankedEntry != null) {
+            summoner.setTier(rankedEntry.getTier());
+            summoner.setRank(rankedEntry.getRank());
+            summoner.setLp(rankedEntry.getLeaguePoints());
+            summoner.setWins(rankedEntry.getWins());
+            summoner.setLosses(rankedEntry.getLosses());
+        } else {
+            summoner.setTier("UNRANKED");
+            summoner.setRank("");
+            summoner.setLp(0);
+            summoner.setWins(0);
+            summoner.setLosses(0);
+        }
+        summonerRepository.save(summoner);
+
+        Cache summoners = cacheManager.getCache(SUMMONERS_CACHE);
+        if (summoners != null && summoner.getName() != null) {
+            summoners.evict(summoner.getName());
+        }
+        return Optional.of(mapSummonerEntityToDTO(summoner));
+    }
+
     private String[] parseRiotId(String riotId) {
         String[] parts = riotId.split("#");
         if (parts.length != 2) {
@@ -162,20 +403,28 @@ public class RiotService implements IRiotService {
     }
 
     private String fetchPuuidByRiotId(String riotId, String gameName, String tagLine) {
-        ResponseEntity<RiotAccountDTO> accountResponse = restTemplate.exchange(
-                ACCOUNT_BY_RIOT_ID_URL,
-                HttpMethod.GET,
-                null,
-                RiotAccountDTO.class,
-                gameName,
-                tagLine,
-                apiKey);
+        ResponseEntity<RiotAccountDTO> accountResponse;
+        try {
+            accountResponse = restTemplate.exchange(
+                    ACCOUNT_BY_RIOT_ID_URL,
+                    HttpMethod.GET,
+                    null,
+                    RiotAccountDTO.class,
+                    gameName,
+                    tagLine,
+                    apiKey);
+        } catch (HttpClientErrorException.NotFound e) {
+            riotIdResolver.rememberMissing(riotId);
+            throw e;
+        }
 
         RiotAccountDTO account = accountResponse.getBody();
         if (account == null || account.getPuuid() == null) {
             logger.warn("Account not found for Riot ID");
+            riotIdResolver.rememberMissing(riotId);
             throw new SummonerNotFoundException("Summoner '" + riotId + "' not found in Riot API");
         }
+        riotIdResolver.remember(riotId, account.getPuuid());
         return account.getPuuid();
     }
 
@@ -213,6 +462,32 @@ public class RiotService implements IRiotService {
         return null;
     }
 
+    /**
+     * Warms the masteries cache for a freshly looked-up summoner without delaying
+     * the profile response. Skipped if the cache already holds an entry.
+     * Runs in the prefetch lane, behind any user-facing call.
+     */
+    private void prefetchTopChampionMasteries(String puuid) {
+        Cache masteriesCache = cacheManager.getCache(MASTERIES_CACHE);
+        if (masteriesCache == null) {
+            return;
+        }
+        // Submitted from the prefetch lane so it runs on that lane's pool, not on
+        // a thread the interactive lookups need
+        RiotPriority.PREFETCH.call(() -> fetchExecutor.submit(() -> {
+            if (masteriesCache.get(puuid) == null) {
+                List<RiotChampionMasteryDTO> masteries = getTopChampionMasteries(puuid, TOP_MASTERIES_COUNT);
+                if (!masteries.isEmpty()) {
+                    masteriesCache.put(puuid, masteries);
+                }
+            }
+            return null;
+        }, summonerCallTimeoutMs)).exceptionally(e -> {
+            logger.debug("Mastery prefetch failed for PUUID {}: {}", puuid, e.getMessage());
+            return null;
+        });
+    }
+
     private SummonerDTO mapToSummonerDTO(RiotSummonerDTO riotSummoner, String puuid, String riotId,
             RiotLeagueEntryDTO rankedEntry) {
         SummonerDTO dto = new SummonerDTO();
@@ -242,8 +517,10 @@ public class RiotService implements IRiotService {
     /**
      * Saves summoner data to database for caching
      * Uses PUUID as the unique identifier to prevent duplicates
+     *
+     * @param searched Whether the lookup was a search, which stamps {@code lastSearchedAt}
      */
-    private void saveSummonerToDatabase(SummonerDTO dto) {
+    private void saveSummonerToDatabase(SummonerDTO dto, boolean searched) {
         try {
             if (dto.getPuuid() == null || dto.getPuuid().isEmpty()) {
                 logger.warn("Cannot save summoner without PUUID");
@@ -271,7 +548,9 @@ public class RiotService implements IRiotService {
             summoner.setLp(dto.getLp());
             summoner.setWins(dto.getWins());
             summoner.setLosses(dto.getLosses());
-            summoner.setLastSearchedAt(java.time.LocalDateTime.now());
+            if (searched) {
+                summoner.setLastSearchedAt(java.time.LocalDateTime.now());
+            }
 
             summonerRepository.save(summoner);
         } catch (DataAccessException dae) {
@@ -335,30 +614,30 @@ public class RiotService implements IRiotService {
     }
 
     /**
-     * Fetches a single match from Riot API, adds it to the match history list,
+     * Fetches a single match from Riot API, maps it for the match history view,
      * and saves it to the database for future cache hits.
+     * Runs on the parallel fetch pool, so failures are logged and reported as null
+     * instead of aborting the whole page.
      * 
      * @param matchId The match ID to fetch
      * @param puuid   The player's PUUID
-     * @param matches The list to add the match to
+     * @return The mapped match, or null if it could not be fetched
      */
-    private void fetchAndAddMatchToHistory(String matchId, String puuid, List<MatchHistoryDTO> matches) {
+    private MatchHistoryDTO fetchMatchForHistory(String matchId, String puuid) {
         try {
-            ResponseEntity<RiotMatchDTO> matchResponse = restTemplate.exchange(
-                    MATCH_BY_ID_URL,
-                    HttpMethod.GET,
-                    null,
-                    RiotMatchDTO.class,
-                    matchId,
-                    apiKey);
-
-            RiotMatchDTO match = matchResponse.getBody();
+            byte[] payload = fetchRawMatch(matchId);
+            if (payload == null || payload.length == 0) {
+                return null;
+            }
+            RiotMatchDTO match = streamingParse
+                    ? RiotMatchStreamParser.parseForParticipant(payload, puuid)
+                    : objectMapper.readValue(payload, RiotMatchDTO.class);
             if (match != null && match.getInfo() != null) {
                 MatchHistoryDTO matchDTO = RiotMatchMapper.toMatchHistoryDTO(match, puuid, dataDragonService);
                 if (matchDTO != null) {
-                    matches.add(matchDTO);
-
                     saveMatchToDatabase(match, puuid);
+                    saveMatchForKnownParticipants(payload, match, puuid);
+                    return matchDTO;
                 }
             }
         } catch (HttpClientErrorException hce) {
@@ -367,6 +646,47 @@ public class RiotService implements IRiotService {
             logger.warn("Error fetching match {}: {}", matchId, e.getMessage(), e);
             logger.debug(STACKTRACE_LOG_MESSAGE, e);
         }
+        return null;
+    }
+
+    /**
+     * Fetches a raw match from match-v5. Concurrent requests for the same match
+     * (e.g. several participants opening the same game) share one upstream call.
+     * 
+     * @param matchId The match ID to fetch
+     * @return The match payload, or null if Riot returned no body
+     */
+    private RiotMatchDTO fetchRiotMatch(String matchId) throws IOException {
+        byte[] payload = fetchRawMatch(matchId);
+        return payload == null || payload.length == 0 ? null : objectMapper.readValue(payload, RiotMatchDTO.class);
+    }
+
+    /**
+     * Returns the raw match-v5 payload of a match, served from the match archive
+     * when possible. A payload downloaded from Riot is archived before it is
+     * returned, so each finished match is fetched from Riot at most once.
+     *
+     * @param matchId The match ID
+     * @return Raw match JSON, or null if Riot returned no body
+     */
+    private byte[] fetchRawMatch(String matchId) {
+        Optional<byte[]> archived = matchArchiveService.findPayload(matchId);
+        if (archived.isPresent()) {
+            logger.debug("Match {} served from archive", matchId);
+            return archived.get();
+        }
+
+        return requestCoalescer.execute("match:" + matchId, () -> {
+            byte[] payload = restTemplate.exchange(
+                    MATCH_BY_ID_URL,
+                    HttpMethod.GET,
+                    null,
+                    byte[].class,
+                    matchId,
+                    apiKey).getBody();
+            matchArchiveService.archive(matchId, payload);
+            return payload;
+        });
     }
 
     /**
@@ -401,37 +721,145 @@ public class RiotService implements IRiotService {
                 return;
             }
 
-            MatchEntity matchEntity = new MatchEntity();
-            matchEntity.setMatchId(matchId);
-            matchEntity.setSummoner(summonerOpt.get());
-            matchEntity.setTimestamp(java.time.LocalDateTime.ofInstant(
-                    java.time.Instant.ofEpochMilli(riotMatch.getInfo().getGameCreation()),
-                    java.time.ZoneId.systemDefault()));
-            matchEntity.setWin(Boolean.TRUE.equals(participant.getWin()));
-            matchEntity.setKills(participant.getKills() != null ? participant.getKills() : 0);
-            matchEntity.setDeaths(participant.getDeaths() != null ? participant.getDeaths() : 0);
-            matchEntity.setAssists(participant.getAssists() != null ? participant.getAssists() : 0);
-            matchEntity.setChampionName(participant.getChampionName());
-            matchEntity.setChampionId(participant.getChampionId());
-            matchEntity.setRole(participant.getTeamPosition());
-            matchEntity.setLane(participant.getTeamPosition());
-            matchEntity.setGameDuration(riotMatch.getInfo().getGameDuration());
-            matchEntity.setGameMode(riotMatch.getInfo().getGameMode());
-            matchEntity.setQueueId(riotMatch.getInfo().getQueueId());
-            matchEntity.setTotalDamageDealt(participant.getTotalDamageDealtToChampions());
-            matchEntity.setGoldEarned(participant.getGoldEarned());
-            matchEntity.setChampLevel(participant.getChampLevel());
-            matchEntity.setSummonerName(participant.getSummonerName());
-
-            matchRepository.save(matchEntity);
+            matchRepository.save(buildMatchEntity(riotMatch, matchId, participant, summonerOpt.get()));
             logger.debug("Saved match {} to database cache", matchId);
 
+        } catch (DataIntegrityViolationException e) {
+            // Stored meanwhile by a concurrent request (e.g. another participant's fan-out)
+            logger.debug("Match already stored for PUUID {}: {}", puuid, e.getMessage());
         } catch (Exception e) {
             logger.warn("Failed to save match to database for PUUID {}: {}", puuid, e.getMessage(), e);
             logger.debug(STACKTRACE_LOG_MESSAGE, e);
         }
     }
 
+    /**
+     * Fan-out ingestion: a match-v5 payload holds the data of all ten players, so
+     * the match is also cached for every other participant that already exists as
+     * a Summoner, in one batch. Their later lookups become cache hits instead of
+     * fetching the same match again.
+     *
+     * @param payload        Raw match-v5 JSON
+     * @param riotMatch      The match as parsed for the requesting player
+     * @param requesterPuuid PUUID of the player whose row was saved by the caller
+     */
+    private void saveMatchForKnownParticipants(byte[] payload, RiotMatchDTO riotMatch, String requesterPuuid) {
+        try {
+            String matchId = riotMatch.getMetadata() != null ? riotMatch.getMetadata().getMatchId() : null;
+            List<String> participantPuuids = riotMatch.getMetadata() != null
+                    ? riotMatch.getMetadata().getParticipants()
+                    : null;
+            if (matchId == null || participantPuuids == null || participantPuuids.size() <= 1) {
+                return;
+            }
+
+            Set<String> otherPuuids = new LinkedHashSet<>(participantPuuids);
+            otherPuuids.remove(requesterPuuid);
+            otherPuuids.remove(null);
+            if (otherPuuids.isEmpty()) {
+                return;
+            }
+
+            List<Summoner> knownSummoners = summonerRepository.findByPuuidIn(otherPuuids);
+            if (knownSummoners.isEmpty()) {
+                return;
+            }
+
+            Map<String, Summoner> pending = new HashMap<>();
+            knownSummoners.forEach(summoner -> pending.put(summoner.getPuuid(), summoner));
+            matchRepository.findSummonerPuuidsByMatchIdAndSummonerIn(matchId, knownSummoners)
+                    .forEach(pending::remove);
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<RiotMatchDTO.ParticipantDTO> participants = participantsOf(payload, riotMatch, pending.keySet());
+            List<MatchEntity> entities = new ArrayList<>(participants.size());
+            for (RiotMatchDTO.ParticipantDTO participant : participants) {
+                entities.add(buildMatchEntity(riotMatch, matchId, participant, pending.get(participant.getPuuid())));
+            }
+            if (!entities.isEmpty()) {
+                int saved = saveNewMatches(entities);
+                logger.debug("Cached match {} for {} other known participants", matchId, saved);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to fan out match to other participants: {}", e.getMessage());
+            logger.debug(STACKTRACE_LOG_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Inserts the rows in one batch. Rows another request stored since they
+     * were checked make the unique (match, summoner) key reject the batch; the
+     * rows are then inserted one by one, skipping those already stored.
+     *
+     * @return Number of rows inserted
+     */
+    private int saveNewMatches(List<MatchEntity> entities) {
+        try {
+            matchRepository.saveAll(entities);
+            return entities.size();
+        } catch (DataIntegrityViolationException e) {
+            int saved = 0;
+            for (MatchEntity entity : entities) {
+                // The rolled-back batch may have assigned an ID
+                entity.setId(null);
+                try {
+                    matchRepository.save(entity);
+                    saved++;
+                } catch (DataIntegrityViolationException alreadyStored) {
+                    logger.debug("Match {} already stored for summoner {}", entity.getMatchId(),
+                            entity.getSummoner() != null ? entity.getSummoner().getPuuid() : null);
+                }
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Returns the participants with the given PUUIDs, reading them from the
+     * payload when the parsed match only holds the requesting player.
+     */
+    private List<RiotMatchDTO.ParticipantDTO> participantsOf(byte[] payload, RiotMatchDTO riotMatch,
+            Set<String> puuids) throws IOException {
+        List<RiotMatchDTO.ParticipantDTO> parsed = riotMatch.getInfo().getParticipants();
+        if (parsed == null || parsed.size() < riotMatch.getMetadata().getParticipants().size()) {
+            RiotMatchDTO withParticipants = RiotMatchStreamParser.parseForParticipants(payload, puuids);
+            parsed = withParticipants != null && withParticipants.getInfo() != null
+                    ? withParticipants.getInfo().getParticipants()
+                    : List.of();
+        }
+        return parsed.stream()
+                .filter(participant -> participant.getPuuid() != null && puuids.contains(participant.getPuuid()))
+                .toList();
+    }
+
+    private MatchEntity buildMatchEntity(RiotMatchDTO riotMatch, String matchId,
+            RiotMatchDTO.ParticipantDTO participant, Summoner summoner) {
+        MatchEntity matchEntity = new MatchEntity();
+        matchEntity.setMatchId(matchId);
+        matchEntity.setSummoner(summoner);
+        matchEntity.setTimestamp(java.time.LocalDateTime.ofInstant(
+                java.time.Instant.ofEpochMilli(riotMatch.getInfo().getGameCreation()),
+                java.time.ZoneId.systemDefault()));
+        matchEntity.setWin(Boolean.TRUE.equals(participant.getWin()));
+        matchEntity.setKills(participant.getKills() != null ? participant.getKills() : 0);
+        matchEntity.setDeaths(participant.getDeaths() != null ? participant.getDeaths() : 0);
+        matchEntity.setAssists(participant.getAssists() != null ? participant.getAssists() : 0);
+        matchEntity.setChampionName(participant.getChampionName());
+        matchEntity.setChampionId(participant.getChampionId());
+        matchEntity.setRole(participant.getTeamPosition());
+        matchEntity.setLane(participant.getTeamPosition());
+        matchEntity.setGameDuration(riotMatch.getInfo().getGameDuration());
+        matchEntity.setGameMode(riotMatch.getInfo().getGameMode());
+        matchEntity.setQueueId(riotMatch.getInfo().getQueueId());
+        matchEntity.setTotalDamageDealt(participant.getTotalDamageDealtToChampions());
+        matchEntity.setGoldEarned(participant.getGoldEarned());
+        matchEntity.setChampLevel(participant.getChampLevel());
+        matchEntity.setSummonerName(participant.getSummonerName());
+        return matchEntity;
+    }
+
     /**
      * Finds a participant in a match by their PUUID.
      * 
@@ -457,8 +885,10 @@ public class RiotService implements IRiotService {
      * Gets recent match history for a summoner by PUUID with pagination.
      * HYBRID CACHE STRATEGY:
      * 1. First checks database for cached matches
-     * 2. Only calls Riot API for missing/recent matches
-     * 3. Saves new matches to database for future requests
+     * 2. Serves them while the freshness tracker considers them current
+     *    (stale pages are served too and refreshed in the background)
+     * 3. Only calls Riot API for missing/recent matches
+     * 4. Saves new matches to database for future requests
      * 
      * @param puuid Summoner's PUUID
      * @param start Starting index for pagination (0-based)
@@ -467,23 +897,33 @@ public class RiotService implements IRiotService {
      */
     public List<MatchHistoryDTO> getMatchHistory(String puuid, int start, int count) {
         try {
-            if (!isCacheFresh(puuid)) {
-                logger.info("Cache is outdated, need to fetch new matches from API");
-            } else {
-                List<MatchHistoryDTO> cachedMatches = getCachedMatches(puuid, start, count);
-                if (cachedMatches.size() >= count) {
-                    logger.info("Returning {} matches from fresh cache (no API call needed)", count);
-                    return cachedMatches;
+            List<MatchEntity> cachedEntities = findCachedMatchEntities(puuid, start + count);
+            String newestCachedMatchId = cachedEntities.isEmpty() ? null : cachedEntities.get(0).getMatchId();
+            List<MatchHistoryDTO> cachedMatches = toCachedPage(cachedEntities, start, count);
+
+            if (cachedMatches.size() >= count && isCacheServable(puuid, newestCachedMatchId, start + count)) {
+                logger.info("Returning {} matches from cache (no API call needed)", count);
+                return cachedMatches;
+            }
+
+            LocalDateTime watermark = cachedEntities.isEmpty() ? null : cachedEntities.get(0).getTimestamp();
+            if (start == 0 && watermark != null && cachedMatches.size() >= count) {
+                List<MatchHistoryDTO> synced = syncMatchesSince(puuid, watermark, count);
+                if (synced != null) {
+                    return synced;
                 }
             }
 
             String[] matchIds = fetchMatchIdsFromAPI(puuid, start, count);
             if (matchIds == null || matchIds.length == 0) {
-                List<MatchHistoryDTO> cachedMatches = getCachedMatches(puuid, start, count);
                 return cachedMatches.isEmpty() ? Collections.emptyList() : cachedMatches;
             }
 
-            return fetchMatchDetails(matchIds, puuid);
+            List<MatchHistoryDTO> matches = fetchMatchDetails(matchIds, puuid);
+            if (start == 0) {
+                freshnessTracker.recordCheck(puuid, matchIds[0]);
+            }
+            return matches;
 
         } catch (HttpClientErrorException hce) {
             logger.warn("Riot API error fetching match history for PUUID {}: {}", puuid, hce.getMessage());
@@ -495,52 +935,143 @@ public class RiotService implements IRiotService {
         }
     }
 
+    /**
+     * Returns the newest match ID of the summoner. Inside the freshness window the
+     * ID remembered by the freshness tracker is returned; otherwise Riot is asked
+     * for a single match ID.
+     *
+     * @param puuid The player's PUUID
+     * @return Newest match ID, empty if the summoner has no matches or Riot failed
+     */
+    public Optional<String> getLatestMatchId(String puuid) {
+        Optional<String> known = freshnessTracker.getNewestMatchId(puuid);
+        if (known.isPresent()) {
+            return known;
+        }
+        try {
+            return Optional.ofNullable(probeLatestMatchId(puuid));
+        } catch (Exception e) {
+            logger.warn("Error fetching latest match ID for PUUID {}: {}", puuid, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lists match IDs with the queue and type filters pushed down to match-v5, so
+     * quota is only spent on the games the caller keeps.
+     *
+     * @param puuid   The player's PUUID
+     * @param start   Starting index within the filtered list (0-based)
+     * @param count   Number of match IDs to retrieve
+     * @param queueId Queue ID filter (e.g. 420 for Ranked Solo/Duo), or null
+     * @param type    Match type filter (ranked, normal, tourney, tutorial), or null
+     * @return Match IDs, newest first
+     */
+    public List<String> getMatchIds(String puuid, int start, int count, Integer queueId, String type) {
+        return Arrays.asList(fetchMatchIdsFromAPI(buildMatchIdsUrl(queueId, type), puuid, start, count));
+    }
+
+    /**
+     * Gets a page of the match history restricted to a queue and/or match type.
+     * Pagination applies to the filtered list. Matches already in the database are
+     * not fetched again.
+     *
+     * @param puuid   The player's PUUID
+     * @param start   Starting index within the filtered list (0-based)
+     * @param count   Number of matches to retrieve
+     * @param queueId Queue ID filter, or null
+     * @param type    Match type filter, or null
+     * @return List of MatchHistoryDTO
+     */
+    public List<MatchHistoryDTO> getMatchHistory(String puuid, int start, int count, Integer queueId, String type) {
+        if (queueId == null && type == null) {
+            return getMatchHistory(puuid, start, count);
+        }
+        String urlTemplate = buildMatchIdsUrl(queueId, type);
+        try {
+            String[] matchIds = fetchMatchIdsFromAPI(urlTemplate, puuid, start, count);
+            if (matchIds.length == 0) {
+                return Collections.emptyList();
+            }
+            return fetchMatchDetails(matchIds, puuid);
+        } catch (Exception e) {
+            logger.error("Error fetching filtered match history for PUUID {}: {}", puuid, e.getMessage());
+            logger.debug(STACKTRACE_LOG_MESSAGE, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Builds the match-ID listing URL with the optional queue/type filters.
+     * Filter values are validated and inlined; the remaining parameters stay
+     * URI template variables.
+     */
+    private String buildMatchIdsUrl(Integer queueId, String type) {
+        if (queueId == null && type == null) {
+            return MATCH_IDS_BY_PUUID_URL;
+        }
+        if (type != null && !MATCH_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unsupported match type: " + type);
+        }
+        StringBuilder url = new StringBuilder(RIOT_REGIONAL_BASE_URL)
+                .append("/lol/match/v5/matches/by-puuid/{puuid}/ids?start={start}&count={count}");
+        if (queueId != null) {
+            url.append("&queue=").append(queueId.intValue());
+        }
+        if (type != null) {
+            url.append("&type=").append(type);
+        }
+        return url.append("&api_key={apiKey}").toString();
+    }
+
+    /**
+     * Decides whether a full cached page can be served without a synchronous Riot call.
+     * A page checked inside the freshness window is served as is; a stale page is
+     * served while a background refresh runs; a summoner never checked by this
+     * instance gets a synchronous one-ID probe.
+     *
+     * @param puuid               The player's PUUID
+     * @param newestCachedMatchId Newest match ID in the database
+     * @param refreshCount        Number of match IDs a background refresh should sync
+     * @return true if the cached page can be returned
+     */
+    private boolean isCacheServable(String puuid, String newestCachedMatchId, int refreshCount) {
+        switch (freshnessTracker.check(puuid, newestCachedMatchId)) {
+            case FRESH:
+                return true;
+            case STALE:
+                freshnessTracker.scheduleRefresh(puuid, () -> refreshMatchCache(puuid, refreshCount));
+                return true;
+            case OUTDATED:
+                logger.info("Cache is outdated, need to fetch new matches from API");
+                return false;
+            default:
+                return isCacheFresh(puuid, newestCachedMatchId);
+        }
+    }
+
     /**
      * Verifies if the cache is fresh by comparing the most recent match ID
      * in the database with the most recent match ID from Riot API.
      * This method makes a lightweight API call (only 1 match ID).
      * 
-     * @param puuid The player's PUUID
+     * @param puuid                   The player's PUUID
+     * @param mostRecentCachedMatchId Newest match ID in the database
      * @return true if cache is up-to-date, false if there are new matches
      */
-    private boolean isCacheFresh(String puuid) {
+    private boolean isCacheFresh(String puuid, String mostRecentCachedMatchId) {
         try {
-            Optional<Summoner> summonerOpt = summonerRepository.findByPuuid(puuid);
-            if (summonerOpt.isEmpty()) {
-                logger.debug("No summoner found in DB for requested PUUID, cache not fresh");
-                return false; // No cache exists
-            }
-
-            Summoner summoner = summonerOpt.get();
-            List<MatchEntity> recentMatches = matchRepository
-                    .findRecentMatchesBySummoner(summoner,
-                            org.springframework.data.domain.PageRequest.of(0, 1));
-
-            if (recentMatches.isEmpty()) {
-                logger.debug("No cached matches found for summoner {}, cache not fresh", summoner.getName());
-                return false; // No cached matches
+            if (mostRecentCachedMatchId == null) {
+                logger.debug("No cached matches found for PUUID {}, cache not fresh", puuid);
+                return false;
             }
-
-            String mostRecentCachedMatchId = recentMatches.get(0).getMatchId();
             logger.debug("Most recent cached match ID: {}", mostRecentCachedMatchId);
 
-            ResponseEntity<String[]> matchIdsResponse = restTemplate.exchange(
-                    MATCH_IDS_BY_PUUID_URL,
-                    HttpMethod.GET,
-                    null,
-                    String[].class,
-                    puuid,
-                    0, // start at 0
-                    1, // only get 1 match ID
-                    apiKey);
-
-            String[] apiMatchIds = matchIdsResponse.getBody();
-            if (apiMatchIds == null || apiMatchIds.length == 0) {
+            String mostRecentApiMatchId = probeLatestMatchId(puuid);
+            if (mostRecentApiMatchId == null) {
                 logger.debug("No matches returned from API, using cache");
                 return true;
             }
-
-            String mostRecentApiMatchId = apiMatchIds[0];
             logger.debug("Most recent API match ID: {}", mostRecentApiMatchId);
 
             boolean isFresh = mostRecentCachedMatchId.equals(mostRecentApiMatchId);
@@ -554,35 +1085,194 @@ public class RiotService implements IRiotService {
     }
 
     /**
-     * Gets cached matches from database for the summoner.
+     * Asks Riot for the newest match ID of the summoner and records the answer in
+     * the freshness tracker.
+     *
+     * @return Newest match ID, or null if the summoner has no matches
+     */
+    private String probeLatestMatchId(String puuid) {
+        ResponseEntity<String[]> matchIdsResponse = restTemplate.exchange(
+                MATCH_IDS_BY_PUUID_URL,
+                HttpMethod.GET,
+                null,
+                String[].class,
+                puuid,
+                0, // start at 0
+                1, // only get 1 match ID
+                apiKey);
+
+        String[] apiMatchIds = matchIdsResponse.getBody();
+        String newestMatchId = apiMatchIds == null || apiMatchIds.length == 0 ? null : apiMatchIds[0];
+        freshnessTracker.recordCheck(puuid, newestMatchId);
+        return newestMatchId;
+    }
+
+    /**
+     * Background refresh of a stale match cache: syncs the newest match IDs and
+     * stores any match that is not in the database yet.
+     */
+    private void refreshMatchCache(String puuid, int count) {
+        List<MatchEntity> newestCached = findCachedMatchEntities(puuid, 1);
+        if (!newestCached.isEmpty() && newestCached.get(0).getTimestamp() != null) {
+            syncMatchesSince(puuid, newestCached.get(0).getTimestamp(), MAX_MATCH_IDS_PER_REQUEST);
+            return;
+        }
+
+        String[] matchIds = fetchMatchIdsFromAPI(puuid, 0, count);
+        if (matchIds.length == 0) {
+            return;
+        }
+        fetchMatchDetails(matchIds, puuid);
+        freshnessTracker.recordCheck(puuid, matchIds[0]);
+        logger.debug("Background refresh synced {} match IDs for PUUID {}", matchIds.length, puuid);
+    }
+
+    /**
+     * Incremental sync: asks match-v5 only for the IDs of games started after the
+     * watermark (the newest cached match), stores the new matches and rebuilds the
+     * first page. Every game since the watermark is stored, not just the first
+     * page, so the database history has no holes; the freshness check is only
+     * recorded once all of them are. IDs already stored are dropped before
+     * counting, so the watermark match itself is never reported as new. For an
+     * active player this is one small request instead of paging through the
+     * history from the start.
+     *
+     * @param puuid     The player's PUUID
+     * @param watermark Timestamp of the newest cached match
+     * @param count     Size of the first page
+     * @return The first page, or null if the incremental sync could not build it
+     *         and the caller should fall back to a full fetch
+     */
+    private List<MatchHistoryDTO> syncMatchesSince(String puuid, LocalDateTime watermark, int count) {
+        String[] newMatchIds = fetchMatchIdsSince(puuid, watermark);
+        if (newMatchIds == null) {
+            return null;
+        }
+        newMatchIds = dropStoredMatchIds(puuid, newMatchIds);
+        logger.info("Incremental sync found {} match IDs since {}", newMatchIds.length, watermark);
+
+        if (newMatchIds.length >= count) {
+            List<MatchHistoryDTO> matches = fetchMatchDetails(newMatchIds, puuid);
+            if (matches.size() == newMatchIds.length) {
+                freshnessTracker.recordCheck(puuid, newMatchIds[0]);
+            }
+            return matches.size() > count ? new ArrayList<>(matches.subList(0, count)) : matches;
+        }
+        boolean complete = newMatchIds.length == 0
+                || fetchMatchDetails(newMatchIds, puuid).size() == newMatchIds.length;
+
+        List<MatchEntity> refreshed = findCachedMatchEntities(puuid, count);
+        if (refreshed.size() < count) {
+            return null;
+        }
+        if (!complete) {
+            return toCachedPage(refreshed, 0, count);
+        }
+        freshnessTracker.recordCheck(puuid,
+                newMatchIds.length > 0 ? newMatchIds[0] : refreshed.get(0).getMatchId());
+        return toCachedPage(refreshed, 0, count);
+    }
+
+    /**
+     * Fetches the IDs of all matches started after the watermark, a page at a
+     * time until a short page comes back. match-v5 treats startTime as
+     * inclusive, so the query starts one second later.
+     *
+     * @return Match IDs newest first, or null if a request failed or there are
+     *         more than {@link #MAX_SYNC_MATCH_IDS}
+     */
+    private String[] fetchMatchIdsSince(String puuid, LocalDateTime watermark) {
+        long startTime = watermark.atZone(ZoneId.systemDefault()).toEpochSecond() + 1;
+        Set<String> ids = new LinkedHashSet<>();
+        try {
+            for (int start = 0;; start += MAX_MATCH_IDS_PER_REQUEST) {
+                if (start >= MAX_SYNC_MATCH_IDS) {
+                    logger.warn("More than {} matches since the last sync for PUUID {}, doing a full fetch",
+                            MAX_SYNC_MATCH_IDS, puuid);
+                    return null;
+                }
+                ResponseEntity<String[]> matchIdsResponse = restTemplate.exchange(
+                        MATCH_IDS_SINCE_BY_PUUID_URL,
+                        HttpMethod.GET,
+                        null,
+                        String[].class,
+                        puuid,
+                        startTime,
+                        start,
+                        MAX_MATCH_IDS_PER_REQUEST,
+                        apiKey);
+                String[] page = matchIdsResponse.getBody();
+                if (page == null) {
+                    break;
+                }
+                Arrays.stream(page).filter(Objects::nonNull).forEach(ids::add);
+                if (page.length < MAX_MATCH_IDS_PER_REQUEST) {
+                    break;
+                }
+            }
+            return ids.toArray(new String[0]);
+        } catch (Exception e) {
+            logger.warn("Incremental match ID sync failed for PUUID {}: {}", puuid, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return The match IDs that are not stored for the summoner yet, in order
+     */
+    private String[] dropStoredMatchIds(String puuid, String[] matchIds) {
+        if (matchIds.length == 0) {
+            return matchIds;
+        }
+        Optional<Summoner> summonerOpt = summonerRepository.findByPuuid(puuid);
+        if (summonerOpt.isEmpty()) {
+            return matchIds;
+        }
+        Set<String> stored = matchRepository.findByMatchIdInAndSummoner(Arrays.asList(matchIds), summonerOpt.get())
+                .stream()
+                .map(MatchEntity::getMatchId)
+                .collect(Collectors.toSet());
+        if (stored.isEmpty()) {
+            return matchIds;
+        }
+        return Arrays.stream(matchIds).filter(id -> !stored.contains(id)).toArray(String[]::new);
+    }
+
+    /**
+     * Loads the newest cached matches of the summoner from the database.
      * 
      * @param puuid The player's PUUID
-     * @param start Starting index
-     * @param count Number of matches to retrieve
-     * @return List of cached match DTOs
+     * @param limit Maximum number of matches to load
+     * @return Cached matches, newest first
      */
-    private List<MatchHistoryDTO> getCachedMatches(String puuid, int start, int count) {
+    private List<MatchEntity> findCachedMatchEntities(String puuid, int limit) {
         Optional<Summoner> summonerOpt = summonerRepository.findByPuuid(puuid);
         if (summonerOpt.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Summoner summoner = summonerOpt.get();
-        List<MatchEntity> dbMatches = matchRepository
-                .findRecentMatchesBySummoner(summoner,
-                        org.springframework.data.domain.PageRequest.of(0, start + count));
+        return matchRepository.findRecentMatchesBySummoner(summonerOpt.get(),
+                org.springframework.data.domain.PageRequest.of(0, Math.max(1, limit)));
+    }
 
-        List<MatchHistoryDTO> cachedMatches = new ArrayList<>();
-        for (MatchEntity match : dbMatches) {
-            if (cachedMatches.size() >= start + count)
-                break;
-            cachedMatches.add(MatchMapper.toDTO(match, dataDragonService, rankHistoryService));
+    /**
+     * Maps the requested page of cached matches to DTOs.
+     * 
+     * @param dbMatches Cached matches, newest first
+     * @param start     Starting index
+     * @param count     Number of matches to retrieve
+     * @return List of cached match DTOs
+     */
+    private List<MatchHistoryDTO> toCachedPage(List<MatchEntity> dbMatches, int start, int count) {
+        if (dbMatches.size() <= start) {
+            return Collections.emptyList();
         }
 
-        if (cachedMatches.size() > start) {
-            return cachedMatches.subList(start, Math.min(start + count, cachedMatches.size()));
+        List<MatchHistoryDTO> cachedMatches = new ArrayList<>();
+        for (MatchEntity match : dbMatches.subList(start, Math.min(start + count, dbMatches.size()))) {
+            cachedMatches.add(MatchMapper.toDTO(match, dataDragonService, rankHistoryService));
         }
-        return Collections.emptyList();
+        return cachedMatches;
     }
 
     /**
@@ -598,14 +1288,15 @@ public class RiotService implements IRiotService {
      * 
      * @return true if more batches might be available, false if we should stop
      */
-    private boolean fetchMatchIdBatch(String puuid, int start, int count, int maxBatch, List<String> accumulated) {
+    private boolean fetchMatchIdBatch(String urlTemplate, String puuid, int start, int count, int maxBatch,
+            Set<String> accumulated) {
         int toFetch = Math.min(count - accumulated.size(), maxBatch);
         int currentStart = start + accumulated.size();
 
         logger.debug("Requesting match IDs from Riot: start={}, count={}", currentStart, toFetch);
 
         ResponseEntity<String[]> matchIdsResponse = restTemplate.exchange(
-                MATCH_IDS_BY_PUUID_URL,
+                urlTemplate,
                 HttpMethod.GET,
                 null,
                 String[].class,
@@ -622,7 +1313,7 @@ public class RiotService implements IRiotService {
         }
 
         for (String id : ids) {
-            if (id != null && !accumulated.contains(id)) {
+            if (id != null) {
                 accumulated.add(id);
             }
         }
@@ -637,14 +1328,18 @@ public class RiotService implements IRiotService {
     }
 
     private String[] fetchMatchIdsFromAPI(String puuid, int start, int count) {
+        return fetchMatchIdsFromAPI(MATCH_IDS_BY_PUUID_URL, puuid, start, count);
+    }
+
+    private String[] fetchMatchIdsFromAPI(String urlTemplate, String puuid, int start, int count) {
         logger.info("Cache insufficient, calling Riot API for match IDs: start={}, count={}", start, count);
 
         final int MAX_BATCH = 50;
-        List<String> accumulated = new ArrayList<>();
+        Set<String> accumulated = new LinkedHashSet<>();
 
         try {
             while (accumulated.size() < count) {
-                if (!fetchMatchIdBatch(puuid, start, count, MAX_BATCH, accumulated)) {
+                if (!fetchMatchIdBatch(urlTemplate, puuid, start, count, MAX_BATCH, accumulated)) {
                     break;
                 }
             }
@@ -660,29 +1355,48 @@ public class RiotService implements IRiotService {
 
     /**
      * Fetches match details from cache or API.
+     * Cached matches are resolved first; the remaining IDs are fetched from Riot
+     * concurrently through the bounded fetch pool, and the page keeps the order
+     * of the given match IDs.
      * 
      * @param matchIds Array of match IDs to fetch
      * @param puuid    The player's PUUID
      * @return List of match history DTOs
      */
     private List<MatchHistoryDTO> fetchMatchDetails(String[] matchIds, String puuid) {
-        List<MatchHistoryDTO> matches = new ArrayList<>();
-        for (String matchId : matchIds) {
+        MatchHistoryDTO[] ordered = new MatchHistoryDTO[matchIds.length];
+        List<Integer> missingPositions = new ArrayList<>();
+
+        for (int i = 0; i < matchIds.length; i++) {
+            String matchId = matchIds[i];
             Optional<MatchEntity> cachedMatch = matchRepository.findByMatchIdAndSummonerPuuid(matchId, puuid);
 
             if (cachedMatch.isPresent()) {
                 logger.debug("Match {} found in cache for summoner {}", matchId, puuid);
-                matches.add(MatchMapper.toDTO(cachedMatch.get(), dataDragonService, rankHistoryService));
+                ordered[i] = MatchMapper.toDTO(cachedMatch.get(), dataDragonService, rankHistoryService);
             } else {
                 logger.debug("Match {} not in cache for summoner {}, fetching from API", matchId, puuid);
-                fetchAndAddMatchToHistory(matchId, puuid, matches);
+                missingPositions.add(i);
+            }
+        }
+
+        if (!missingPositions.isEmpty()) {
+            List<String> missingIds = missingPositions.stream().map(i -> matchIds[i]).toList();
+            List<MatchHistoryDTO> fetched = fetchExecutor.fetchAll(missingIds,
+                    matchId -> fetchMatchForHistory(matchId, puuid));
+            for (int j = 0; j < missingPositions.size(); j++) {
+                ordered[missingPositions.get(j)] = fetched.get(j);
             }
         }
+
+        List<MatchHistoryDTO> matches = new ArrayList<>(matchIds.length);
+        Arrays.stream(ordered).filter(Objects::nonNull).forEach(matches::add);
         return matches;
     }
 
     /**
-     * Gets complete match details including all 10 participants
+     * Gets complete match details including all 10 participants.
+     * The payload comes from the match archive when the match was seen before.
      * 
      * @param matchId The match ID to fetch
      * @return MatchDetailDTO with complete match information
@@ -692,15 +1406,7 @@ public class RiotService implements IRiotService {
         try {
             logger.info("Fetching detailed match information");
 
-            ResponseEntity<RiotMatchDTO> matchResponse = restTemplate.exchange(
-                    MATCH_BY_ID_URL,
-                    HttpMethod.GET,
-                    null,
-                    RiotMatchDTO.class,
-                    matchId,
-                    apiKey);
-
-            RiotMatchDTO riotMatch = matchResponse.getBody();
+            RiotMatchDTO riotMatch = fetchRiotMatch(matchId);
             if (riotMatch == null || riotMatch.getInfo() == null) {
                 logger.warn("No match data found for match ID");
                 return null;
@@ -0,0 +1,173 @@
+package com.tfg.tfg.service;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tfg.tfg.model.entity.Summoner;
+import com.tfg.tfg.repository.SummonerRepository;
+import com.tfg.tfg.repository.UserModelRepository;
+import com.tfg.tfg.service.interfaces.IDashboardService;
+import com.tfg.tfg.service.interfaces.IRiotService;
+import com.tfg.tfg.service.riot.RiotPriority;
+import com.tfg.tfg.service.riot.RiotRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the summoners users follow (their linked account and their favorites)
+ * up to date ahead of time, so dashboard reads are served from the database.
+ *
+ * Each cycle walks the linked and favorite PUUIDs and refreshes the ones that
+ * are due: the league-v4 entry first, then the ranked match page the dashboard
+ * shows, with LP history. A player whose newest match changed since the last
+ * visit is revisited after the minimum interval; every visit without a new
+ * match doubles the interval up to the maximum, so idle players cost almost
+ * no quota.
+ *
+ * Refreshes run in the {@link RiotPriority#PREFETCH} lane and only spend
+ * spare quota: a cycle stops as soon as the rate limiter has no headroom for
+ * that lane, i.e. a more urgent caller is queued or the budget is down to the
+ * share reserved for interactive requests.
+ */
+@Service
+@ConditionalOnProperty(name = "riot.prefetch.enabled", havingValue = "true", matchIfMissing = true)
+public class SummonerPrefetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummonerPrefetchService.class);
+
+    /** Page size of /api/v1/dashboard/me/ranked-matches when none is given */
+    private static final int DASHBOARD_PAGE_SIZE = 30;
+
+    private static final String REGIONAL_HOST = "europe.api.riotgames.com";
+    private static final String PLATFORM_HOST = "euw1.api.riotgames.com";
+    private static final String MATCH_IDS_METHOD = "/lol/match/v5/matches/by-puuid/{}/ids";
+    private static final String LEAGUE_METHOD = "/lol/league/v4/entries/by-puuid/{}";
+
+    private final UserModelRepository userRepository;
+    private final SummonerRepository summonerRepository;
+    private final IRiotService riotService;
+    private final IDashboardService dashboardService;
+    private final RiotRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final int maxSummonersPerCycle;
+
+    private final Map<String, PrefetchState> states = new ConcurrentHashMap<>();
+
+    public SummonerPrefetchService(UserModelRepository userRepository,
+            SummonerRepository summonerRepository,
+            IRiotService riotService,
+            IDashboardService dashboardService,
+            RiotRateLimiter rateLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${riot.prefetch.min-interval-seconds:300}") long minIntervalSeconds,
+            @Value("${riot.prefetch.max-interval-seconds:21600}") long maxIntervalSeconds,
+            @Value("${riot.prefetch.max-summoners-per-cycle:10}") int maxSummonersPerCycle) {
+        this.userRepository = userRepository;
+        this.summonerRepository = summonerRepository;
+        this.riotService = riotService;
+        this.dashboardService = dashboardService;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.minIntervalMillis = Math.max(0, minIntervalSeconds) * 1000;
+        this.maxIntervalMillis = Math.max(minIntervalSeconds, maxIntervalSeconds) * 1000;
+        this.maxSummonersPerCycle = Math.max(1, maxSummonersPerCycle);
+        meterRegistry.gauge("riot.prefetch.tracked", states, Map::size);
+    }
+
+    /**
+     * Runs one prefetch cycle. Summoners nobody follows any more are forgotten,
+     * and at most {@code riot.prefetch.max-summoners-per-cycle} due summoners
+     * are refreshed, linked accounts first.
+     */
+    @Scheduled(initialDelayString = "${riot.prefetch.initial-delay-ms:60000}",
+            fixedDelayString = "${riot.prefetch.cycle-ms:60000}")
+    public void runCycle() {
+        Set<String> puuids = new LinkedHashSet<>(userRepository.findLinkedSummonerPuuids());
+        puuids.addAll(userRepository.findFavoriteSummonerPuuids());
+        states.keySet().retainAll(puuids);
+
+        int refreshed = 0;
+        for (String puuid : puuids) {
+            if (refreshed >= maxSummonersPerCycle) {
+                break;
+            }
+            PrefetchState state = states.computeIfAbsent(puuid, key -> new PrefetchState(minIntervalMillis));
+            if (state.nextDueAt > System.currentTimeMillis()) {
+                continue;
+            }
+            if (!hasSpareQuota()) {
+                meterRegistry.counter("riot.prefetch.deferred").increment();
+                logger.debug("Prefetch cycle deferred: Riot quota is needed by interactive requests");
+                break;
+            }
+            RiotPriority.PREFETCH.run(() -> refresh(puuid, state));
+            refreshed++;
+        }
+        if (refreshed > 0) {
+            logger.debug("Prefetch cycle refreshed {} of {} followed summoners", refreshed, puuids.size());
+        }
+    }
+
+    private boolean hasSpareQuota() {
+        return rateLimiter.hasHeadroom(PLATFORM_HOST, LEAGUE_METHOD, RiotPriority.PREFETCH)
+                && rateLimiter.hasHeadroom(REGIONAL_HOST, MATCH_IDS_METHOD, RiotPriority.PREFETCH);
+    }
+
+    private void refresh(String puuid, PrefetchState state) {
+        String result;
+        try {
+            if (riotService.refreshRankedEntry(puuid).isEmpty()) {
+                // Followed but never looked up: nothing stored to keep warm yet
+                result = "unknown";
+                state.backOff(maxIntervalMillis);
+            } else {
+                Optional<Summoner> summoner = summonerRepository.findByPuuid(puuid);
+                if (summoner.isPresent()) {
+                    dashboardService.getRankedMatchesWithLP(summoner.get(), null, 0, DASHBOARD_PAGE_SIZE);
+                }
+                String newestMatchId = riotService.getLatestMatchId(puuid).orElse(null);
+                boolean active = newestMatchId != null && !newestMatchId.equals(state.newestMatchId);
+                state.newestMatchId = newestMatchId;
+                if (active) {
+                    result = "active";
+                    state.intervalMillis = minIntervalMillis;
+                } else {
+                    result = "idle";
+                    state.backOff(maxIntervalMillis);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Prefetch failed for PUUID {}: {}", puuid, e.getMessage());
+            result = "failed";
+            state.backOff(maxIntervalMillis);
+        }
+        state.nextDueAt = System.currentTimeMillis() + state.intervalMillis;
+        meterRegistry.counter("riot.prefetch.refreshes", "result", result).increment();
+    }
+
+    private static final class PrefetchState {
+        private volatile long nextDueAt;
+        private volatile long intervalMillis;
+        private volatile String newestMatchId;
+
+        PrefetchState(long intervalMillis) {
+            this.intervalMillis = intervalMillis;
+        }
+
+        void backOff(long maxIntervalMillis) {
+            intervalMillis = Math.min(maxIntervalMillis, Math.max(1000, intervalMillis * 2));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.tfg.tfg.service.datadragon;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tfg.tfg.model.entity.Champion;
+
+/**
+ * Writes Data Dragon champion data to the champion table with plain JDBC
+ * batches.
+ *
+ * The current rows are read once; only new champions are inserted and only
+ * changed ones updated, {@code batchSize} statements per round trip. An
+ * unchanged dataset costs a single query.
+ */
+@Component
+public class ChampionBatchWriter {
+
+    private static final String SELECT_SQL = "SELECT id, champion_key, name, image_url FROM champions";
+    private static final String INSERT_SQL = "INSERT INTO champions (id, champion_key, name, image_url) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE champions SET champion_key = ?, name = ?, image_url = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ChampionBatchWriter(JdbcTemplate jdbcTemplate,
+            @Value("${datadragon.sync.batch-size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Inserts or updates the given champions.
+     *
+     * @return Number of rows written
+     */
+    @Transactional
+    public int upsert(List<Champion> champions) {
+        Map<Long, Champion> existing = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            existing.put(rs.getLong(1), new Champion(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    rs.getString(4)));
+        });
+
+        List<Champion> inserts = new ArrayList<>();
+        List<Champion> updates = new ArrayList<>();
+        for (Champion champion : champions) {
+            Champion current = existing.get(champion.getId());
+            if (current == null) {
+                inserts.add(champion);
+            } else if (!Objects.equals(current, champion)) {
+                updates.add(champion);
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, batchSize, (ps, champion) -> {
+                ps.setLong(1, champion.getId());
+                ps.setString(2, champion.getKey());
+                ps.setString(3, champion.getName());
+                ps.setString(4, champion.getImageUrl());
+            });
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize, (ps, champion) -> {
+                ps.setString(1, champion.getKey());
+                ps.setString(2, champion.getName());
+                ps.setString(3, champion.getImageUrl());
+                ps.setLong(4, champion.getId());
+            });
+        }
+        return inserts.size() + updates.size();
+    }
+}
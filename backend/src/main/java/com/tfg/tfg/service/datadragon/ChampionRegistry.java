@@ -0,0 +1,84 @@
+package com.tfg.tfg.service.datadragon;
+
+import java.util.Collection;
+
+import com.tfg.tfg.model.entity.Champion;
+
+/**
+ * Immutable in-memory copy of the champion table, indexed by champion ID.
+ *
+ * Champion IDs are small (below 1000 today), so names and icon URLs are held
+ * in arrays indexed by the ID itself: a lookup is a bounds check and an array
+ * read, with no hashing, boxing or allocation. A new registry is built on each
+ * Data Dragon refresh and swapped in as a whole.
+ */
+public final class ChampionRegistry {
+
+    /** IDs at or above this are ignored, to bound the arrays */
+    static final int MAX_CHAMPION_ID = 1 << 16;
+
+    public static final ChampionRegistry EMPTY = new ChampionRegistry(new String[0], new String[0], 0);
+
+    private final String[] names;
+    private final String[] iconUrls;
+    private final int size;
+
+    private ChampionRegistry(String[] names, String[] iconUrls, int size) {
+        this.names = names;
+        this.iconUrls = iconUrls;
+        this.size = size;
+    }
+
+    /**
+     * Builds a registry from champion rows; rows without a usable ID are
+     * skipped.
+     */
+    public static ChampionRegistry of(Collection<Champion> champions) {
+        int length = 0;
+        for (Champion champion : champions) {
+            if (isIndexable(champion.getId())) {
+                length = Math.max(length, champion.getId().intValue() + 1);
+            }
+        }
+        String[] names = new String[length];
+        String[] iconUrls = new String[length];
+        int size = 0;
+        for (Champion champion : champions) {
+            if (!isIndexable(champion.getId())) {
+                continue;
+            }
+            int index = champion.getId().intValue();
+            if (names[index] == null) {
+                size++;
+            }
+            names[index] = champion.getName();
+            iconUrls[index] = champion.getImageUrl();
+        }
+        return new ChampionRegistry(names, iconUrls, size);
+    }
+
+    /**
+     * @return Champion name, null if the ID is unknown
+     */
+    public String name(long championId) {
+        return championId >= 0 && championId < names.length ? names[(int) championId] : null;
+    }
+
+    /**
+     * @return Champion icon URL, null if the ID is unknown
+     */
+    public String iconUrl(long championId) {
+        return championId >= 0 && championId < iconUrls.length ? iconUrls[(int) championId] : null;
+    }
+
+    /**
+     * @return Number of champions held
+     */
+    public int size() {
+        return size;
+    }
+
+    private static boolean isIndexable(Long championId) {
+        return championId != null && championId >= 0 && championId < MAX_CHAMPION_ID;
+    }
+}
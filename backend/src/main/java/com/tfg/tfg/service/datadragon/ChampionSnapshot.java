@@ -0,0 +1,69 @@
+package com.tfg.tfg.service.datadragon;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.tfg.model.entity.Champion;
+
+/**
+ * Champion data of one Data Dragon version, as kept on local disk so an
+ * instance can answer champion lookups at boot without the database or the
+ * network.
+ */
+public record ChampionSnapshot(String version, List<Entry> champions) {
+
+    /**
+     * One champion row; kept apart from the entity so the file format does
+     * not follow the table.
+     */
+    public record Entry(long id, String key, String name, String imageUrl) {
+    }
+
+    public static ChampionSnapshot of(String version, List<Champion> champions) {
+        return new ChampionSnapshot(version, champions.stream()
+                .map(champion -> new Entry(champion.getId(), champion.getKey(), champion.getName(),
+                        champion.getImageUrl()))
+                .toList());
+    }
+
+    public List<Champion> toChampions() {
+        return champions.stream()
+                .map(entry -> new Champion(entry.id(), entry.key(), entry.name(), entry.imageUrl()))
+                .toList();
+    }
+
+    /**
+     * @return The snapshot stored at {@code path}, empty if there is none
+     */
+    public static Optional<ChampionSnapshot> read(Path path, ObjectMapper objectMapper) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        ChampionSnapshot snapshot = objectMapper.readValue(path.toFile(), ChampionSnapshot.class);
+        if (snapshot.version() == null || snapshot.champions() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot);
+    }
+
+    /**
+     * Writes the snapshot next to {@code path} and moves it into place, so a
+     * reader never sees a partial file.
+     */
+    public void write(Path path, ObjectMapper objectMapper) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), this);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
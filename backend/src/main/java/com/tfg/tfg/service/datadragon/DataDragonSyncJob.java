@@ -0,0 +1,30 @@
+package com.tfg.tfg.service.datadragon;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.tfg.tfg.service.interfaces.IDataDragonService;
+
+/**
+ * Keeps the champion data in line with Data Dragon in the background, so
+ * startup never waits on it: once shortly after boot, then every
+ * {@code datadragon.sync.interval-ms}. Runs that find the version unchanged
+ * cost a single versions.json request.
+ */
+@Component
+@ConditionalOnProperty(name = "datadragon.sync.enabled", havingValue = "true", matchIfMissing = true)
+public class DataDragonSyncJob {
+
+    private final IDataDragonService dataDragonService;
+
+    public DataDragonSyncJob(IDataDragonService dataDragonService) {
+        this.dataDragonService = dataDragonService;
+    }
+
+    @Scheduled(initialDelayString = "${datadragon.sync.initial-delay-ms:0}",
+            fixedDelayString = "${datadragon.sync.interval-ms:21600000}")
+    public void sync() {
+        dataDragonService.updateChampionDatabase();
+    }
+}
@@ -4,6 +4,8 @@ public interface IDataDragonService {
 
     void updateChampionDatabase();
 
+    int loadChampions();
+
     String getChampionNameById(Long championId);
 
     String getChampionIconUrl(Long championId);
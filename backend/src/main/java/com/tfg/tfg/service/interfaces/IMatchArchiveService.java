@@ -0,0 +1,10 @@
+package com.tfg.tfg.service.interfaces;
+
+import java.util.Optional;
+
+public interface IMatchArchiveService {
+
+    Optional<byte[]> findPayload(String matchId);
+
+    void archive(String matchId, byte[] payload);
+}
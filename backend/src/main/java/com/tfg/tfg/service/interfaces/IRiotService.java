@@ -1,6 +1,7 @@
 package com.tfg.tfg.service.interfaces;
 
 import java.util.List;
+import java.util.Optional;
 
 import com.tfg.tfg.model.dto.MatchDetailDTO;
 import com.tfg.tfg.model.dto.MatchHistoryDTO;
@@ -9,13 +10,26 @@ import com.tfg.tfg.model.dto.riot.RiotChampionMasteryDTO;
 
 public interface IRiotService {
 
+    /** match-v5 type filter for ranked games */
+    String MATCH_TYPE_RANKED = "ranked";
+
     IDataDragonService getDataDragonService();
 
     SummonerDTO getSummonerByName(String riotId);
 
+    SummonerDTO warmSummoner(String riotId);
+
+    Optional<SummonerDTO> refreshRankedEntry(String puuid);
+
     List<RiotChampionMasteryDTO> getTopChampionMasteries(String puuid, int count);
 
     List<MatchHistoryDTO> getMatchHistory(String puuid, int start, int count);
 
+    List<MatchHistoryDTO> getMatchHistory(String puuid, int start, int count, Integer queueId, String type);
+
+    List<String> getMatchIds(String puuid, int start, int count, Integer queueId, String type);
+
+    Optional<String> getLatestMatchId(String puuid);
+
     MatchDetailDTO getMatchDetails(String matchId);
 }
@@ -0,0 +1,174 @@
+package com.tfg.tfg.service.riot;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Remembers, per PUUID, when the match cache was last checked against Riot and
+ * which match ID was the newest one at that time.
+ *
+ * Inside the staleness window the database copy of a match history can be
+ * served without asking Riot; once the window has passed the copy is still
+ * served while a background refresh brings it up to date. Refreshes make
+ * their Riot calls in the {@link RiotPriority#PREFETCH} lane.
+ */
+@Component
+public class MatchFreshnessTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchFreshnessTracker.class);
+    private static final int MAX_TRACKED_SUMMONERS = 10_000;
+
+    /**
+     * State of the cached match history of a summoner.
+     */
+    public enum Freshness {
+        /** Checked inside the window and the DB holds the newest known match */
+        FRESH,
+        /** Checked inside the window but Riot knows a newer match than the DB */
+        OUTDATED,
+        /** Checked before, but the window has passed */
+        STALE,
+        /** Never checked by this instance */
+        UNKNOWN
+    }
+
+    private record FreshnessRecord(long lastCheckedAtMillis, String newestMatchId) {
+    }
+
+    private final Map<String, FreshnessRecord> records = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final long windowMillis;
+    private final ExecutorService refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Counter refreshCounter;
+
+    public MatchFreshnessTracker(@Value("${riot.matches.freshness-window-seconds:120}") long windowSeconds,
+            @Value("${riot.matches.refresh-threads:2}") int refreshThreads,
+            MeterRegistry meterRegistry) {
+        this.windowMillis = windowSeconds * 1000;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(Math.max(1, refreshThreads), runnable -> {
+            Thread thread = new Thread(runnable, "match-refresh-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.refreshCounter = Counter.builder("riot.freshness.refreshes")
+                .description("Background match history refreshes started")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Classifies the cached match history of a summoner.
+     *
+     * @param puuid               The player's PUUID
+     * @param newestCachedMatchId Newest match ID currently stored in the DB, or null
+     * @return Freshness of the cached history
+     */
+    public Freshness check(String puuid, String newestCachedMatchId) {
+        FreshnessRecord freshnessRecord = records.get(puuid);
+        Freshness freshness;
+        if (freshnessRecord == null) {
+            freshness = Freshness.UNKNOWN;
+        } else if (System.currentTimeMillis() - freshnessRecord.lastCheckedAtMillis() > windowMillis) {
+            freshness = Freshness.STALE;
+        } else if (freshnessRecord.newestMatchId() == null
+                || freshnessRecord.newestMatchId().equals(newestCachedMatchId)) {
+            freshness = Freshness.FRESH;
+        } else {
+            freshness = Freshness.OUTDATED;
+        }
+        meterRegistry.counter("riot.freshness.checks", "result", freshness.name().toLowerCase(Locale.ROOT)).increment();
+        return freshness;
+    }
+
+    /**
+     * @return The newest match ID seen for the PUUID if it was checked inside
+     *         the staleness window
+     */
+    public Optional<String> getNewestMatchId(String puuid) {
+        FreshnessRecord freshnessRecord = records.get(puuid);
+        if (freshnessRecord == null
+                || System.currentTimeMillis() - freshnessRecord.lastCheckedAtMillis() > windowMillis) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(freshnessRecord.newestMatchId());
+    }
+
+    /**
+     * Records that Riot was just asked for the newest match of the PUUID.
+     *
+     * @param puuid         The player's PUUID
+     * @param newestMatchId Newest match ID returned by Riot (null if none)
+     */
+    public void recordCheck(String puuid, String newestMatchId) {
+        if (records.size() >= MAX_TRACKED_SUMMONERS) {
+            evictExpired();
+        }
+        records.put(puuid, new FreshnessRecord(System.currentTimeMillis(), newestMatchId));
+    }
+
+    /**
+     * Forgets the freshness record of a PUUID, forcing the next read to check Riot.
+     */
+    public void invalidate(String puuid) {
+        records.remove(puuid);
+    }
+
+    /**
+     * Runs a refresh of the PUUID's match cache in the background, unless one is
+     * already running for it.
+     *
+     * @return true if a refresh was started
+     */
+    public boolean scheduleRefresh(String puuid, Runnable refresh) {
+        if (!refreshing.add(puuid)) {
+            return false;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    RiotPriority.PREFETCH.run(refresh);
+                } catch (Exception e) {
+                    logger.warn("Background match refresh failed for PUUID {}: {}", puuid, e.getMessage());
+                } finally {
+                    refreshing.remove(puuid);
+                }
+            });
+            refreshCounter.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(puuid);
+            return false;
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        records.entrySet().removeIf(entry -> now - entry.getValue().lastCheckedAtMillis() > windowMillis);
+        if (records.size() >= MAX_TRACKED_SUMMONERS) {
+            records.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,378 @@
+package com.tfg.tfg.service.riot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-host circuit breaker for outbound Riot API calls.
+ *
+ * Outcomes of the last {@code riot.circuit.window-size} calls to a host are
+ * kept; once at least {@code min-calls} are known and the share of failures
+ * (5xx after retries, I/O errors) reaches {@code failure-rate-threshold}, the
+ * circuit opens and calls to that host fail fast instead of waiting for
+ * timeouts. After {@code open-seconds} it half-opens: a few trial calls go
+ * through, and the circuit closes if they all succeed or opens again on the
+ * first failure. Throttling (429) and other client errors show Riot is up
+ * and count as successes.
+ *
+ * Callers that served a stored copy while the circuit was open can queue a
+ * revalidation; queued revalidations run (in the prefetch lane, on their own
+ * thread) as the trial calls when the circuit half-opens. A key whose
+ * revalidation did not refresh the data waits longer before the next one:
+ * {@code revalidation-base-delay-ms}, doubled per failure up to
+ * {@code revalidation-max-delay-ms}.
+ */
+@Component
+public class RiotCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotCircuitBreaker.class);
+    private static final int MAX_PENDING_REVALIDATIONS = 1000;
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+    private final long revalidationBaseDelayMillis;
+    private final long revalidationMaxDelayMillis;
+    private final Map<String, PendingRevalidation> pendingRevalidations = new LinkedHashMap<>();
+    /** Consecutive failed revalidations per key, dropped on the first success */
+    private final Map<String, Integer> revalidationFailures = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService revalidationExecutor;
+
+    public RiotCircuitBreaker(@Value("${riot.circuit.window-size:20}") int windowSize,
+            @Value("${riot.circuit.min-calls:10}") int minCalls,
+            @Value("${riot.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${riot.circuit.open-seconds:30}") long openSeconds,
+            @Value("${riot.circuit.half-open-calls:3}") int halfOpenCalls,
+            @Value("${riot.circuit.revalidation-base-delay-ms:1000}") long revalidationBaseDelayMillis,
+            @Value("${riot.circuit.revalidation-max-delay-ms:300000}") long revalidationMaxDelayMillis,
+            MeterRegistry meterRegistry) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minCalls = Math.clamp(minCalls, 1, this.windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = Math.max(0, openSeconds) * 1000;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.revalidationBaseDelayMillis = Math.max(1, revalidationBaseDelayMillis);
+        this.revalidationMaxDelayMillis = Math.max(this.revalidationBaseDelayMillis, revalidationMaxDelayMillis);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "riot-circuit-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.revalidationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "riot-revalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Asks for permission to call a host. While the circuit is open the call is
+     * rejected; while it is half-open only the trial calls are let through.
+     *
+     * @return {@code true} if the call may be sent
+     */
+    public boolean tryAcquire(String host) {
+        HostCircuit circuit = circuit(host);
+        boolean permitted;
+        synchronized (circuit) {
+            permitted = switch (circuit.state) {
+                case CLOSED -> true;
+                case OPEN -> false;
+                case HALF_OPEN -> {
+                    if (circuit.trialPermits > 0) {
+                        circuit.trialPermits--;
+                        yield true;
+                    }
+                    yield false;
+                }
+            };
+        }
+        if (!permitted) {
+            meterRegistry.counter("riot.circuit.rejected", "host", host).increment();
+        }
+        return permitted;
+    }
+
+    /**
+     * Records the final outcome of a permitted call.
+     *
+     * @param success {@code false} for server errors and I/O failures
+     */
+    public void onResult(String host, boolean success) {
+        HostCircuit circuit = circuit(host);
+        synchronized (circuit) {
+            if (circuit.state == State.HALF_OPEN) {
+                if (!success) {
+                    open(host, circuit);
+                } else if (++circuit.trialSuccesses >= halfOpenCalls) {
+                    transition(host, circuit, State.CLOSED);
+                    circuit.reset();
+                }
+                return;
+            }
+            if (circuit.state == State.OPEN) {
+                return;
+            }
+            circuit.record(success);
+            if (circuit.calls >= minCalls && (double) circuit.failures / circuit.calls >= failureRateThreshold) {
+                open(host, circuit);
+            }
+        }
+    }
+
+    /**
+     * Gives back a permission whose call never reached Riot (e.g. it ran out of
+     * local rate limit budget), so it neither counts as an outcome nor uses up
+     * a trial call.
+     */
+    public void release(String host) {
+        HostCircuit circuit = circuit(host);
+        synchronized (circuit) {
+            if (circuit.state == State.HALF_OPEN) {
+                circuit.trialPermits = Math.min(halfOpenCalls, circuit.trialPermits + 1);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if calls to the host are currently rejected outright
+     */
+    public boolean isOpen(String host) {
+        return getState(host) == State.OPEN;
+    }
+
+    public State getState(String host) {
+        HostCircuit circuit = circuit(host);
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * Queues a refresh of data served stale because Riot was unavailable. It
+     * runs when a circuit half-opens, or once the key's backoff has passed if
+     * none is open (right away if its last revalidation succeeded).
+     * Revalidations are deduplicated by key.
+     *
+     * @param revalidation Returns {@code true} if it refreshed the data
+     * @return {@code false} if the same key is already queued or the queue is full
+     */
+    public boolean scheduleRevalidation(String key, BooleanSupplier revalidation) {
+        long delay = revalidationDelayMillis(key);
+        synchronized (pendingRevalidations) {
+            if (pendingRevalidations.containsKey(key) || pendingRevalidations.size() >= MAX_PENDING_REVALIDATIONS) {
+                return false;
+            }
+            pendingRevalidations.put(key,
+                    new PendingRevalidation(revalidation, System.currentTimeMillis() + delay));
+        }
+        if (!anyOpen()) {
+            scheduler.schedule(() -> revalidationExecutor.execute(() -> runRevalidations(false)), delay,
+                    TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * @return Revalidations waiting for a circuit to half-open
+     */
+    public int getPendingRevalidations() {
+        synchronized (pendingRevalidations) {
+            return pendingRevalidations.size();
+        }
+    }
+
+    private void open(String host, HostCircuit circuit) {
+        transition(host, circuit, State.OPEN);
+        circuit.reset();
+        long openedAt = ++circuit.openings;
+        logger.warn("Riot API circuit for {} opened, failing fast for {} ms", host, openMillis);
+        scheduler.schedule(() -> halfOpen(host, circuit, openedAt), openMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void halfOpen(String host, HostCircuit circuit, long openedAt) {
+        synchronized (circuit) {
+            if (circuit.state != State.OPEN || circuit.openings != openedAt) {
+                return;
+            }
+            transition(host, circuit, State.HALF_OPEN);
+            circuit.trialPermits = halfOpenCalls;
+            circuit.trialSuccesses = 0;
+        }
+        logger.info("Riot API circuit for {} half-open, sending trial calls", host);
+        revalidationExecutor.execute(() -> runRevalidations(true));
+    }
+
+    /**
+     * Runs the queued revalidations that are due; with {@code ignoreBackoff}
+     * (a circuit just half-opened) all of them.
+     */
+    private void runRevalidations(boolean ignoreBackoff) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, PendingRevalidation>> batch = new ArrayList<>();
+        synchronized (pendingRevalidations) {
+            var iterator = pendingRevalidations.entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (ignoreBackoff || entry.getValue().notBefore() <= now) {
+                    batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                    iterator.remove();
+                }
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (anyOpen()) {
+                // Tripped again: keep the rest for the next half-open
+                requeue(batch.subList(i, batch.size()));
+                return;
+            }
+            Map.Entry<String, PendingRevalidation> entry = batch.get(i);
+            // Counted as failed until it succeeds, so a retry queued meanwhile already backs off
+            countRevalidationFailure(entry.getKey());
+            try {
+                if (RiotPriority.PREFETCH.call(entry.getValue().task()::getAsBoolean)) {
+                    revalidationFailures.remove(entry.getKey());
+                }
+                meterRegistry.counter("riot.circuit.revalidations").increment();
+            } catch (Exception e) {
+                logger.debug("Revalidation of {} failed: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void requeue(List<Map.Entry<String, PendingRevalidation>> remaining) {
+        synchronized (pendingRevalidations) {
+            for (Map.Entry<String, PendingRevalidation> entry : remaining) {
+                pendingRevalidations.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void countRevalidationFailure(String key) {
+        if (revalidationFailures.size() >= MAX_PENDING_REVALIDATIONS) {
+            revalidationFailures.clear();
+        }
+        revalidationFailures.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * @return 0 for a key without failed revalidations, else the base delay
+     *         doubled per consecutive failure, capped
+     */
+    private long revalidationDelayMillis(String key) {
+        int failures = revalidationFailures.getOrDefault(key, 0);
+        if (failures == 0) {
+            return 0;
+        }
+        long delay = revalidationBaseDelayMillis << Math.min(failures - 1, 30);
+        return Math.min(delay, revalidationMaxDelayMillis);
+    }
+
+    private boolean anyOpen() {
+        return circuits.values().stream().anyMatch(c -> c.isState(State.OPEN));
+    }
+
+    private record PendingRevalidation(BooleanSupplier task, long notBefore) {
+    }
+
+    private void transition(String host, HostCircuit circuit, State to) {
+        circuit.state = to;
+        meterRegistry.counter("riot.circuit.transitions", "host", host, "to", to.name().toLowerCase(Locale.ROOT))
+                .increment();
+    }
+
+    private HostCircuit circuit(String host) {
+        return circuits.computeIfAbsent(String.valueOf(host), h -> {
+            HostCircuit circuit = new HostCircuit(windowSize);
+            Gauge.builder("riot.circuit.state", circuit, c -> c.currentState().ordinal())
+                    .description("Riot API circuit state per host: 0 closed, 1 half-open, 2 open")
+                    .tag("host", h)
+                    .register(meterRegistry);
+            return circuit;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        revalidationExecutor.shutdownNow();
+    }
+
+    /**
+     * Circuit of one host: state plus a ring buffer of recent outcomes.
+     * Guarded by its own monitor.
+     */
+    private static final class HostCircuit {
+        private final boolean[] outcomes;
+        private int next;
+        private int calls;
+        private int failures;
+        private State state = State.CLOSED;
+        private int trialPermits;
+        private int trialSuccesses;
+        private long openings;
+
+        HostCircuit(int windowSize) {
+            this.outcomes = new boolean[windowSize];
+        }
+
+        void record(boolean success) {
+            if (calls == outcomes.length) {
+                if (!outcomes[next]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            outcomes[next] = success;
+            if (!success) {
+                failures++;
+            }
+            next = (next + 1) % outcomes.length;
+        }
+
+        void reset() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+        }
+
+        synchronized State currentState() {
+            return state;
+        }
+
+        synchronized boolean isState(State expected) {
+            return state == expected;
+        }
+    }
+}
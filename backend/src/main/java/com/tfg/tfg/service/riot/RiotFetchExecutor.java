@@ -0,0 +1,194 @@
+package com.tfg.tfg.service.riot;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tfg.tfg.exception.RiotApiException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded worker pool for outbound Riot API calls that can run in parallel
+ * (e.g. the match-v5 detail lookups of a history page, or the summoner-v4 and
+ * league-v4 lookups that only depend on an already resolved PUUID).
+ * The pool size caps how many requests are in flight at once so a cold page
+ * does not burst through the API key quota.
+ * Tasks run in the {@link RiotPriority} lane of the thread that submitted them,
+ * on a pool of their own per lane: prefetch and bulk tasks may wait a long
+ * time on the rate limiter, and must not hold the threads interactive
+ * requests need.
+ */
+@Component
+public class RiotFetchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotFetchExecutor.class);
+
+    private final Map<RiotPriority, ExecutorService> executors = new EnumMap<>(RiotPriority.class);
+    private final int parallelism;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    /**
+     * @param parallelism           Threads of the interactive lane
+     * @param backgroundParallelism Threads of each of the prefetch and bulk lanes
+     */
+    public RiotFetchExecutor(@Value("${riot.fetch.parallelism:8}") int parallelism,
+            @Value("${riot.fetch.background-parallelism:4}") int backgroundParallelism,
+            MeterRegistry meterRegistry) {
+        this.parallelism = Math.max(1, parallelism);
+        for (RiotPriority priority : RiotPriority.values()) {
+            int threads = priority == RiotPriority.INTERACTIVE ? this.parallelism : Math.max(1, backgroundParallelism);
+            executors.put(priority, Executors.newFixedThreadPool(threads, new RiotFetchThreadFactory(priority)));
+        }
+        this.batchTimer = Timer.builder("riot.fetch.batch")
+                .description("Wall-clock latency of a parallel Riot fetch batch")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("riot.fetch.batch.size")
+                .description("Number of upstream requests per parallel Riot fetch batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the fetcher for every key concurrently and returns the results in the
+     * same order as the keys. A key whose fetch fails or returns null yields a
+     * null entry, so callers can line results up with their input by index.
+     *
+     * @param keys    Keys to fetch (e.g. match IDs)
+     * @param fetcher Blocking fetch function applied to each key
+     * @return Results aligned by index with {@code keys}
+     */
+    public <K, V> List<V> fetchAll(List<K> keys, Function<K, V> fetcher) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        long startNanos = System.nanoTime();
+
+        RiotPriority priority = RiotPriority.current();
+        List<Future<V>> futures = new ArrayList<>(keys.size());
+        ExecutorService executor = executors.get(priority);
+        for (K key : keys) {
+            futures.add(executor.submit(() -> priority.call(() -> fetcher.apply(key))));
+        }
+
+        List<V> results = new ArrayList<>(keys.size());
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(awaitResult(futures.get(i), keys.get(i)));
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(keys.size());
+        logger.debug("Parallel Riot fetch of {} requests finished in {} ms (parallelism={})",
+                keys.size(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), parallelism);
+
+        return results;
+    }
+
+    /**
+     * Starts a single call on the pool with its own deadline, counted from now.
+     *
+     * @param task          Blocking call to run
+     * @param timeoutMillis Deadline for the call; 0 or less means no deadline
+     * @return Future completed with the call result, or exceptionally with a
+     *         TimeoutException once the deadline passes
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task, long timeoutMillis) {
+        RiotPriority priority = RiotPriority.current();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> priority.call(task),
+                executors.get(priority));
+        return timeoutMillis > 0 ? future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : future;
+    }
+
+    /**
+     * Waits for a call started with {@link #submit(Supplier, long)}.
+     * Runtime exceptions thrown by the call are rethrown unchanged, so callers can
+     * keep handling e.g. HttpClientErrorException as if the call ran inline.
+     *
+     * @param future      The submitted call
+     * @param description Short name of the call for error messages (e.g. "league-v4")
+     * @return The call result
+     * @throws RiotApiException with status 504 if the call missed its deadline
+     */
+    public <T> T await(CompletableFuture<T> future, String description) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new RiotApiException("Riot API call " + description + " exceeded its deadline", 504);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RiotApiException("Riot API call " + description + " failed: " + cause, 500);
+        }
+    }
+
+    private <K, V> V awaitResult(Future<V> future, K key) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            logger.warn("Interrupted while waiting for Riot fetch of {}", key);
+            return null;
+        } catch (ExecutionException e) {
+            logger.warn("Riot fetch of {} failed: {}", key, e.getCause() != null ? e.getCause().getMessage() : e);
+            return null;
+        }
+    }
+
+    /**
+     * @return Threads of the interactive lane
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private static final class RiotFetchThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        RiotFetchThreadFactory(RiotPriority priority) {
+            this.prefix = "riot-fetch-" + priority.tag() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
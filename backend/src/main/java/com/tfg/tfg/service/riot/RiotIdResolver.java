@@ -0,0 +1,165 @@
+package com.tfg.tfg.service.riot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.tfg.tfg.model.entity.Summoner;
+import com.tfg.tfg.repository.SummonerRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Resolves Riot IDs (gameName#tagLine) to PUUIDs without calling account-v1
+ * when the answer is already known.
+ *
+ * A PUUID never changes for an account, so resolutions are kept in the
+ * {@value #RIOT_IDS_CACHE} cache for {@code riot.account.resolution-ttl-hours}
+ * and, past that cache, read back from the {@code summoners.name} /
+ * {@code puuid} columns as long as the row was refreshed within the same TTL.
+ * Riot IDs are matched case-insensitively, like Riot does. The TTL bounds how
+ * long a renamed account can still be found under its old Riot ID.
+ *
+ * Riot IDs account-v1 does not know are kept apart in the
+ * {@value #UNKNOWN_RIOT_IDS_CACHE} cache for a short
+ * {@code riot.account.not-found-ttl-seconds}, so repeated typos are answered
+ * without spending quota; {@code riot.account.not-found} counts the hits.
+ */
+@Component
+public class RiotIdResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotIdResolver.class);
+
+    public static final String RIOT_IDS_CACHE = "riotIds";
+    public static final String UNKNOWN_RIOT_IDS_CACHE = "unknownRiotIds";
+
+    private final SummonerRepository summonerRepository;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+
+    public RiotIdResolver(SummonerRepository summonerRepository, CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${riot.account.resolution-ttl-hours:168}") long ttlHours) {
+        this.summonerRepository = summonerRepository;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(Math.max(0, ttlHours));
+    }
+
+    /**
+     * @return Case-insensitive key of a Riot ID: trimmed and lower-cased, with
+     *         blanks around the '#' removed
+     */
+    public static String normalize(String riotId) {
+        String trimmed = riotId.trim().toLowerCase(Locale.ROOT);
+        int hash = trimmed.lastIndexOf('#');
+        if (hash < 0) {
+            return trimmed;
+        }
+        return trimmed.substring(0, hash).trim() + "#" + trimmed.substring(hash + 1).trim();
+    }
+
+    /**
+     * Looks up the PUUID of a Riot ID in the resolution cache, then in the
+     * stored summoners.
+     *
+     * @return The PUUID, empty if account-v1 has to be asked
+     */
+    public Optional<String> resolve(String riotId) {
+        String key = normalize(riotId);
+        Cache cache = cacheManager.getCache(RIOT_IDS_CACHE);
+        if (cache != null) {
+            String cached = cache.get(key, String.class);
+            if (cached != null) {
+                count("cache");
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<String> stored = findStoredPuuid(riotId);
+        if (stored.isPresent()) {
+            count("database");
+            if (cache != null) {
+                cache.put(key, stored.get());
+            }
+            return stored;
+        }
+        count("miss");
+        return Optional.empty();
+    }
+
+    /**
+     * Records a resolution obtained from account-v1.
+     */
+    public void remember(String riotId, String puuid) {
+        Cache cache = cacheManager.getCache(RIOT_IDS_CACHE);
+        if (cache != null && puuid != null) {
+            cache.put(normalize(riotId), puuid);
+        }
+        Cache unknown = cacheManager.getCache(UNKNOWN_RIOT_IDS_CACHE);
+        if (unknown != null && puuid != null) {
+            unknown.evict(normalize(riotId));
+        }
+    }
+
+    /**
+     * @return {@code true} if account-v1 recently answered that the Riot ID
+     *         does not exist
+     */
+    public boolean isKnownMissing(String riotId) {
+        Cache unknown = cacheManager.getCache(UNKNOWN_RIOT_IDS_CACHE);
+        if (unknown == null || unknown.get(normalize(riotId)) == null) {
+            return false;
+        }
+        meterRegistry.counter("riot.account.not-found", "result", "hit").increment();
+        return true;
+    }
+
+    /**
+     * Records that account-v1 does not know a Riot ID.
+     */
+    public void rememberMissing(String riotId) {
+        Cache unknown = cacheManager.getCache(UNKNOWN_RIOT_IDS_CACHE);
+        if (unknown != null) {
+            unknown.put(normalize(riotId), Boolean.TRUE);
+            meterRegistry.counter("riot.account.not-found", "result", "stored").increment();
+        }
+    }
+
+    /**
+     * Drops a resolution that turned out to be wrong (e.g. the account was
+     * renamed and the Riot ID now belongs to someone else).
+     */
+    public void forget(String riotId) {
+        Cache cache = cacheManager.getCache(RIOT_IDS_CACHE);
+        if (cache != null) {
+            cache.evict(normalize(riotId));
+        }
+    }
+
+    private Optional<String> findStoredPuuid(String riotId) {
+        try {
+            LocalDateTime oldest = LocalDateTime.now().minus(ttl);
+            return summonerRepository.findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc(riotId.trim())
+                    .filter(s -> s.getLastSearchedAt() != null && s.getLastSearchedAt().isAfter(oldest))
+                    .map(Summoner::getPuuid);
+        } catch (DataAccessException e) {
+            logger.debug("Could not read stored Riot ID resolution: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void count(String source) {
+        meterRegistry.counter("riot.account.resolutions", "source", source).increment();
+    }
+}
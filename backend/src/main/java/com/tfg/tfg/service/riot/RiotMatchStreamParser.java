@@ -0,0 +1,279 @@
+package com.tfg.tfg.service.riot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tfg.tfg.model.dto.riot.RiotMatchDTO;
+
+/**
+ * Streaming reader for match-v5 payloads used by history views.
+ *
+ * A match-v5 response carries ten participants with hundreds of fields each,
+ * while a history row only needs the requesting player's participant and a few
+ * match info fields. This reader walks the Jackson token stream, keeps those
+ * fields and skips everything else (teams, challenges, perks, the other nine
+ * participants) without building a tree or binding the full DTO.
+ *
+ * The result is a {@link RiotMatchDTO} whose participant list only holds the
+ * requested players, so it can go straight to RiotMatchMapper and the match cache.
+ * The metadata keeps the PUUIDs of all ten participants.
+ */
+public final class RiotMatchStreamParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private RiotMatchStreamParser() {
+    }
+
+    /**
+     * Reads a match-v5 payload keeping only the participant with the given PUUID.
+     *
+     * @param body  Raw match-v5 JSON, as archived or downloaded
+     * @param puuid The requesting player's PUUID
+     * @return Match with metadata, info fields and at most one participant, or
+     *         null if the body is empty
+     * @throws IOException if the payload is not valid JSON
+     */
+    public static RiotMatchDTO parseForParticipant(byte[] body, String puuid) throws IOException {
+        return parseForParticipants(body, Set.of(puuid));
+    }
+
+    /**
+     * Reads a match-v5 payload keeping the participants whose PUUID is in the set,
+     * in payload order.
+     *
+     * @param body   Raw match-v5 JSON
+     * @param puuids PUUIDs of the participants to keep
+     * @return Match with metadata, info fields and the matching participants, or
+     *         null if the body is empty
+     * @throws IOException if the payload is not valid JSON
+     */
+    public static RiotMatchDTO parseForParticipants(byte[] body, Set<String> puuids) throws IOException {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            return readMatch(parser, puuids);
+        }
+    }
+
+    private static RiotMatchDTO readMatch(JsonParser parser, Set<String> puuids) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        RiotMatchDTO match = new RiotMatchDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("metadata".equals(field) && value == JsonToken.START_OBJECT) {
+                match.setMetadata(readMetadata(parser));
+            } else if ("info".equals(field) && value == JsonToken.START_OBJECT) {
+                match.setInfo(readInfo(parser, puuids));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return match;
+    }
+
+    private static RiotMatchDTO.MetadataDTO readMetadata(JsonParser parser) throws IOException {
+        RiotMatchDTO.MetadataDTO metadata = new RiotMatchDTO.MetadataDTO();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "matchId" -> metadata.setMatchId(text(parser));
+                case "dataVersion" -> metadata.setDataVersion(text(parser));
+                case "participants" -> metadata.setParticipants(readStrings(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return metadata;
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<String> values = new ArrayList<>(10);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(text(parser));
+        }
+        return values;
+    }
+
+    private static RiotMatchDTO.InfoDTO readInfo(JsonParser parser, Set<String> puuids) throws IOException {
+        RiotMatchDTO.InfoDTO info = new RiotMatchDTO.InfoDTO();
+        List<RiotMatchDTO.ParticipantDTO> participants = new ArrayList<>(1);
+        info.setParticipants(participants);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "gameCreation" -> info.setGameCreation(longValue(parser));
+                case "gameDuration" -> info.setGameDuration(longValue(parser));
+                case "gameEndTimestamp" -> info.setGameEndTimestamp(longValue(parser));
+                case "gameId" -> info.setGameId(longValue(parser));
+                case "gameMode" -> info.setGameMode(text(parser));
+                case "gameType" -> info.setGameType(text(parser));
+                case "gameVersion" -> info.setGameVersion(text(parser));
+                case "queueId" -> info.setQueueId(intValue(parser));
+                case "participants" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        readParticipants(parser, puuids, participants);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return info;
+    }
+
+    private static void readParticipants(JsonParser parser, Set<String> puuids,
+            List<RiotMatchDTO.ParticipantDTO> participants) throws IOException {
+        ParticipantFields fields = new ParticipantFields();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            fields.clear();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                fields.read(field, parser);
+            }
+            if (fields.puuid != null && puuids.contains(fields.puuid)) {
+                participants.add(fields.toDTO());
+            }
+        }
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private static Integer intValue(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : null;
+    }
+
+    private static Long longValue(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+    }
+
+    private static Boolean booleanValue(JsonParser parser) {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return Boolean.TRUE;
+        }
+        return token == JsonToken.VALUE_FALSE ? Boolean.FALSE : null;
+    }
+
+    /**
+     * Scratch holder reused across participants. Numbers are kept unboxed and only
+     * the requesting player's values are copied into a ParticipantDTO.
+     */
+    private static final class ParticipantFields {
+        private String puuid;
+        private String summonerName;
+        private String riotIdGameName;
+        private String riotIdTagline;
+        private String championName;
+        private String teamPosition;
+        private Boolean win;
+        private final int[] ints = new int[IntField.values().length];
+        private long presentInts;
+
+        private enum IntField {
+            CHAMPION_ID, KILLS, DEATHS, ASSISTS, CHAMP_LEVEL, TOTAL_MINIONS_KILLED, GOLD_EARNED, VISION_SCORE,
+            TOTAL_DAMAGE_DEALT_TO_CHAMPIONS, TEAM_ID, ITEM0, ITEM1, ITEM2, ITEM3, ITEM4, ITEM5, ITEM6
+        }
+
+        void clear() {
+            puuid = null;
+            summonerName = null;
+            riotIdGameName = null;
+            riotIdTagline = null;
+            championName = null;
+            teamPosition = null;
+            win = null;
+            presentInts = 0L;
+        }
+
+        void read(String field, JsonParser parser) throws IOException {
+            switch (field) {
+                case "puuid" -> puuid = text(parser);
+                case "summonerName" -> summonerName = text(parser);
+                case "riotIdGameName" -> riotIdGameName = text(parser);
+                case "riotIdTagline" -> riotIdTagline = text(parser);
+                case "championName" -> championName = text(parser);
+                case "teamPosition" -> teamPosition = text(parser);
+                case "win" -> win = booleanValue(parser);
+                case "championId" -> setInt(IntField.CHAMPION_ID, parser);
+                case "kills" -> setInt(IntField.KILLS, parser);
+                case "deaths" -> setInt(IntField.DEATHS, parser);
+                case "assists" -> setInt(IntField.ASSISTS, parser);
+                case "champLevel" -> setInt(IntField.CHAMP_LEVEL, parser);
+                case "totalMinionsKilled" -> setInt(IntField.TOTAL_MINIONS_KILLED, parser);
+                case "goldEarned" -> setInt(IntField.GOLD_EARNED, parser);
+                case "visionScore" -> setInt(IntField.VISION_SCORE, parser);
+                case "totalDamageDealtToChampions" -> setInt(IntField.TOTAL_DAMAGE_DEALT_TO_CHAMPIONS, parser);
+                case "teamId" -> setInt(IntField.TEAM_ID, parser);
+                case "item0" -> setInt(IntField.ITEM0, parser);
+                case "item1" -> setInt(IntField.ITEM1, parser);
+                case "item2" -> setInt(IntField.ITEM2, parser);
+                case "item3" -> setInt(IntField.ITEM3, parser);
+                case "item4" -> setInt(IntField.ITEM4, parser);
+                case "item5" -> setInt(IntField.ITEM5, parser);
+                case "item6" -> setInt(IntField.ITEM6, parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        private void setInt(IntField field, JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                ints[field.ordinal()] = parser.getIntValue();
+                presentInts |= 1L << field.ordinal();
+            }
+        }
+
+        private Integer get(IntField field) {
+            return (presentInts & (1L << field.ordinal())) != 0 ? ints[field.ordinal()] : null;
+        }
+
+        RiotMatchDTO.ParticipantDTO toDTO() {
+            RiotMatchDTO.ParticipantDTO participant = new RiotMatchDTO.ParticipantDTO();
+            participant.setPuuid(puuid);
+            participant.setSummonerName(summonerName);
+            participant.setRiotIdGameName(riotIdGameName);
+            participant.setRiotIdTagline(riotIdTagline);
+            participant.setChampionName(championName);
+            participant.setTeamPosition(teamPosition);
+            participant.setWin(win);
+            participant.setChampionId(get(IntField.CHAMPION_ID));
+            participant.setKills(get(IntField.KILLS));
+            participant.setDeaths(get(IntField.DEATHS));
+            participant.setAssists(get(IntField.ASSISTS));
+            participant.setChampLevel(get(IntField.CHAMP_LEVEL));
+            participant.setTotalMinionsKilled(get(IntField.TOTAL_MINIONS_KILLED));
+            participant.setGoldEarned(get(IntField.GOLD_EARNED));
+            participant.setVisionScore(get(IntField.VISION_SCORE));
+            participant.setTotalDamageDealtToChampions(get(IntField.TOTAL_DAMAGE_DEALT_TO_CHAMPIONS));
+            participant.setTeamId(get(IntField.TEAM_ID));
+            participant.setItem0(get(IntField.ITEM0));
+            participant.setItem1(get(IntField.ITEM1));
+            participant.setItem2(get(IntField.ITEM2));
+            participant.setItem3(get(IntField.ITEM3));
+            participant.setItem4(get(IntField.ITEM4));
+            participant.setItem5(get(IntField.ITEM5));
+            participant.setItem6(get(IntField.ITEM6));
+            return participant;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.tfg.tfg.service.riot;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Priority class of outbound Riot API traffic, from most to least urgent.
+ *
+ * The class is bound to the calling thread: work is tagged with
+ * {@link #call(Supplier)} or {@link #run(Runnable)} and every Riot call made
+ * inside it (including calls handed to the {@link RiotFetchExecutor}) is
+ * queued in that lane by the {@link RiotRateLimiter}. Untagged calls are
+ * {@link #INTERACTIVE}.
+ */
+public enum RiotPriority {
+
+    /** A user is waiting on the response */
+    INTERACTIVE,
+
+    /** Ahead-of-time refreshes: followed summoners, stale caches, warm-up of summoners */
+    PREFETCH,
+
+    /**
+     * Large backfills that may take as long as the spare quota allows, such as
+     * the match details loaded by the startup warm-up
+     */
+    BULK;
+
+    private static final ThreadLocal<RiotPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    /**
+     * @return Priority of the Riot calls made by the current thread
+     */
+    public static RiotPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs work with its Riot calls in this lane, restoring the previous
+     * priority of the thread afterwards.
+     */
+    public <T> T call(Supplier<T> work) {
+        RiotPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Same as {@link #call(Supplier)} for work without a result.
+     */
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return {@code true} if this lane goes before {@code other}
+     */
+    public boolean outranks(RiotPriority other) {
+        return ordinal() < other.ordinal();
+    }
+
+    /**
+     * @return Lower-case name used as metric tag
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,118 @@
+package com.tfg.tfg.service.riot;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import com.tfg.tfg.exception.RiotApiException;
+
+/**
+ * RestTemplate interceptor that routes every outbound call through the
+ * {@link RiotRateLimiter}: waits for budget in the lane of the calling thread
+ * ({@link RiotPriority#current()}) before sending, and feeds the rate limit
+ * headers of the response back into the governor.
+ *
+ * Transient failures are retried here as decided by the {@link RiotRetryPolicy},
+ * each attempt waiting for budget again. Re-executing a request skips the
+ * interceptors after this one, so it must be the last interceptor of the
+ * RestTemplate.
+ *
+ * Calls to a host whose {@link RiotCircuitBreaker} is open fail fast with a
+ * 503 {@link RiotApiException}; the final outcome of every other call is
+ * reported to the breaker.
+ */
+@Component
+public class RiotRateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotRateLimitInterceptor.class);
+
+    private final RiotRateLimiter rateLimiter;
+    private final RiotRetryPolicy retryPolicy;
+    private final RiotCircuitBreaker circuitBreaker;
+
+    public RiotRateLimitInterceptor(RiotRateLimiter rateLimiter, RiotRetryPolicy retryPolicy,
+            RiotCircuitBreaker circuitBreaker) {
+        this.rateLimiter = rateLimiter;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        URI uri = request.getURI();
+        String host = uri.getHost();
+        String method = RiotRateLimiter.methodKey(uri.getPath());
+
+        if (!circuitBreaker.tryAcquire(host)) {
+            throw new RiotApiException("Riot API is unavailable (circuit open for " + host + ")", 503);
+        }
+        boolean reachedRiot = false;
+        boolean success = false;
+        try {
+            ClientHttpResponse response = executeWithRetries(request, body, execution, host, method);
+            reachedRiot = true;
+            success = response.getStatusCode().value() < 500;
+            return response;
+        } catch (IOException e) {
+            reachedRiot = true;
+            throw e;
+        } finally {
+            if (reachedRiot) {
+                circuitBreaker.onResult(host, success);
+            } else {
+                circuitBreaker.release(host);
+            }
+        }
+    }
+
+    private ClientHttpResponse executeWithRetries(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution, String host, String method) throws IOException {
+        RiotRetryPolicy.Attempts attempts = retryPolicy.start(host + method);
+
+        while (true) {
+            rateLimiter.acquire(host, method, RiotPriority.current());
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException e) {
+                long delay = attempts.onError(e);
+                if (delay < 0) {
+                    throw e;
+                }
+                logger.debug("Retrying {}{} in {} ms after {} (attempt {})",
+                        host, method, delay, e.getClass().getSimpleName(), attempts.getAttempts());
+                sleep(delay);
+                continue;
+            }
+
+            int status = response.getStatusCode().value();
+            rateLimiter.onResponse(host, method, status, response.getHeaders());
+            long delay = attempts.onResponse(status, response.getHeaders());
+            if (delay < 0) {
+                return response;
+            }
+            logger.debug("Retrying {}{} in {} ms after status {} (attempt {})",
+                    host, method, delay, status, attempts.getAttempts());
+            response.close();
+            sleep(delay);
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry a Riot API call");
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.tfg.tfg.service.riot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import com.tfg.tfg.exception.RiotApiException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Central token-bucket governor for outbound Riot API traffic.
+ *
+ * Budgets are kept per routing host (application limits) and per host + API
+ * method (method limits). Limits are learned from the X-App-Rate-Limit and
+ * X-Method-Rate-Limit response headers, and a 429 blocks the offending scope
+ * for the Retry-After period. Callers that find no budget are queued (blocked)
+ * until a token is available instead of being failed.
+ *
+ * Callers are served in {@link RiotPriority} lanes. Lower lanes may not dip
+ * into the share of each window reserved for the lanes above them
+ * ({@code riot.ratelimit.prefetch-reserve} / {@code bulk-reserve}), and they
+ * yield while a more urgent caller is queued for the same host, so a user
+ * request never waits behind background work.
+ */
+@Component
+public class RiotRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotRateLimiter.class);
+
+    public static final String APP_LIMIT_HEADER = "X-App-Rate-Limit";
+    public static final String APP_COUNT_HEADER = "X-App-Rate-Limit-Count";
+    public static final String METHOD_LIMIT_HEADER = "X-Method-Rate-Limit";
+    public static final String METHOD_COUNT_HEADER = "X-Method-Rate-Limit-Count";
+    public static final String LIMIT_TYPE_HEADER = "X-Rate-Limit-Type";
+
+    private static final String RIOT_HOST_SUFFIX = ".api.riotgames.com";
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+    private static final String SCOPE_APP = "app";
+    private static final String SCOPE_METHOD = "method";
+    /** How often a caller that yielded to a more urgent lane checks again */
+    private static final long PREEMPTED_POLL_MILLIS = 20;
+
+    private final Map<String, LimitState> appLimits = new ConcurrentHashMap<>();
+    private final Map<String, LimitState> methodLimits = new ConcurrentHashMap<>();
+    private final String defaultAppLimits;
+    private final long maxWaitMillis;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Counter throttledCounter;
+    private final Map<RiotPriority, Double> reserves = new EnumMap<>(RiotPriority.class);
+    private final Map<RiotPriority, Timer> waitTimers = new EnumMap<>(RiotPriority.class);
+    private final Map<RiotPriority, Counter> preemptedCounters = new EnumMap<>(RiotPriority.class);
+
+    public RiotRateLimiter(@Value("${riot.ratelimit.default-app-limits:20:1,100:120}") String defaultAppLimits,
+            @Value("${riot.ratelimit.max-wait-ms:30000}") long maxWaitMillis,
+            @Value("${riot.ratelimit.prefetch-reserve:0.3}") double prefetchReserve,
+            @Value("${riot.ratelimit.bulk-reserve:0.5}") double bulkReserve,
+            MeterRegistry meterRegistry) {
+        this.defaultAppLimits = defaultAppLimits;
+        this.maxWaitMillis = maxWaitMillis;
+        this.meterRegistry = meterRegistry;
+        this.throttledCounter = Counter.builder("riot.ratelimit.throttled")
+                .description("Riot API responses rejected with 429 Too Many Requests")
+                .register(meterRegistry);
+
+        // A lane never gets more than the lanes above it
+        double prefetchShare = clampShare(prefetchReserve);
+        reserves.put(RiotPriority.INTERACTIVE, 0.0);
+        reserves.put(RiotPriority.PREFETCH, prefetchShare);
+        reserves.put(RiotPriority.BULK, Math.max(prefetchShare, clampShare(bulkReserve)));
+        for (RiotPriority priority : RiotPriority.values()) {
+            waitTimers.put(priority, Timer.builder("riot.ratelimit.wait")
+                    .description("Time callers spent queued waiting for Riot API budget")
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry));
+            preemptedCounters.put(priority, Counter.builder("riot.ratelimit.preempted")
+                    .description("Times a caller yielded budget to a more urgent lane")
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("riot.ratelimit.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Callers currently waiting for Riot API budget")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Same as {@link #acquire(String, String, RiotPriority)} in the lane of the
+     * current thread, see {@link RiotPriority#current()}.
+     */
+    public void acquire(String host, String method) {
+        acquire(host, method, RiotPriority.current());
+    }
+
+    /**
+     * Blocks until both the application budget of the host and the method budget
+     * have a token outside the share reserved for more urgent lanes, and no more
+     * urgent caller is queued for the host, then consumes one from each.
+     *
+     * @param host     Routing host (e.g. europe.api.riotgames.com)
+     * @param method   Normalized API method key, see {@link #methodKey(String)}
+     * @param priority Lane of the call
+     * @throws RiotApiException with status 429 if the wait would exceed the
+     *                          configured maximum
+     */
+    public void acquire(String host, String method, RiotPriority priority) {
+        LimitState app = appState(host);
+        LimitState methodState = methodState(host, method);
+        double reserve = reserves.get(priority);
+
+        long startNanos = System.nanoTime();
+        long deadline = System.currentTimeMillis() + maxWaitMillis;
+        boolean queued = false;
+        queueDepth.incrementAndGet();
+        try {
+            while (true) {
+                long waitMillis;
+                synchronized (this) {
+                    long now = System.currentTimeMillis();
+                    waitMillis = Math.max(app.waitMillis(now, reserve), methodState.waitMillis(now, reserve));
+                    if (waitMillis == 0 && !app.hasWaitersAbove(priority)) {
+                        app.consume();
+                        methodState.consume();
+                        return;
+                    }
+                    if (waitMillis == 0) {
+                        // Budget is there, but a more urgent caller is queued for it
+                        preemptedCounters.get(priority).increment();
+                        waitMillis = PREEMPTED_POLL_MILLIS;
+                    }
+                    if (!queued) {
+                        app.addWaiter(priority, 1);
+                        queued = true;
+                    }
+                }
+
+                if (System.currentTimeMillis() + waitMillis > deadline) {
+                    throw new RiotApiException("Riot API rate limit budget exhausted for " + host + method, 429);
+                }
+                logger.debug("Riot API budget exhausted for {}{}, queuing caller for {} ms", host, method, waitMillis);
+                sleep(waitMillis);
+            }
+        } finally {
+            if (queued) {
+                synchronized (this) {
+                    app.addWaiter(priority, -1);
+                }
+            }
+            queueDepth.decrementAndGet();
+            waitTimers.get(priority).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Tells whether a call in the given lane would be served right away, without
+     * consuming budget. Background jobs use it to skip work instead of queuing.
+     */
+    public boolean hasHeadroom(String host, String method, RiotPriority priority) {
+        LimitState app = appState(host);
+        LimitState methodState = methodState(host, method);
+        double reserve = reserves.get(priority);
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            return !app.hasWaitersAbove(priority)
+                    && app.waitMillis(now, reserve) == 0
+                    && methodState.waitMillis(now, reserve) == 0;
+        }
+    }
+
+    /**
+     * Learns limits and current counts from a Riot response, and applies the
+     * Retry-After penalty when the response is a 429.
+     */
+    public void onResponse(String host, String method, int statusCode, HttpHeaders headers) {
+        LimitState app = appState(host);
+        LimitState methodState = methodState(host, method);
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            app.learn(headers.getFirst(APP_LIMIT_HEADER), headers.getFirst(APP_COUNT_HEADER), now);
+            methodState.learn(headers.getFirst(METHOD_LIMIT_HEADER), headers.getFirst(METHOD_COUNT_HEADER), now);
+
+            if (statusCode == 429) {
+                throttledCounter.increment();
+                long retryAfterMillis = parseRetryAfterMillis(headers.getFirst(HttpHeaders.RETRY_AFTER));
+                String limitType = headers.getFirst(LIMIT_TYPE_HEADER);
+                LimitState blocked = "application".equalsIgnoreCase(limitType) ? app : methodState;
+                blocked.blockUntil(now + retryAfterMillis);
+                logger.warn("Riot API returned 429 for {}{} (type={}), backing off for {} ms",
+                        host, method, limitType, retryAfterMillis);
+            }
+        }
+    }
+
+    /**
+     * @return Number of callers currently queued waiting for budget
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return Tokens left in the tightest window that applies to a call, or
+     *         {@link Double#POSITIVE_INFINITY} if no limit is known yet
+     */
+    public double getRemainingBudget(String host, String method) {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            return Math.min(appState(host).remaining(now), methodState(host, method).remaining(now));
+        }
+    }
+
+    /**
+     * Reduces a request path to the Riot API method it belongs to, replacing
+     * path variables (PUUIDs, match IDs, Riot IDs) with "{}" so that every call
+     * to the same endpoint shares one method budget.
+     * e.g. /lol/match/v5/matches/EUW1_123 becomes /lol/match/v5/matches/{}
+     */
+    public static String methodKey(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        StringBuilder key = new StringBuilder();
+        int variablesLeft = 0;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            key.append('/');
+            if (variablesLeft > 0) {
+                key.append("{}");
+                variablesLeft--;
+            } else if (segment.startsWith("by-")) {
+                key.append(segment);
+                variablesLeft = "by-riot-id".equals(segment) ? 2 : 1;
+            } else if (segment.matches("[a-z][a-z0-9-]*")) {
+                key.append(segment);
+            } else {
+                key.append("{}");
+            }
+        }
+        return key.isEmpty() ? "/" : key.toString();
+    }
+
+    /**
+     * Parses a Riot limit header such as "20:1,100:120" into windows.
+     */
+    static List<RateWindow> parseLimits(String header) {
+        if (header == null || header.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<RateWindow> windows = new ArrayList<>();
+        for (String part : header.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                continue;
+            }
+            try {
+                int limit = Integer.parseInt(pair[0].trim());
+                int seconds = Integer.parseInt(pair[1].trim());
+                if (limit > 0 && seconds > 0) {
+                    windows.add(new RateWindow(limit, seconds));
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed rate limit entry '{}'", part);
+            }
+        }
+        return windows;
+    }
+
+    private static double clampShare(double share) {
+        return Math.clamp(share, 0.0, 1.0);
+    }
+
+    private static long parseRetryAfterMillis(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+    }
+
+    private LimitState appState(String host) {
+        return appLimits.computeIfAbsent(host, h -> {
+            LimitState state = new LimitState();
+            if (h != null && h.endsWith(RIOT_HOST_SUFFIX)) {
+                state.learn(defaultAppLimits, null, System.currentTimeMillis());
+            }
+            registerBudgetGauge(state, SCOPE_APP, h);
+            return state;
+        });
+    }
+
+    private LimitState methodState(String host, String method) {
+        return methodLimits.computeIfAbsent(host + method, key -> {
+            LimitState state = new LimitState();
+            registerBudgetGauge(state, SCOPE_METHOD, key);
+            return state;
+        });
+    }
+
+    private void registerBudgetGauge(LimitState state, String scope, String key) {
+        Gauge.builder("riot.ratelimit.budget", state, s -> {
+            double remaining = s.remaining(System.currentTimeMillis());
+            return Double.isInfinite(remaining) ? Double.NaN : remaining;
+        })
+                .description("Requests left in the tightest known Riot rate limit window")
+                .tag("scope", scope)
+                .tag("key", String.valueOf(key))
+                .register(meterRegistry);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RiotApiException("Interrupted while waiting for Riot API rate limit budget", 429);
+        }
+    }
+
+    /**
+     * A single Riot limit window, e.g. 100 requests every 120 seconds.
+     */
+    record RateWindow(int limit, int seconds) {
+    }
+
+    /**
+     * Budget of one scope (an application host or a method): a token bucket per
+     * known window plus an optional Retry-After block. Guarded by the limiter.
+     */
+    private static final class LimitState {
+        private List<TokenBucket> buckets = Collections.emptyList();
+        private String appliedLimits;
+        private long blockedUntilMillis;
+        private final int[] waitersByPriority = new int[RiotPriority.values().length];
+
+        void learn(String limitHeader, String countHeader, long now) {
+            if (limitHeader != null && !limitHeader.equals(appliedLimits)) {
+                List<TokenBucket> learned = new ArrayList<>();
+                for (RateWindow window : parseLimits(limitHeader)) {
+                    learned.add(new TokenBucket(window, now));
+                }
+                buckets = learned;
+                appliedLimits = limitHeader;
+            }
+            for (RateWindow observed : parseLimits(countHeader)) {
+                for (TokenBucket bucket : buckets) {
+                    if (bucket.window.seconds() == observed.seconds()) {
+                        bucket.observeCount(observed.limit(), now);
+                    }
+                }
+            }
+        }
+
+        void blockUntil(long untilMillis) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, untilMillis);
+        }
+
+        long waitMillis(long now, double reserve) {
+            long wait = Math.max(0, blockedUntilMillis - now);
+            for (TokenBucket bucket : buckets) {
+                wait = Math.max(wait, bucket.waitMillis(now, reserve));
+            }
+            return wait;
+        }
+
+        void addWaiter(RiotPriority priority, int delta) {
+            waitersByPriority[priority.ordinal()] += delta;
+        }
+
+        boolean hasWaitersAbove(RiotPriority priority) {
+            for (int i = 0; i < priority.ordinal(); i++) {
+                if (waitersByPriority[i] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void consume() {
+            for (TokenBucket bucket : buckets) {
+                bucket.consume();
+            }
+        }
+
+        double remaining(long now) {
+            if (blockedUntilMillis > now) {
+                return 0;
+            }
+            double remaining = Double.POSITIVE_INFINITY;
+            for (TokenBucket bucket : buckets) {
+                remaining = Math.min(remaining, bucket.available(now));
+            }
+            return remaining;
+        }
+    }
+
+    /**
+     * Token bucket refilled continuously at limit / window.
+     */
+    private static final class TokenBucket {
+        private final RateWindow window;
+        private final double refillPerMilli;
+        private double tokens;
+        private long lastRefillMillis;
+
+        TokenBucket(RateWindow window, long now) {
+            this.window = window;
+            this.refillPerMilli = (double) window.limit() / (window.seconds() * 1000L);
+            this.tokens = window.limit();
+            this.lastRefillMillis = now;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefillMillis) {
+                tokens = Math.min(window.limit(), tokens + (now - lastRefillMillis) * refillPerMilli);
+                lastRefillMillis = now;
+            }
+        }
+
+        double available(long now) {
+            refill(now);
+            return Math.floor(tokens);
+        }
+
+        /**
+         * @param reserve Share of the window the caller must leave untouched
+         */
+        long waitMillis(long now, double reserve) {
+            refill(now);
+            double needed = Math.min(window.limit(), 1 + reserve * window.limit());
+            if (tokens >= needed) {
+                return 0;
+            }
+            return (long) Math.ceil((needed - tokens) / refillPerMilli);
+        }
+
+        void consume() {
+            tokens -= 1;
+        }
+
+        void observeCount(int count, long now) {
+            refill(now);
+            tokens = Math.min(tokens, (double) window.limit() - count);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.tfg.tfg.service.riot;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Single-flight coalescing for Riot API lookups.
+ * While a call for a key is in flight, concurrent callers asking for the same
+ * key wait for it and receive the same result (or the same exception) instead
+ * of issuing their own upstream request.
+ */
+@Component
+public class RiotRequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotRequestCoalescer.class);
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter sharedCounter;
+
+    public RiotRequestCoalescer(MeterRegistry meterRegistry) {
+        this.sharedCounter = Counter.builder("riot.coalesce.shared")
+                .description("Riot lookups served by joining an identical in-flight request")
+                .register(meterRegistry);
+        Gauge.builder("riot.coalesce.inflight", inFlight, Map::size)
+                .description("Distinct Riot lookups currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call for the key, or joins the call already running for it.
+     *
+     * @param key  Identity of the upstream request (e.g. "match:EUW1_123")
+     * @param call Upstream call, executed by the first caller only
+     * @return The result shared by every caller of this flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            sharedCounter.increment();
+            logger.debug("Joining in-flight Riot request for {}", key);
+            return (T) await(existing);
+        }
+
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.tfg.tfg.service.riot;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides whether a failed Riot call is retried and how long to wait first.
+ *
+ * Transient failures (429, 500, 502, 503, 504 and I/O errors such as read
+ * timeouts) are retried up to {@code riot.retry.max-attempts} attempts in
+ * total. A Retry-After header is honored exactly; otherwise the delay is a
+ * full-jitter exponential backoff ({@code base * 2^n}, capped). A request
+ * gives up once the next attempt would start after its deadline.
+ *
+ * Retries are paid from a shared budget so an outage cannot multiply the
+ * traffic sent to Riot: every new request deposits a fraction of a retry
+ * ({@code riot.retry.budget-ratio}) up to a cap, and every retry withdraws
+ * one.
+ */
+@Component
+public class RiotRetryPolicy {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+    private static final String REASON_IO = "io";
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMillis;
+    private final double budgetRatio;
+    private final double budgetCap;
+    private final MeterRegistry meterRegistry;
+
+    private double budget;
+
+    public RiotRetryPolicy(@Value("${riot.retry.max-attempts:3}") int maxAttempts,
+            @Value("${riot.retry.base-delay-ms:250}") long baseDelayMillis,
+            @Value("${riot.retry.max-delay-ms:4000}") long maxDelayMillis,
+            @Value("${riot.retry.deadline-ms:10000}") long deadlineMillis,
+            @Value("${riot.retry.budget-ratio:0.1}") double budgetRatio,
+            @Value("${riot.retry.budget-cap:10}") double budgetCap,
+            MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.deadlineMillis = deadlineMillis;
+        this.budgetRatio = Math.max(0, budgetRatio);
+        this.budgetCap = Math.max(0, budgetCap);
+        this.meterRegistry = meterRegistry;
+        this.budget = this.budgetCap;
+        Gauge.builder("riot.retry.budget", this, RiotRetryPolicy::getBudget)
+                .description("Retries currently available in the shared Riot retry budget")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking a new request and deposits its share of the retry budget.
+     *
+     * @param description Method or URL of the call, used in logs
+     */
+    public Attempts start(String description) {
+        synchronized (this) {
+            budget = Math.min(budgetCap, budget + budgetRatio);
+        }
+        return new Attempts(description, System.currentTimeMillis());
+    }
+
+    /**
+     * @return Retries currently available in the shared budget
+     */
+    public synchronized double getBudget() {
+        return budget;
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    static long parseRetryAfterMillis(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Retry state of a single request.
+     */
+    public final class Attempts {
+        private final String description;
+        private final long startedAtMillis;
+        private int attempts = 1;
+
+        private Attempts(String description, long startedAtMillis) {
+            this.description = description;
+            this.startedAtMillis = startedAtMillis;
+        }
+
+        /**
+         * Called after a response was received.
+         *
+         * @return Milliseconds to wait before the next attempt, or -1 if the
+         *         response is final (success, non-transient error, or gave up)
+         */
+        public long onResponse(int statusCode, HttpHeaders headers) {
+            if (!RETRYABLE_STATUSES.contains(statusCode)) {
+                return -1;
+            }
+            long retryAfter = statusCode == 429 || statusCode == 503
+                    ? parseRetryAfterMillis(headers.getFirst(HttpHeaders.RETRY_AFTER))
+                    : -1;
+            return next(String.valueOf(statusCode), retryAfter);
+        }
+
+        /**
+         * Called when the call failed without a response.
+         *
+         * @return Milliseconds to wait before the next attempt, or -1 to give up
+         */
+        public long onError(IOException error) {
+            return next(REASON_IO, -1);
+        }
+
+        /**
+         * @return Attempts made so far, including the first one
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        private long next(String reason, long retryAfterMillis) {
+            if (attempts >= maxAttempts) {
+                return giveUp(reason, "attempts");
+            }
+            long delay = retryAfterMillis >= 0 ? retryAfterMillis : backoffMillis();
+            if (deadlineMillis > 0 && System.currentTimeMillis() + delay - startedAtMillis > deadlineMillis) {
+                return giveUp(reason, "deadline");
+            }
+            if (!withdraw()) {
+                return giveUp(reason, "budget");
+            }
+            attempts++;
+            meterRegistry.counter("riot.retry.attempts", "reason", reason).increment();
+            return delay;
+        }
+
+        private long backoffMillis() {
+            long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempts - 1, 20));
+            return ThreadLocalRandom.current().nextLong(ceiling + 1);
+        }
+
+        private long giveUp(String reason, String cause) {
+            meterRegistry.counter("riot.retry.exhausted", "reason", reason, "cause", cause).increment();
+            return -1;
+        }
+    }
+}
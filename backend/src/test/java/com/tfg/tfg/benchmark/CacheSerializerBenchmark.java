@@ -0,0 +1,131 @@
+package com.tfg.tfg.benchmark;
+
+import java.util.Locale;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.tfg.config.CacheConfig;
+import com.tfg.tfg.config.cache.SmileRedisSerializer;
+import com.tfg.tfg.model.dto.MatchDetailDTO;
+import com.tfg.tfg.model.dto.riot.RiotMatchDTO;
+import com.tfg.tfg.model.mapper.RiotMatchMapper;
+import com.tfg.tfg.service.interfaces.IDataDragonService;
+
+/**
+ * Compares the Redis value codecs on a cached {@link MatchDetailDTO}: the
+ * type-wrapped JSON codec, Smile, and Smile with deflate compression.
+ *
+ * Reports encoded bytes and microseconds per write and per read. Not a unit
+ * test; run it manually after test-compile:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.tfg.tfg.benchmark.CacheSerializerBenchmark
+ * </pre>
+ */
+public class CacheSerializerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        MatchDetailDTO match = buildMatchDetail();
+
+        Codec json = new Codec("json", CacheConfig.jsonRedisSerializer());
+        Codec smile = new Codec("smile", new SmileRedisSerializer(-1));
+        Codec smileDeflated = new Codec("smile+deflate", new SmileRedisSerializer(0));
+
+        for (Codec codec : new Codec[] { json, smile, smileDeflated }) {
+            checkRoundTrip(codec, match);
+            run(codec, match, WARMUP_ITERATIONS);
+        }
+
+        Result jsonResult = run(json, match, MEASURED_ITERATIONS);
+        System.out.printf(Locale.ROOT, "%-14s %8s %10s %10s%n", "codec", "bytes", "write us", "read us");
+        print(jsonResult, jsonResult);
+        print(run(smile, match, MEASURED_ITERATIONS), jsonResult);
+        print(run(smileDeflated, match, MEASURED_ITERATIONS), jsonResult);
+    }
+
+    private record Codec(String name, RedisSerializer<Object> serializer) {
+    }
+
+    private record Result(String name, int bytes, double writeMicros, double readMicros) {
+    }
+
+    private static Result run(Codec codec, MatchDetailDTO match, int iterations) {
+        RedisSerializer<Object> serializer = codec.serializer();
+        byte[] encoded = serializer.serialize(match);
+
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.serialize(match).length;
+        }
+        long writeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += ((MatchDetailDTO) serializer.deserialize(encoded)).getParticipants().size();
+        }
+        long readNanos = System.nanoTime() - start;
+
+        if (sink == 0) {
+            throw new IllegalStateException("Nothing encoded");
+        }
+        return new Result(codec.name(), encoded.length, writeNanos / 1e3 / iterations, readNanos / 1e3 / iterations);
+    }
+
+    private static void print(Result result, Result baseline) {
+        System.out.printf(Locale.ROOT, "%-14s %8d %10.2f %10.2f   (%.0f%% bytes, write x%.2f, read x%.2f)%n",
+                result.name(), result.bytes(), result.writeMicros(), result.readMicros(),
+                100.0 * result.bytes() / baseline.bytes(),
+                baseline.writeMicros() / result.writeMicros(), baseline.readMicros() / result.readMicros());
+    }
+
+    private static void checkRoundTrip(Codec codec, MatchDetailDTO match) {
+        Object read = codec.serializer().deserialize(codec.serializer().serialize(match));
+        if (!match.equals(read)) {
+            throw new IllegalStateException(codec.name() + " does not round-trip: " + read);
+        }
+    }
+
+    /**
+     * Maps the synthetic match-v5 payload of {@link RiotMatchParsingBenchmark}
+     * to the DTO the matches cache stores.
+     */
+    private static MatchDetailDTO buildMatchDetail() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        RiotMatchDTO riotMatch = objectMapper.readValue(RiotMatchParsingBenchmark.buildMatchPayload(),
+                RiotMatchDTO.class);
+        return RiotMatchMapper.toMatchDetailDTO(riotMatch, new IDataDragonService() {
+            @Override
+            public void updateChampionDatabase() {
+                // Not used when mapping
+            }
+
+            @Override
+            public int loadChampions() {
+                return 0;
+            }
+
+            @Override
+            public String getChampionNameById(Long championId) {
+                return "Champion" + championId;
+            }
+
+            @Override
+            public String getChampionIconUrl(Long championId) {
+                return "https://ddragon.leagueoflegends.com/cdn/14.21.1/img/champion/Champion" + championId + ".png";
+            }
+
+            @Override
+            public String getProfileIconUrl(Integer profileIconId) {
+                return "https://ddragon.leagueoflegends.com/cdn/14.21.1/img/profileicon/" + profileIconId + ".png";
+            }
+        });
+    }
+}
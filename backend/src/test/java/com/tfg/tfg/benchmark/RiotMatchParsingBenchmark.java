@@ -0,0 +1,180 @@
+package com.tfg.tfg.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.tfg.model.dto.MatchHistoryDTO;
+import com.tfg.tfg.model.dto.riot.RiotMatchDTO;
+import com.tfg.tfg.model.mapper.RiotMatchMapper;
+import com.tfg.tfg.service.riot.RiotMatchStreamParser;
+
+/**
+ * Compares full DTO binding of a match-v5 payload with the streaming
+ * single-participant reader used by history views.
+ *
+ * Reports throughput and bytes allocated per parse (measured with the
+ * per-thread allocation counter of the HotSpot ThreadMXBean). Not a unit test;
+ * run it manually after test-compile:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.tfg.tfg.benchmark.RiotMatchParsingBenchmark
+ * </pre>
+ */
+public class RiotMatchParsingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+    private static final String REQUESTER_PUUID = "puuid-7";
+
+    public static void main(String[] args) throws Exception {
+        byte[] payload = buildMatchPayload();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        System.out.printf(Locale.ROOT, "match-v5 payload: %.1f KB, 10 participants%n", payload.length / 1024.0);
+
+        Parser fullBinding = body -> objectMapper.readValue(body, RiotMatchDTO.class);
+        Parser streaming = body -> RiotMatchStreamParser.parseForParticipant(body, REQUESTER_PUUID);
+
+        checkSameHistoryRow(fullBinding.parse(payload), streaming.parse(payload));
+
+        run("full binding", fullBinding, payload, WARMUP_ITERATIONS);
+        run("streaming", streaming, payload, WARMUP_ITERATIONS);
+
+        Result full = run("full binding", fullBinding, payload, MEASURED_ITERATIONS);
+        Result stream = run("streaming", streaming, payload, MEASURED_ITERATIONS);
+
+        print(full);
+        print(stream);
+        System.out.printf(Locale.ROOT, "allocation per parse: %.1f%% of full binding, throughput x%.2f%n",
+                100.0 * stream.bytesPerOp() / full.bytesPerOp(), stream.opsPerSecond() / full.opsPerSecond());
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        RiotMatchDTO parse(byte[] body) throws Exception;
+    }
+
+    private record Result(String name, double opsPerSecond, double bytesPerOp) {
+    }
+
+    private static Result run(String name, Parser parser, byte[] payload, int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long sink = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            RiotMatchDTO match = parser.parse(payload);
+            sink += match.getInfo().getParticipants().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        if (sink == 0) {
+            throw new IllegalStateException("No participants parsed");
+        }
+        return new Result(name, iterations / (elapsed / 1e9), (double) allocated / iterations);
+    }
+
+    private static void print(Result result) {
+        System.out.printf(Locale.ROOT, "%-13s %10.0f ops/s %12.0f B/op%n",
+                result.name(), result.opsPerSecond(), result.bytesPerOp());
+    }
+
+    private static void checkSameHistoryRow(RiotMatchDTO full, RiotMatchDTO streamed) {
+        MatchHistoryDTO expected = RiotMatchMapper.toMatchHistoryDTO(full, REQUESTER_PUUID, null);
+        MatchHistoryDTO actual = RiotMatchMapper.toMatchHistoryDTO(streamed, REQUESTER_PUUID, null);
+        if (expected == null || !expected.equals(actual)) {
+            throw new IllegalStateException("Streaming parser disagrees with full binding: " + actual);
+        }
+    }
+
+    /**
+     * Builds a synthetic match-v5 payload with the shape and size of a real one:
+     * ten participants with ~130 scalar stats, a challenges object, perks and
+     * per-team objectives.
+     */
+    static byte[] buildMatchPayload() {
+        StringBuilder json = new StringBuilder(64 * 1024);
+        json.append("{\"metadata\":{\"dataVersion\":\"2\",\"matchId\":\"EUW1_7123456789\",\"participants\":[");
+        for (int p = 0; p < 10; p++) {
+            json.append(p == 0 ? "" : ",").append("\"puuid-").append(p).append('"');
+        }
+        json.append("]},\"info\":{\"endOfGameResult\":\"GameComplete\",\"gameCreation\":1700000000000,")
+                .append("\"gameDuration\":1834,\"gameEndTimestamp\":1700001900000,\"gameId\":7123456789,")
+                .append("\"gameMode\":\"CLASSIC\",\"gameName\":\"teambuilder-match-7123456789\",")
+                .append("\"gameStartTimestamp\":1700000060000,\"gameType\":\"MATCHED_GAME\",")
+                .append("\"gameVersion\":\"14.21.627.2736\",\"mapId\":11,\"participants\":[");
+        for (int p = 0; p < 10; p++) {
+            appendParticipant(json, p);
+        }
+        json.append("],\"platformId\":\"EUW1\",\"queueId\":420,\"teams\":[");
+        for (int t = 0; t < 2; t++) {
+            json.append(t == 0 ? "" : ",").append("{\"bans\":[");
+            for (int b = 0; b < 5; b++) {
+                json.append(b == 0 ? "" : ",").append("{\"championId\":").append(100 + b * 7 + t)
+                        .append(",\"pickTurn\":").append(b + 1 + t * 5).append('}');
+            }
+            json.append("],\"objectives\":{");
+            String[] objectives = { "baron", "champion", "dragon", "horde", "inhibitor", "riftHerald", "tower" };
+            for (int o = 0; o < objectives.length; o++) {
+                json.append(o == 0 ? "" : ",").append('"').append(objectives[o])
+                        .append("\":{\"first\":").append(o % 2 == t).append(",\"kills\":").append(o + t).append('}');
+            }
+            json.append("},\"teamId\":").append(100 * (t + 1)).append(",\"win\":").append(t == 0).append('}');
+        }
+        json.append("],\"tournamentCode\":\"\"}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendParticipant(StringBuilder json, int p) {
+        json.append(p == 0 ? "{" : ",{");
+        json.append("\"assists\":").append(3 + p).append(",\"champLevel\":").append(14 + p % 4)
+                .append(",\"championId\":").append(100 + p * 11)
+                .append(",\"championName\":\"Champion").append(p).append('"')
+                .append(",\"deaths\":").append(2 + p % 5)
+                .append(",\"goldEarned\":").append(11000 + p * 731);
+        for (int i = 0; i < 7; i++) {
+            json.append(",\"item").append(i).append("\":").append(3000 + p * 10 + i);
+        }
+        json.append(",\"kills\":").append(p + 1)
+                .append(",\"puuid\":\"puuid-").append(p).append('"')
+                .append(",\"riotIdGameName\":\"Player").append(p).append('"')
+                .append(",\"riotIdTagline\":\"EUW\"")
+                .append(",\"summonerName\":\"Player").append(p).append('"')
+                .append(",\"teamId\":").append(p < 5 ? 100 : 200)
+                .append(",\"teamPosition\":\"").append(new String[] { "TOP", "JUNGLE", "MIDDLE", "BOTTOM", "UTILITY" }[p % 5])
+                .append('"')
+                .append(",\"totalDamageDealtToChampions\":").append(15000 + p * 2113)
+                .append(",\"totalMinionsKilled\":").append(150 + p * 9)
+                .append(",\"visionScore\":").append(20 + p)
+                .append(",\"win\":").append(p < 5);
+
+        // Stats the history view never reads
+        for (int i = 0; i < 110; i++) {
+            json.append(",\"stat").append(i).append("\":").append((p + 1) * (i + 17));
+        }
+        json.append(",\"challenges\":{");
+        for (int i = 0; i < 120; i++) {
+            json.append(i == 0 ? "" : ",").append("\"challenge").append(i).append("\":")
+                    .append(i % 3 == 0 ? String.valueOf((p + 1) * 0.731 * i) : String.valueOf(i * p));
+        }
+        json.append(",\"legendaryItemUsed\":[3031,3094,6672]}");
+        json.append(",\"missions\":{\"playerScore0\":0,\"playerScore1\":0,\"playerScore2\":0}");
+        json.append(",\"perks\":{\"statPerks\":{\"defense\":5011,\"flex\":5008,\"offense\":5005},\"styles\":[");
+        for (int s = 0; s < 2; s++) {
+            json.append(s == 0 ? "" : ",").append("{\"description\":\"")
+                    .append(s == 0 ? "primaryStyle" : "subStyle").append("\",\"selections\":[");
+            for (int sel = 0; sel < (s == 0 ? 4 : 2); sel++) {
+                json.append(sel == 0 ? "" : ",").append("{\"perk\":").append(8000 + sel * 13)
+                        .append(",\"var1\":").append(sel * p).append(",\"var2\":0,\"var3\":0}");
+            }
+            json.append("],\"style\":").append(8000 + s * 200).append('}');
+        }
+        json.append("]}}");
+    }
+}
@@ -0,0 +1,160 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.tfg.tfg.config.cache.CacheRefreshCoordinator;
+import com.tfg.tfg.config.cache.RefreshableValue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CacheRefreshCoordinatorUnitTest {
+
+    private static final String CACHE = "summoners";
+    private static final String KEY = "Player#EUW";
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CACHE);
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testMissIsComputedOnceThenServedFromCache() {
+        CacheRefreshCoordinator coordinator = coordinator(null, 0);
+
+        assertEquals("v1", coordinator.get(CACHE, KEY, TTL, () -> load("v1"), v -> true));
+        assertEquals("v1", coordinator.get(CACHE, KEY, TTL, () -> load("v2"), v -> true));
+
+        assertEquals(1, loads.get());
+        RefreshableValue stored = (RefreshableValue) cacheManager.getCache(CACHE).get(KEY).get();
+        assertEquals("v1", stored.value());
+        assertTrue(stored.expiresAtMillis() > System.currentTimeMillis());
+    }
+
+    @Test
+    void testRejectedValuesAreNotStored() {
+        CacheRefreshCoordinator coordinator = coordinator(null, 0);
+
+        coordinator.get(CACHE, KEY, TTL, () -> load("stale"), v -> false);
+
+        assertNull(cacheManager.getCache(CACHE).get(KEY));
+    }
+
+    @Test
+    void testEntryNearExpiryIsRefreshedEarly() {
+        CacheRefreshCoordinator coordinator = coordinator(null, 1e9);
+        putEntry("old", 100);
+
+        assertEquals("new", coordinator.get(CACHE, KEY, TTL, () -> load("new"), v -> true));
+        assertEquals(1.0, meterRegistry.get("cache.refresh.early").tag("cache", CACHE).counter().count());
+    }
+
+    @Test
+    void testFailedEarlyRefreshKeepsCurrentValue() {
+        CacheRefreshCoordinator coordinator = coordinator(null, 1e9);
+        putEntry("old", 100);
+
+        assertEquals("old", coordinator.get(CACHE, KEY, TTL, () -> {
+            throw new IllegalStateException("Riot down");
+        }, v -> true));
+    }
+
+    @Test
+    void testOtherCallersKeepCurrentValueWhileLockIsHeld() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        CacheRefreshCoordinator coordinator = coordinator(redisTemplate, 1e9);
+        putEntry("old", 100);
+
+        assertEquals("old", coordinator.get(CACHE, KEY, TTL, () -> load("new"), v -> true));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testMissWaitsForLockHolderResult() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        CacheRefreshCoordinator coordinator = coordinator(redisTemplate, 0);
+        CompletableFuture.runAsync(() -> {
+            sleep(100);
+            putEntry("from-holder", TTL.toMillis());
+        });
+
+        assertEquals("from-holder", coordinator.get(CACHE, KEY, TTL, () -> load("mine"), v -> true));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testLockHolderComputesAndReleasesLock() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        CacheRefreshCoordinator coordinator = coordinator(redisTemplate, 0);
+
+        assertEquals("v1", coordinator.get(CACHE, KEY, TTL, () -> load("v1"), v -> true));
+
+        verify(valueOperations).setIfAbsent(eq("lock:summoners::Player#EUW"), anyString(), any(Duration.class));
+        verify(redisTemplate).execute(any(), anyList(), anyString());
+    }
+
+    @Test
+    void testComputesWithoutLockWhenRedisIsDown() {
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("down"));
+        CacheRefreshCoordinator coordinator = coordinator(redisTemplate, 0);
+
+        assertEquals("v1", coordinator.get(CACHE, KEY, TTL, () -> load("v1"), v -> true));
+        assertEquals(1.0, meterRegistry.get("cache.refresh.lock").tag("result", "unavailable").counter().count());
+    }
+
+    private CacheRefreshCoordinator coordinator(StringRedisTemplate template, double beta) {
+        return new CacheRefreshCoordinator(cacheManager, template, null, meterRegistry, beta, 10000, 2000);
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private void putEntry(String value, long expiresInMillis) {
+        Cache cache = cacheManager.getCache(CACHE);
+        cache.put(KEY, new RefreshableValue(value, 50, System.currentTimeMillis() + expiresInMillis));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
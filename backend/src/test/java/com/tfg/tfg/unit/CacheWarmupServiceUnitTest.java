@@ -0,0 +1,135 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Pageable;
+
+import com.tfg.tfg.config.cache.CacheWarmupHealthIndicator;
+import com.tfg.tfg.exception.SummonerNotFoundException;
+import com.tfg.tfg.model.entity.MatchEntity;
+import com.tfg.tfg.model.entity.Summoner;
+import com.tfg.tfg.repository.MatchRepository;
+import com.tfg.tfg.repository.SummonerRepository;
+import com.tfg.tfg.repository.UserModelRepository;
+import com.tfg.tfg.service.CacheWarmupService;
+import com.tfg.tfg.service.interfaces.IDataDragonService;
+import com.tfg.tfg.service.interfaces.IRiotService;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceUnitTest {
+
+    @Mock
+    private SummonerRepository summonerRepository;
+
+    @Mock
+    private UserModelRepository userRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private IDataDragonService dataDragonService;
+
+    @Mock
+    private IRiotService riotService;
+
+    @Test
+    void testWarmsChampionsSummonersAndTheirMatches() {
+        Summoner recent = summoner("puuid-1", "Recent#EUW");
+        Summoner favorite = summoner("puuid-2", "Favorite#EUW");
+        when(dataDragonService.loadChampions()).thenReturn(172);
+        when(summonerRepository.findTop9ByOrderByLastSearchedAtDesc()).thenReturn(List.of(recent));
+        when(userRepository.findFavoriteSummonerPuuids()).thenReturn(List.of("puuid-1", "puuid-2"));
+        when(summonerRepository.findByPuuidIn(List.of("puuid-1", "puuid-2"))).thenReturn(List.of(recent, favorite));
+        when(matchRepository.findRecentMatchesBySummoner(eq(recent), any(Pageable.class)))
+                .thenReturn(List.of(match("EUW1_1"), match("EUW1_2")));
+        when(matchRepository.findRecentMatchesBySummoner(eq(favorite), any(Pageable.class)))
+                .thenReturn(List.of(match("EUW1_2")));
+        CacheWarmupService service = service(true, 60);
+
+        service.warmUp();
+
+        verify(dataDragonService).loadChampions();
+        verify(riotService).warmSummoner("Recent#EUW");
+        verify(riotService).warmSummoner("Favorite#EUW");
+        verify(riotService, never()).getSummonerByName(any());
+        verify(riotService).getMatchDetails("EUW1_1");
+        verify(riotService, times(1)).getMatchDetails("EUW1_2");
+        Map<String, Object> progress = service.getProgress();
+        assertEquals(CacheWarmupService.Phase.COMPLETED, progress.get("phase"));
+        assertEquals(172, progress.get("champions"));
+        assertEquals(2, progress.get("summoners"));
+        assertEquals(2, progress.get("matches"));
+        assertEquals(Status.UP, new CacheWarmupHealthIndicator(service).health().getStatus());
+    }
+
+    @Test
+    void testFailedLookupIsCountedAndSkipped() {
+        Summoner gone = summoner("puuid-1", "Gone#EUW");
+        Summoner kept = summoner("puuid-2", "Kept#EUW");
+        when(summonerRepository.findTop9ByOrderByLastSearchedAtDesc()).thenReturn(List.of(gone, kept));
+        when(riotService.warmSummoner("Gone#EUW")).thenThrow(new SummonerNotFoundException("gone"));
+        CacheWarmupService service = service(true, 60);
+
+        service.warmUp();
+
+        assertEquals(1, service.getProgress().get("summoners"));
+        assertEquals(1, service.getProgress().get("failures"));
+        verify(matchRepository, never()).findRecentMatchesBySummoner(eq(gone), any(Pageable.class));
+        verify(matchRepository).findRecentMatchesBySummoner(eq(kept), any(Pageable.class));
+    }
+
+    @Test
+    void testStopsWhenBudgetIsSpent() {
+        CacheWarmupService service = service(true, 0);
+
+        service.warmUp();
+
+        assertEquals(CacheWarmupService.Phase.TIMED_OUT, service.getProgress().get("phase"));
+        verify(dataDragonService, never()).loadChampions();
+        verifyNoInteractions(riotService);
+        assertFalse(service.isWarmingUp());
+    }
+
+    @Test
+    void testNotReadyUntilWarmedUpAndDisabledSkipsEverything() {
+        CacheWarmupService service = service(false, 60);
+        CacheWarmupHealthIndicator indicator = new CacheWarmupHealthIndicator(service);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        service.warmUp();
+
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(CacheWarmupService.Phase.DISABLED, service.getProgress().get("phase"));
+        verifyNoInteractions(dataDragonService, summonerRepository, riotService);
+    }
+
+    private CacheWarmupService service(boolean enabled, long budgetSeconds) {
+        return new CacheWarmupService(summonerRepository, userRepository, matchRepository,
+                dataDragonService, riotService, enabled, budgetSeconds, 3);
+    }
+
+    private static Summoner summoner(String puuid, String name) {
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+        summoner.setName(name);
+        return summoner;
+    }
+
+    private static MatchEntity match(String matchId) {
+        MatchEntity match = new MatchEntity();
+        match.setMatchId(matchId);
+        return match;
+    }
+}
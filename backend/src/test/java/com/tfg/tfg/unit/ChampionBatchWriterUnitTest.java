@@ -0,0 +1,64 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.tfg.tfg.model.entity.Champion;
+import com.tfg.tfg.service.datadragon.ChampionBatchWriter;
+
+class ChampionBatchWriterUnitTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ChampionBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE champions (id BIGINT PRIMARY KEY, champion_key VARCHAR(255) NOT NULL, "
+                + "name VARCHAR(255) NOT NULL, image_url VARCHAR(255))");
+        writer = new ChampionBatchWriter(jdbcTemplate, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void testInsertsNewChampionsInBatches() {
+        int written = writer.upsert(List.of(
+                new Champion(266L, "Aatrox", "Aatrox", "a.png"),
+                new Champion(103L, "Ahri", "Ahri", "b.png"),
+                new Champion(84L, "Akali", "Akali", "c.png")));
+
+        assertEquals(3, written);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM champions", Integer.class));
+    }
+
+    @Test
+    void testWritesOnlyChangedRows() {
+        writer.upsert(List.of(
+                new Champion(266L, "Aatrox", "Aatrox", "16.8.1/Aatrox.png"),
+                new Champion(103L, "Ahri", "Ahri", "16.8.1/Ahri.png")));
+
+        int written = writer.upsert(List.of(
+                new Champion(266L, "Aatrox", "Aatrox", "16.8.1/Aatrox.png"),
+                new Champion(103L, "Ahri", "Ahri", "16.9.1/Ahri.png")));
+
+        assertEquals(1, written);
+        assertEquals("16.9.1/Ahri.png",
+                jdbcTemplate.queryForObject("SELECT image_url FROM champions WHERE id = 103", String.class));
+        assertEquals(0, writer.upsert(List.of(new Champion(266L, "Aatrox", "Aatrox", "16.8.1/Aatrox.png"))));
+    }
+}
@@ -0,0 +1,47 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tfg.tfg.model.entity.Champion;
+import com.tfg.tfg.service.datadragon.ChampionRegistry;
+
+class ChampionRegistryUnitTest {
+
+    @Test
+    void testLooksUpNameAndIconById() {
+        ChampionRegistry registry = ChampionRegistry.of(List.of(
+                new Champion(266L, "Aatrox", "Aatrox", "aatrox.png"),
+                new Champion(103L, "Ahri", "Ahri", "ahri.png")));
+
+        assertEquals(2, registry.size());
+        assertEquals("Aatrox", registry.name(266));
+        assertEquals("ahri.png", registry.iconUrl(103));
+    }
+
+    @Test
+    void testUnknownIdsReturnNull() {
+        ChampionRegistry registry = ChampionRegistry.of(List.of(new Champion(266L, "Aatrox", "Aatrox", "aatrox.png")));
+
+        assertNull(registry.name(1));
+        assertNull(registry.name(267));
+        assertNull(registry.name(-1));
+        assertNull(registry.iconUrl(Long.MAX_VALUE));
+        assertNull(ChampionRegistry.EMPTY.name(266));
+    }
+
+    @Test
+    void testSkipsChampionsWithoutUsableId() {
+        ChampionRegistry registry = ChampionRegistry.of(List.of(
+                new Champion(null, "None", "None", ""),
+                new Champion(-5L, "Negative", "Negative", ""),
+                new Champion(1L << 20, "Huge", "Huge", ""),
+                new Champion(1L, "Annie", "Annie", "annie.png")));
+
+        assertEquals(1, registry.size());
+        assertEquals("Annie", registry.name(1));
+    }
+}
@@ -60,9 +60,7 @@ class DashboardServiceCoverageTest {
         when(matchService.findRankedMatchesBySummonerOrderByTimestampDesc(s)).thenReturn(List.of(cached));
         when(rankHistoryService.getLpForMatch(1L)).thenReturn(Optional.of(30));
 
-        MatchHistoryDTO apiLatest = new MatchHistoryDTO();
-        apiLatest.setMatchId("m1");
-        when(riotService.getMatchHistory(s.getPuuid(), 0, 1)).thenReturn(List.of(apiLatest));
+        when(riotService.getLatestMatchId(s.getPuuid())).thenReturn(Optional.of("m1"));
 
         when(dataDragonService.getChampionIconUrl(103L)).thenReturn("http://img/ahri.png");
 
@@ -107,7 +105,8 @@ class DashboardServiceCoverageTest {
         older.setGameTimestamp((System.currentTimeMillis()/1000)-3600);
         older.setQueueId(420);
 
-        lenient().when(riotService.getMatchHistory(eq(s.getPuuid()), anyInt(), anyInt())).thenReturn(List.of(newest, older));
+        lenient().when(riotService.getMatchHistory(eq(s.getPuuid()), anyInt(), anyInt(), isNull(), eq(RiotService.MATCH_TYPE_RANKED)))
+                .thenReturn(List.of(newest, older));
 
         lenient().when(matchService.findExistingMatchesByMatchIdsAndSummoner(anyList(), any())).thenReturn(new HashMap<>());
 
@@ -7,6 +7,7 @@ import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -171,7 +172,7 @@ class DashboardServiceUnitTest {
         
         when(matchService.findRankedMatchesBySummonerOrderByTimestampDesc(s)).thenReturn(List.of(m));
 
-        when(riotService.getMatchHistory(eq("puuid"), eq(0), eq(1))).thenReturn(List.of());
+        when(riotService.getLatestMatchId("puuid")).thenReturn(Optional.empty());
         
         List<com.tfg.tfg.model.dto.MatchHistoryDTO> result = dashboardService.getRankedMatchesWithLP(s, null, 0, 1);
         assertEquals(1, result.size());
@@ -195,7 +196,7 @@ class DashboardServiceUnitTest {
         apiMatch.setWin(true);
         apiMatch.setGameTimestamp(System.currentTimeMillis() / 1000);
         
-        when(riotService.getMatchHistory("puuid123", 0, 10)).thenReturn(List.of(apiMatch));
+        when(riotService.getMatchHistory("puuid123", 0, 10, null, RiotService.MATCH_TYPE_RANKED)).thenReturn(List.of(apiMatch));
         when(matchService.findExistingMatchesByMatchIdsAndSummoner(any(), any())).thenReturn(java.util.Map.of());
         when(matchService.saveAll(any())).thenReturn(List.of());
         
@@ -214,7 +215,7 @@ class DashboardServiceUnitTest {
         m1.setQueueId(420);
         
         when(matchService.findRankedMatchesBySummonerAndQueueIdOrderByTimestampDesc(s, 420)).thenReturn(List.of(m1));
-        when(riotService.getMatchHistory("puuid456", 0, 1)).thenReturn(List.of());
+        when(riotService.getLatestMatchId("puuid456")).thenReturn(Optional.empty());
         
         List<com.tfg.tfg.model.dto.MatchHistoryDTO> result = dashboardService.getRankedMatchesWithLP(s, 420, 0, 10);
         assertNotNull(result);
@@ -243,9 +244,7 @@ class DashboardServiceUnitTest {
         MatchEntity cachedMatch = new MatchEntity();
         cachedMatch.setMatchId("OLD_MATCH");
 
-        com.tfg.tfg.model.dto.MatchHistoryDTO newMatch = new com.tfg.tfg.model.dto.MatchHistoryDTO();
-        newMatch.setMatchId("NEW_MATCH");
-        when(riotService.getMatchHistory("test-puuid", 0, 1)).thenReturn(List.of(newMatch));
+        when(riotService.getLatestMatchId("test-puuid")).thenReturn(Optional.of("NEW_MATCH"));
         
         java.lang.reflect.Method method = DashboardService.class.getDeclaredMethod("checkIfCacheNeedsUpdate", List.class, String.class);
         method.setAccessible(true);
@@ -7,6 +7,8 @@ import static org.mockito.Mockito.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestTemplate;
@@ -14,9 +16,11 @@ import org.springframework.web.client.RestTemplate;
 import com.tfg.tfg.model.entity.Champion;
 import com.tfg.tfg.repository.ChampionRepository;
 import com.tfg.tfg.service.DataDragonService;
+import com.tfg.tfg.service.datadragon.ChampionBatchWriter;
 
-import java.lang.reflect.Field;
-import java.util.Optional;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 class DataDragonServiceSimpleUnitTest {
@@ -27,19 +31,115 @@ class DataDragonServiceSimpleUnitTest {
     @Mock
     private ChampionRepository championRepository;
 
+    @Mock
+    private ChampionBatchWriter championBatchWriter;
+
+    @TempDir
+    Path tempDir;
+
     private DataDragonService service;
 
+    private static final String CHAMPIONS_JSON = """
+            {
+                "data": {
+                    "Aatrox": {
+                        "name": "Aatrox",
+                        "key": "266"
+                    },
+                    "Ahri": {
+                        "name": "Ahri",
+                        "key": "103"
+                    }
+                }
+            }
+            """;
+
     @BeforeEach
     void setUp() throws Exception {
-        service = new DataDragonService(championRepository);
+        service = service("");
+    }
 
-        Field restTemplateField = DataDragonService.class.getDeclaredField("restTemplate");
-        restTemplateField.setAccessible(true);
-        restTemplateField.set(service, restTemplate);
+    private DataDragonService service(String pinnedVersion) {
+        return new DataDragonService(championRepository, restTemplate, championBatchWriter, pinnedVersion,
+                tempDir.resolve("champions.json").toString());
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void testUpdateChampionDatabaseSuccess() {
+        when(restTemplate.getForObject(endsWith("/versions.json"), eq(String.class)))
+                .thenReturn("[\"16.9.1\", \"16.8.1\"]");
+        when(restTemplate.getForObject(contains("/cdn/16.9.1/data/en_US/champion.json"), eq(String.class)))
+                .thenReturn(CHAMPIONS_JSON);
+
+        service.updateChampionDatabase();
+
+        ArgumentCaptor<List<Champion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(championBatchWriter).upsert(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        verify(championRepository, never()).save(any(Champion.class));
+        assertEquals("Ahri", service.getChampionNameById(103L));
+        assertTrue(service.getChampionIconUrl(103L).contains("/cdn/16.9.1/img/champion/Ahri.png"));
+        assertTrue(service.getProfileIconUrl(1).contains("/cdn/16.9.1/"));
+    }
+
+    @Test
+    void testUpdateChampionDatabaseSkipsUnchangedVersion() {
+        when(restTemplate.getForObject(endsWith("/versions.json"), eq(String.class))).thenReturn("[\"16.9.1\"]");
+        when(restTemplate.getForObject(contains("/champion.json"), eq(String.class))).thenReturn(CHAMPIONS_JSON);
+        when(championRepository.count()).thenReturn(2L);
+
+        service.updateChampionDatabase();
+        service.updateChampionDatabase();
+
+        verify(restTemplate, times(1)).getForObject(contains("/champion.json"), eq(String.class));
+        verify(championBatchWriter, times(1)).upsert(anyList());
+    }
+
+    @Test
+    void testBootsFromSnapshotWithoutDatabaseOrNetwork() {
+        when(restTemplate.getForObject(endsWith("/versions.json"), eq(String.class))).thenReturn("[\"16.9.1\"]");
+        when(restTemplate.getForObject(contains("/champion.json"), eq(String.class))).thenReturn(CHAMPIONS_JSON);
+        service.updateChampionDatabase();
+        assertTrue(Files.exists(tempDir.resolve("champions.json")));
+        clearInvocations(championRepository, restTemplate);
+
+        DataDragonService restarted = service("");
+
+        assertEquals("Aatrox", restarted.getChampionNameById(266L));
+        assertTrue(restarted.getProfileIconUrl(1).contains("/cdn/16.9.1/"));
+        verifyNoInteractions(championRepository, restTemplate);
+    }
+
+    @Test
+    void testSnapshotDoesNotHideEmptyChampionTable() {
+        when(restTemplate.getForObject(endsWith("/versions.json"), eq(String.class))).thenReturn("[\"16.9.1\"]");
+        when(restTemplate.getForObject(contains("/champion.json"), eq(String.class))).thenReturn(CHAMPIONS_JSON);
+        service.updateChampionDatabase();
+        clearInvocations(championBatchWriter);
+
+        // Same version on disk, but the database was reset
+        when(championRepository.count()).thenReturn(0L);
+        service("").updateChampionDatabase();
+
+        verify(championBatchWriter).upsert(argThat(champions -> champions.size() == 2));
+    }
+
+    @Test
+    void testPinnedVersionIsNotDetected() {
+        when(restTemplate.getForObject(contains("/cdn/15.1.1/data/en_US/champion.json"), eq(String.class)))
+                .thenReturn(CHAMPIONS_JSON);
+
+        service("15.1.1").updateChampionDatabase();
+
+        verify(restTemplate, never()).getForObject(endsWith("/versions.json"), eq(String.class));
+        verify(championBatchWriter).upsert(anyList());
+    }
+
+    @Test
+    void testUpdateChampionDatabaseReplacesRegistry() {
+        when(championRepository.findAll()).thenReturn(List.of(new Champion(266L, "Old", "Old", "old")));
+        assertEquals("Old", service.getChampionNameById(266L));
 
         String mockJson = """
                 {
@@ -47,27 +147,25 @@ class DataDragonServiceSimpleUnitTest {
                         "Aatrox": {
                             "name": "Aatrox",
                             "key": "266"
-                        },
-                        "Ahri": {
-                            "name": "Ahri",
-                            "key": "103"
                         }
                     }
                 }
                 """;
-
         when(restTemplate.getForObject(anyString(), eq(String.class))).thenReturn(mockJson);
 
+        when(restTemplate.getForObject(endsWith("/versions.json"), eq(String.class))).thenReturn("[\"16.9.1\"]");
         service.updateChampionDatabase();
 
-        verify(championRepository, times(2)).save(any(Champion.class));
+        assertEquals("Aatrox", service.getChampionNameById(266L));
+        assertTrue(service.getChampionIconUrl(266L).endsWith("/Aatrox.png"));
+        verify(championRepository, times(1)).findAll();
     }
 
     @Test
     void testGetChampionNameByIdFound() {
 
         Champion champion = new Champion(266L, "Aatrox", "Aatrox", "url");
-        when(championRepository.findById(266L)).thenReturn(Optional.of(champion));
+        when(championRepository.findAll()).thenReturn(List.of(champion));
 
         String name = service.getChampionNameById(266L);
 
@@ -77,7 +175,7 @@ class DataDragonServiceSimpleUnitTest {
     @Test
     void testGetChampionNameByIdNotFound() {
 
-        when(championRepository.findById(999L)).thenReturn(Optional.empty());
+        when(championRepository.findAll()).thenReturn(List.of());
 
         String name = service.getChampionNameById(999L);
 
@@ -94,7 +192,7 @@ class DataDragonServiceSimpleUnitTest {
     void testGetChampionIconUrlFound() {
 
         Champion champion = new Champion(266L, "Aatrox", "Aatrox", "http://example.com/Aatrox.png");
-        when(championRepository.findById(266L)).thenReturn(Optional.of(champion));
+        when(championRepository.findAll()).thenReturn(List.of(champion));
 
         String url = service.getChampionIconUrl(266L);
 
@@ -104,7 +202,7 @@ class DataDragonServiceSimpleUnitTest {
     @Test
     void testGetChampionIconUrlNotFound() {
 
-        when(championRepository.findById(999L)).thenReturn(Optional.empty());
+        when(championRepository.findAll()).thenReturn(List.of());
 
         String url = service.getChampionIconUrl(999L);
 
@@ -131,7 +229,7 @@ class DataDragonServiceSimpleUnitTest {
 
         assertDoesNotThrow(service::updateChampionDatabase);
 
-        verify(championRepository, never()).save(any(Champion.class));
+        verify(championBatchWriter, never()).upsert(anyList());
     }
 
     @Test
@@ -142,6 +240,6 @@ class DataDragonServiceSimpleUnitTest {
 
         assertDoesNotThrow(service::updateChampionDatabase);
 
-        verify(championRepository, never()).save(any(Champion.class));
+        verify(championBatchWriter, never()).upsert(anyList());
     }
 }
@@ -18,7 +18,6 @@ import com.tfg.tfg.repository.MatchRepository;
 import com.tfg.tfg.repository.SummonerRepository;
 import com.tfg.tfg.repository.UserModelRepository;
 import com.tfg.tfg.service.DataInitializer;
-import com.tfg.tfg.service.interfaces.IDataDragonService;
 import com.tfg.tfg.service.interfaces.IStorageService;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,9 +38,6 @@ class DataInitializerUnitTest {
     @Mock
     private MatchRepository matchRepository;
 
-    @Mock
-    private IDataDragonService dataDragonService;
-
     private DataInitializer dataInitializer;
 
     @BeforeEach
@@ -49,8 +45,7 @@ class DataInitializerUnitTest {
         dataInitializer = new DataInitializer(
                 userRepository,
                 passwordEncoder,
-                storageService,
-                dataDragonService);
+                storageService);
     }
 
     @Test
@@ -94,8 +89,6 @@ class DataInitializerUnitTest {
         assertEquals("user@example.com", user.getEmail());
         assertTrue(user.getRols().contains("USER"));
         assertTrue(user.isActive());
-
-        verify(dataDragonService).updateChampionDatabase();
     }
 
     @Test
@@ -0,0 +1,129 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.tfg.tfg.config.cache.CacheStatsEndpoint;
+import com.tfg.tfg.config.cache.InstrumentedCache;
+import com.tfg.tfg.config.cache.InstrumentedCacheManager;
+import com.tfg.tfg.config.cache.MeteredRedisSerializer;
+import com.tfg.tfg.config.cache.TwoLevelCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InstrumentedCacheUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstrumentedCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new InstrumentedCacheManager(new ConcurrentMapCacheManager("champions", "matches"),
+                meterRegistry);
+    }
+
+    @Test
+    void testHitsMissesPutsAndEvictionsAreCountedPerCache() {
+        Cache champions = cacheManager.getCache("champions");
+
+        champions.put(266L, "Aatrox");
+        assertEquals("Aatrox", champions.get(266L, String.class));
+        assertNull(champions.get(1L));
+        champions.evict(266L);
+        cacheManager.getCache("matches").get("EUW1_1");
+
+        assertEquals(1.0, counter("cache.gets", "champions", "hit"));
+        assertEquals(1.0, counter("cache.gets", "champions", "miss"));
+        assertEquals(1.0, counter("cache.gets", "matches", "miss"));
+        assertEquals(1.0, meterRegistry.get("cache.puts").tag("cache", "champions").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "champions").counter().count());
+        assertEquals(2, meterRegistry.get("cache.get.latency").tag("cache", "champions").timer().count());
+        assertEquals(1, meterRegistry.get("cache.put.latency").tag("cache", "champions").timer().count());
+    }
+
+    @Test
+    void testLoaderRunIsAMissAndAPut() {
+        Cache champions = cacheManager.getCache("champions");
+
+        assertEquals("Aatrox", champions.get(266L, () -> "Aatrox"));
+        assertEquals("Aatrox", champions.get(266L, () -> "Other"));
+
+        assertEquals(1.0, counter("cache.gets", "champions", "hit"));
+        assertEquals(1.0, counter("cache.gets", "champions", "miss"));
+        assertEquals(1.0, meterRegistry.get("cache.puts").tag("cache", "champions").counter().count());
+    }
+
+    @Test
+    void testCachesAreWrappedOnce() {
+        Cache champions = cacheManager.getCache("champions");
+
+        assertInstanceOf(InstrumentedCache.class, champions);
+        assertSame(champions, cacheManager.getCache("champions"));
+        assertNull(cacheManager.getCache("unknown"));
+    }
+
+    @Test
+    void testSerializerRecordsPayloadSizes() {
+        MeteredRedisSerializer<String> serializer = new MeteredRedisSerializer<>(new StringRedisSerializer(),
+                "champions", meterRegistry);
+
+        byte[] bytes = serializer.serialize("Aatrox");
+        assertEquals("Aatrox", serializer.deserialize(bytes));
+
+        assertEquals("Aatrox".getBytes(StandardCharsets.UTF_8).length, meterRegistry.get("cache.payload.size")
+                .tags("cache", "champions", "operation", "write").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("cache.payload.size")
+                .tags("cache", "champions", "operation", "read").summary().count());
+    }
+
+    @Test
+    void testEndpointReportsCacheAndL1Stats() {
+        InstrumentedCacheManager twoLevel = new InstrumentedCacheManager(new TwoLevelCacheManager(
+                new ConcurrentMapCacheManager("champions"), 100, Duration.ofMinutes(1), null, "test"),
+                meterRegistry);
+        CacheStatsEndpoint endpoint = new CacheStatsEndpoint(twoLevel, meterRegistry);
+        Cache champions = twoLevel.getCache("champions");
+        champions.put(266L, "Aatrox");
+        champions.get(266L);
+        champions.get(1L);
+
+        Map<String, CacheStatsEndpoint.Stats> stats = endpoint.caches();
+
+        CacheStatsEndpoint.Stats championStats = stats.get("champions");
+        assertEquals(1, championStats.hits());
+        assertEquals(1, championStats.misses());
+        assertEquals(0.5, championStats.hitRatio());
+        assertEquals(1, championStats.puts());
+        assertEquals(2, championStats.get().count());
+        assertEquals(1, championStats.l1().hits());
+        assertEquals(1, championStats.l1().size());
+        assertNull(championStats.l2());
+        assertNull(endpoint.cache("unknown"));
+    }
+
+    @Test
+    void testStatsOfUnknownCacheDoNotCreateIt() {
+        // Creates any cache it is asked for, like a RedisCacheManager that allows it
+        InstrumentedCacheManager dynamic = new InstrumentedCacheManager(new ConcurrentMapCacheManager(),
+                meterRegistry);
+        CacheStatsEndpoint endpoint = new CacheStatsEndpoint(dynamic, meterRegistry);
+
+        assertNull(endpoint.cache("random"));
+        assertTrue(dynamic.getCacheNames().isEmpty());
+        assertNull(meterRegistry.find("cache.gets").tag("cache", "random").counter());
+    }
+
+    private double counter(String name, String cache, String result) {
+        return meterRegistry.get(name).tags("cache", cache, "result", result).counter().count();
+    }
+}
@@ -0,0 +1,89 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.tfg.tfg.model.entity.MatchArchive;
+import com.tfg.tfg.repository.MatchArchiveRepository;
+import com.tfg.tfg.service.MatchArchiveService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MatchArchiveServiceUnitTest {
+
+    @Mock
+    private MatchArchiveRepository matchArchiveRepository;
+
+    private MatchArchiveService matchArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        matchArchiveService = new MatchArchiveService(matchArchiveRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testArchiveCompressesAndRoundTrips() {
+        byte[] payload = "{\"metadata\":{\"matchId\":\"EUW1_1\"},\"info\":{}}".repeat(50)
+                .getBytes(StandardCharsets.UTF_8);
+        when(matchArchiveRepository.existsById("EUW1_1")).thenReturn(false);
+
+        matchArchiveService.archive("EUW1_1", payload);
+
+        ArgumentCaptor<MatchArchive> saved = ArgumentCaptor.forClass(MatchArchive.class);
+        verify(matchArchiveRepository).save(saved.capture());
+        assertEquals("EUW1_1", saved.getValue().getMatchId());
+        assertEquals(payload.length, saved.getValue().getRawSize());
+        assertTrue(saved.getValue().getPayload().length < payload.length);
+
+        when(matchArchiveRepository.findById("EUW1_1")).thenReturn(Optional.of(saved.getValue()));
+        assertArrayEquals(payload, matchArchiveService.findPayload("EUW1_1").orElseThrow());
+    }
+
+    @Test
+    void testArchiveSkipsKnownMatch() {
+        when(matchArchiveRepository.existsById("EUW1_1")).thenReturn(true);
+
+        matchArchiveService.archive("EUW1_1", new byte[] { 1 });
+
+        verify(matchArchiveRepository, never()).save(any());
+    }
+
+    @Test
+    void testArchiveIgnoresEmptyPayload() {
+        matchArchiveService.archive("EUW1_1", null);
+        matchArchiveService.archive("EUW1_1", new byte[0]);
+
+        verifyNoInteractions(matchArchiveRepository);
+    }
+
+    @Test
+    void testArchiveSwallowsConcurrentInsert() {
+        when(matchArchiveRepository.existsById("EUW1_1")).thenReturn(false);
+        when(matchArchiveRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertDoesNotThrow(() -> matchArchiveService.archive("EUW1_1", new byte[] { 1, 2, 3 }));
+    }
+
+    @Test
+    void testFindPayloadMissingOrCorrupt() {
+        when(matchArchiveRepository.findById("EUW1_MISSING")).thenReturn(Optional.empty());
+        when(matchArchiveRepository.findById("EUW1_CORRUPT"))
+                .thenReturn(Optional.of(new MatchArchive("EUW1_CORRUPT", new byte[] { 1, 2, 3 }, 3)));
+
+        assertTrue(matchArchiveService.findPayload("EUW1_MISSING").isEmpty());
+        assertTrue(matchArchiveService.findPayload("EUW1_CORRUPT").isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tfg.tfg.service.riot.MatchFreshnessTracker;
+import com.tfg.tfg.service.riot.MatchFreshnessTracker.Freshness;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MatchFreshnessTrackerUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MatchFreshnessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new MatchFreshnessTracker(120, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.shutdown();
+    }
+
+    @Test
+    void testUnknownUntilChecked() {
+        assertEquals(Freshness.UNKNOWN, tracker.check("puuid", "EUW1_1"));
+        assertTrue(tracker.getNewestMatchId("puuid").isEmpty());
+    }
+
+    @Test
+    void testFreshWhenDatabaseHoldsNewestMatch() {
+        tracker.recordCheck("puuid", "EUW1_2");
+
+        assertEquals(Freshness.FRESH, tracker.check("puuid", "EUW1_2"));
+        assertEquals("EUW1_2", tracker.getNewestMatchId("puuid").orElseThrow());
+        assertEquals(1.0, meterRegistry.get("riot.freshness.checks").tag("result", "fresh").counter().count());
+    }
+
+    @Test
+    void testOutdatedWhenRiotKnowsNewerMatch() {
+        tracker.recordCheck("puuid", "EUW1_2");
+
+        assertEquals(Freshness.OUTDATED, tracker.check("puuid", "EUW1_1"));
+    }
+
+    @Test
+    void testStaleOutsideWindow() {
+        MatchFreshnessTracker noWindow = new MatchFreshnessTracker(0, 1, meterRegistry);
+        try {
+            noWindow.recordCheck("puuid", "EUW1_2");
+            sleepQuietly(5);
+
+            assertEquals(Freshness.STALE, noWindow.check("puuid", "EUW1_2"));
+            assertTrue(noWindow.getNewestMatchId("puuid").isEmpty());
+        } finally {
+            noWindow.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidateForgetsRecord() {
+        tracker.recordCheck("puuid", "EUW1_2");
+        tracker.invalidate("puuid");
+
+        assertEquals(Freshness.UNKNOWN, tracker.check("puuid", "EUW1_2"));
+    }
+
+    @Test
+    void testOnlyOneRefreshPerSummonerAtATime() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(tracker.scheduleRefresh("puuid", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertFalse(tracker.scheduleRefresh("puuid", runs::incrementAndGet));
+
+        release.countDown();
+        CountDownLatch second = new CountDownLatch(1);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!tracker.scheduleRefresh("puuid", second::countDown) && System.currentTimeMillis() < deadline) {
+            sleepQuietly(5);
+        }
+        assertTrue(second.await(2, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testFailingRefreshReleasesSummoner() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        tracker.scheduleRefresh("puuid", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!tracker.scheduleRefresh("puuid", done::countDown) && System.currentTimeMillis() < deadline) {
+            sleepQuietly(5);
+        }
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
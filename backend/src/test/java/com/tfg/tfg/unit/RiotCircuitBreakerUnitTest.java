@@ -0,0 +1,178 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tfg.tfg.service.riot.RiotCircuitBreaker;
+import com.tfg.tfg.service.riot.RiotCircuitBreaker.State;
+import com.tfg.tfg.service.riot.RiotPriority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RiotCircuitBreakerUnitTest {
+
+    private static final String HOST = "euw1.api.riotgames.com";
+    private static final String OTHER_HOST = "europe.api.riotgames.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiotCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new RiotCircuitBreaker(10, 4, 0.5, 60, 2, 1000, 60_000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.shutdown();
+    }
+
+    @Test
+    void testOpensOnceFailureRateReachesThreshold() {
+        circuitBreaker.onResult(HOST, true);
+        circuitBreaker.onResult(HOST, false);
+        circuitBreaker.onResult(HOST, false);
+        assertEquals(State.CLOSED, circuitBreaker.getState(HOST));
+
+        circuitBreaker.onResult(HOST, true);
+
+        assertTrue(circuitBreaker.isOpen(HOST));
+        assertFalse(circuitBreaker.tryAcquire(HOST));
+        assertTrue(circuitBreaker.tryAcquire(OTHER_HOST));
+        assertEquals(1.0, meterRegistry.get("riot.circuit.rejected").tag("host", HOST).counter().count());
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheWindow() {
+        RiotCircuitBreaker small = new RiotCircuitBreaker(4, 4, 0.5, 60, 1, 1000, 60_000, meterRegistry);
+        small.onResult(HOST, false);
+        for (int i = 0; i < 6; i++) {
+            small.onResult(HOST, true);
+        }
+        small.onResult(HOST, false);
+
+        assertEquals(State.CLOSED, small.getState(HOST));
+        small.shutdown();
+    }
+
+    @Test
+    void testHalfOpenClosesAfterSuccessfulTrials() throws InterruptedException {
+        RiotCircuitBreaker quick = tripped(new RiotCircuitBreaker(4, 2, 0.5, 0, 2, 1000, 60_000, meterRegistry));
+        awaitState(quick, State.HALF_OPEN);
+
+        assertTrue(quick.tryAcquire(HOST));
+        assertTrue(quick.tryAcquire(HOST));
+        assertFalse(quick.tryAcquire(HOST));
+        quick.onResult(HOST, true);
+        quick.onResult(HOST, true);
+
+        assertEquals(State.CLOSED, quick.getState(HOST));
+        assertTrue(quick.tryAcquire(HOST));
+        quick.shutdown();
+    }
+
+    @Test
+    void testReleasedTrialPermitCanBeReused() throws InterruptedException {
+        RiotCircuitBreaker quick = tripped(new RiotCircuitBreaker(4, 2, 0.5, 0, 1, 1000, 60_000, meterRegistry));
+        awaitState(quick, State.HALF_OPEN);
+
+        assertTrue(quick.tryAcquire(HOST));
+        quick.release(HOST);
+
+        assertTrue(quick.tryAcquire(HOST));
+        quick.shutdown();
+    }
+
+    @Test
+    void testFailedTrialOpensAgain() throws InterruptedException {
+        RiotCircuitBreaker slowToRecover = new RiotCircuitBreaker(4, 2, 0.5, 0, 2, 1000, 60_000, meterRegistry);
+        tripped(slowToRecover);
+        awaitState(slowToRecover, State.HALF_OPEN);
+
+        assertTrue(slowToRecover.tryAcquire(HOST));
+        slowToRecover.onResult(HOST, false);
+
+        assertNotEquals(State.CLOSED, slowToRecover.getState(HOST));
+        assertEquals(2.0, meterRegistry.get("riot.circuit.transitions").tags("host", HOST, "to", "open")
+                .counter().count());
+        slowToRecover.shutdown();
+    }
+
+    @Test
+    void testRevalidationWaitsForHalfOpenAndRunsInPrefetchLane() throws InterruptedException {
+        RiotCircuitBreaker quick = new RiotCircuitBreaker(4, 2, 0.5, 1, 2, 1000, 60_000, meterRegistry);
+        tripped(quick);
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicReference<RiotPriority> lane = new AtomicReference<>();
+
+        assertTrue(quick.scheduleRevalidation("summoner:Player#EUW", () -> {
+            lane.set(RiotPriority.current());
+            ran.countDown();
+            return true;
+        }));
+        assertFalse(quick.scheduleRevalidation("summoner:Player#EUW", () -> true));
+        assertEquals(1, quick.getPendingRevalidations());
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertEquals(RiotPriority.PREFETCH, lane.get());
+        assertEquals(0, quick.getPendingRevalidations());
+        quick.shutdown();
+    }
+
+    @Test
+    void testRevalidationRunsRightAwayWhenNoCircuitIsOpen() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+
+        circuitBreaker.scheduleRevalidation("summoner:Player#EUW", () -> {
+            ran.countDown();
+            return true;
+        });
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailingRevalidationBacksOff() throws InterruptedException {
+        RiotCircuitBreaker backingOff = new RiotCircuitBreaker(10, 4, 0.5, 60, 2, 200, 60_000, meterRegistry);
+        AtomicInteger runs = new AtomicInteger();
+        // Worst case: a caller that queues the revalidation again every time it fails
+        BooleanSupplier[] failing = new BooleanSupplier[1];
+        failing[0] = () -> {
+            runs.incrementAndGet();
+            backingOff.scheduleRevalidation("summoner:Player#EUW", failing[0]);
+            return false;
+        };
+
+        backingOff.scheduleRevalidation("summoner:Player#EUW", failing[0]);
+        Thread.sleep(1000);
+
+        // Runs at about 0, 200 and 600 ms, the next one only at 1400 ms
+        assertTrue(runs.get() >= 2, "runs: " + runs.get());
+        assertTrue(runs.get() <= 4, "runs: " + runs.get());
+        backingOff.shutdown();
+    }
+
+    private static RiotCircuitBreaker tripped(RiotCircuitBreaker breaker) {
+        breaker.onResult(HOST, false);
+        breaker.onResult(HOST, false);
+        return breaker;
+    }
+
+    private static void awaitState(RiotCircuitBreaker breaker, State expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (breaker.getState(HOST) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, breaker.getState(HOST));
+    }
+}
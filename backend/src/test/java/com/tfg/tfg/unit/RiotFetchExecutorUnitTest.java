@@ -0,0 +1,158 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tfg.tfg.service.riot.RiotFetchExecutor;
+import com.tfg.tfg.service.riot.RiotPriority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RiotFetchExecutorUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiotFetchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new RiotFetchExecutor(3, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testFetchAllKeepsInputOrder() {
+        List<String> keys = List.of("EUW1_1", "EUW1_2", "EUW1_3", "EUW1_4", "EUW1_5");
+
+        List<String> results = executor.fetchAll(keys, key -> {
+            sleepQuietly(50L - Long.parseLong(key.substring(5)) * 10);
+            return key.toLowerCase();
+        });
+
+        assertEquals(List.of("euw1_1", "euw1_2", "euw1_3", "euw1_4", "euw1_5"), results);
+    }
+
+    @Test
+    void testFetchAllReturnsNullForFailedKeys() {
+        List<String> results = executor.fetchAll(List.of("ok", "boom", "ok2"), key -> {
+            if ("boom".equals(key)) {
+                throw new IllegalStateException("Riot unavailable");
+            }
+            return key;
+        });
+
+        assertEquals(3, results.size());
+        assertEquals("ok", results.get(0));
+        assertNull(results.get(1));
+        assertEquals("ok2", results.get(2));
+    }
+
+    @Test
+    void testFetchAllRunsRequestsConcurrently() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        List<Boolean> results = executor.fetchAll(List.of(1, 2, 3), key -> {
+            allStarted.countDown();
+            try {
+                return allStarted.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+
+        assertEquals(List.of(true, true, true), results);
+    }
+
+    @Test
+    void testFetchAllNeverExceedsParallelism() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        executor.fetchAll(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9), key -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            sleepQuietly(20);
+            inFlight.decrementAndGet();
+            return key;
+        });
+
+        assertTrue(maxInFlight.get() <= executor.getParallelism());
+    }
+
+    @Test
+    void testFetchAllRecordsBatchMetrics() {
+        executor.fetchAll(List.of("a", "b"), key -> key);
+
+        assertEquals(1, meterRegistry.get("riot.fetch.batch").timer().count());
+        assertEquals(2.0, meterRegistry.get("riot.fetch.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void testFetchAllEmptyKeys() {
+        assertTrue(executor.fetchAll(List.<String>of(), key -> key).isEmpty());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testInteractiveCallsDoNotWaitBehindBlockedPrefetchTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> blocked = RiotPriority.PREFETCH.call(() -> List.of(
+                executor.submit(() -> awaitQuietly(release), 0),
+                executor.submit(() -> awaitQuietly(release), 0),
+                executor.submit(() -> awaitQuietly(release), 0)));
+
+        String interactive = executor.submit(() -> "served", 1000).get(2, TimeUnit.SECONDS);
+        List<Integer> page = executor.fetchAll(List.of(1, 2, 3, 4), key -> key);
+
+        assertEquals("served", interactive);
+        assertEquals(List.of(1, 2, 3, 4), page);
+        assertTrue(blocked.stream().noneMatch(CompletableFuture::isDone));
+        release.countDown();
+        for (CompletableFuture<Boolean> future : blocked) {
+            assertTrue(future.get(2, TimeUnit.SECONDS));
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Test
+    void testTasksRunInSubmitterPriorityLane() throws Exception {
+        List<RiotPriority> lanes = RiotPriority.PREFETCH.call(
+                () -> executor.fetchAll(List.of(1, 2, 3), key -> RiotPriority.current()));
+        RiotPriority submitted = RiotPriority.BULK.call(
+                () -> executor.submit(RiotPriority::current, 1000)).get(2, TimeUnit.SECONDS);
+
+        assertEquals(List.of(RiotPriority.PREFETCH, RiotPriority.PREFETCH, RiotPriority.PREFETCH), lanes);
+        assertEquals(RiotPriority.BULK, submitted);
+        assertEquals(RiotPriority.INTERACTIVE, RiotPriority.current());
+        assertEquals(RiotPriority.INTERACTIVE, executor.submit(RiotPriority::current, 1000).get(2, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,112 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.tfg.tfg.model.entity.Summoner;
+import com.tfg.tfg.repository.SummonerRepository;
+import com.tfg.tfg.service.riot.RiotIdResolver;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RiotIdResolverUnitTest {
+
+    @Mock
+    private SummonerRepository summonerRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiotIdResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resolver = new RiotIdResolver(summonerRepository, new ConcurrentMapCacheManager(RiotIdResolver.RIOT_IDS_CACHE,
+                RiotIdResolver.UNKNOWN_RIOT_IDS_CACHE), meterRegistry, 168);
+    }
+
+    @Test
+    void testNormalizeIgnoresCaseAndBlanks() {
+        assertEquals("faker#kr1", RiotIdResolver.normalize(" Faker # KR1 "));
+        assertEquals(RiotIdResolver.normalize("Player#EUW"), RiotIdResolver.normalize("player#euw"));
+    }
+
+    @Test
+    void testRememberedResolutionIsCaseInsensitive() {
+        resolver.remember("Player#EUW", "puuid-1");
+
+        assertEquals(Optional.of("puuid-1"), resolver.resolve("PLAYER#euw"));
+        verifyNoInteractions(summonerRepository);
+        assertEquals(1.0, meterRegistry.get("riot.account.resolutions").tag("source", "cache").counter().count());
+    }
+
+    @Test
+    void testFallsBackToRecentlyStoredSummonerAndCachesIt() {
+        when(summonerRepository.findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc("Player#EUW"))
+                .thenReturn(Optional.of(stored("puuid-1", LocalDateTime.now().minusHours(2))));
+
+        assertEquals(Optional.of("puuid-1"), resolver.resolve("Player#EUW"));
+        assertEquals(Optional.of("puuid-1"), resolver.resolve("player#EUW"));
+        verify(summonerRepository, times(1)).findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc(anyString());
+    }
+
+    @Test
+    void testIgnoresStoredSummonerOlderThanTtl() {
+        when(summonerRepository.findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc("Player#EUW"))
+                .thenReturn(Optional.of(stored("puuid-1", LocalDateTime.now().minusDays(30))));
+
+        assertTrue(resolver.resolve("Player#EUW").isEmpty());
+        assertEquals(1.0, meterRegistry.get("riot.account.resolutions").tag("source", "miss").counter().count());
+    }
+
+    @Test
+    void testForgetDropsResolution() {
+        resolver.remember("Player#EUW", "puuid-1");
+
+        resolver.forget("player#euw");
+
+        assertTrue(resolver.resolve("Player#EUW").isEmpty());
+    }
+
+    @Test
+    void testUnknownRiotIdIsRememberedSeparately() {
+        assertFalse(resolver.isKnownMissing("Nobody#EUW"));
+
+        resolver.rememberMissing("Nobody#EUW");
+
+        assertTrue(resolver.isKnownMissing("nobody # euw"));
+        assertTrue(resolver.isKnownMissing("NOBODY#EUW"));
+        assertEquals(2.0, meterRegistry.get("riot.account.not-found").tag("result", "hit").counter().count());
+        when(summonerRepository.findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc("Nobody#EUW"))
+                .thenReturn(Optional.empty());
+        assertTrue(resolver.resolve("Nobody#EUW").isEmpty());
+    }
+
+    @Test
+    void testResolvedRiotIdIsNoLongerMissing() {
+        resolver.rememberMissing("Player#EUW");
+
+        resolver.remember("Player#EUW", "puuid-1");
+
+        assertFalse(resolver.isKnownMissing("Player#EUW"));
+    }
+
+    private static Summoner stored(String puuid, LocalDateTime lastSearchedAt) {
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+        summoner.setName("Player#EUW");
+        summoner.setLastSearchedAt(lastSearchedAt);
+        return summoner;
+    }
+}
@@ -0,0 +1,151 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tfg.tfg.model.dto.MatchHistoryDTO;
+import com.tfg.tfg.model.dto.riot.RiotMatchDTO;
+import com.tfg.tfg.model.mapper.RiotMatchMapper;
+import com.tfg.tfg.service.riot.RiotMatchStreamParser;
+
+class RiotMatchStreamParserUnitTest {
+
+    private static final String MATCH_JSON = """
+            {
+              "metadata": {
+                "dataVersion": "2",
+                "matchId": "EUW1_7000000001",
+                "participants": ["puuid-a", "puuid-b"]
+              },
+              "info": {
+                "endOfGameResult": "GameComplete",
+                "gameCreation": 1700000000000,
+                "gameDuration": 1834,
+                "gameEndTimestamp": 1700001900000,
+                "gameId": 7000000001,
+                "gameMode": "CLASSIC",
+                "gameType": "MATCHED_GAME",
+                "gameVersion": "14.1.555.5555",
+                "participants": [
+                  {
+                    "allInPings": 1,
+                    "assists": 3,
+                    "challenges": {"kda": 2.5, "legendaryItemUsed": [3031, 3094]},
+                    "champLevel": 15,
+                    "championId": 222,
+                    "championName": "Jinx",
+                    "deaths": 4,
+                    "goldEarned": 13000,
+                    "item0": 3031,
+                    "kills": 7,
+                    "perks": {"styles": [{"selections": [{"perk": 8008}]}]},
+                    "puuid": "puuid-a",
+                    "teamId": 100,
+                    "teamPosition": "BOTTOM",
+                    "win": false
+                  },
+                  {
+                    "assists": 11,
+                    "challenges": {"kda": 6.0},
+                    "champLevel": 17,
+                    "championId": 103,
+                    "championName": "Ahri",
+                    "deaths": 2,
+                    "goldEarned": 15400,
+                    "item0": 6655,
+                    "item6": 3363,
+                    "kills": 9,
+                    "perks": {"styles": []},
+                    "puuid": "puuid-b",
+                    "riotIdGameName": "Player",
+                    "riotIdTagline": "EUW",
+                    "summonerName": "Player",
+                    "teamId": 200,
+                    "teamPosition": "MIDDLE",
+                    "totalDamageDealtToChampions": 31000,
+                    "totalMinionsKilled": 210,
+                    "visionScore": 25,
+                    "win": true
+                  }
+                ],
+                "queueId": 420,
+                "teams": [{"teamId": 100, "win": false, "bans": [], "objectives": {"baron": {"first": false, "kills": 0}}}]
+              }
+            }
+            """;
+
+    @Test
+    void testKeepsOnlyRequestingParticipant() throws Exception {
+        RiotMatchDTO match = parse("puuid-b");
+
+        assertEquals("EUW1_7000000001", match.getMetadata().getMatchId());
+        assertEquals(java.util.List.of("puuid-a", "puuid-b"), match.getMetadata().getParticipants());
+        assertEquals(1700000000000L, match.getInfo().getGameCreation());
+        assertEquals(1834L, match.getInfo().getGameDuration());
+        assertEquals(420, match.getInfo().getQueueId());
+        assertEquals("CLASSIC", match.getInfo().getGameMode());
+        assertNull(match.getInfo().getTeams());
+        assertEquals(1, match.getInfo().getParticipants().size());
+
+        RiotMatchDTO.ParticipantDTO participant = match.getInfo().getParticipants().get(0);
+        assertEquals("puuid-b", participant.getPuuid());
+        assertEquals("Ahri", participant.getChampionName());
+        assertEquals(103, participant.getChampionId());
+        assertEquals(9, participant.getKills());
+        assertEquals(31000, participant.getTotalDamageDealtToChampions());
+        assertEquals(3363, participant.getItem6());
+        assertNull(participant.getItem1());
+        assertTrue(participant.getWin());
+    }
+
+    @Test
+    void testMatchesFullBindingForHistoryRow() throws Exception {
+        RiotMatchDTO full = new ObjectMapper().readValue(MATCH_JSON, RiotMatchDTO.class);
+        RiotMatchDTO streamed = parse("puuid-a");
+
+        MatchHistoryDTO expected = RiotMatchMapper.toMatchHistoryDTO(full, "puuid-a", null);
+        MatchHistoryDTO actual = RiotMatchMapper.toMatchHistoryDTO(streamed, "puuid-a", null);
+
+        assertEquals(expected, actual);
+        assertEquals(full.getInfo().getParticipants().get(0), streamed.getInfo().getParticipants().get(0));
+    }
+
+    @Test
+    void testKeepsEveryRequestedParticipantInPayloadOrder() throws Exception {
+        RiotMatchDTO match = RiotMatchStreamParser.parseForParticipants(
+                MATCH_JSON.getBytes(StandardCharsets.UTF_8), java.util.Set.of("puuid-b", "puuid-a", "missing"));
+
+        assertEquals(2, match.getInfo().getParticipants().size());
+        assertEquals("Jinx", match.getInfo().getParticipants().get(0).getChampionName());
+        assertEquals("Ahri", match.getInfo().getParticipants().get(1).getChampionName());
+    }
+
+    @Test
+    void testUnknownParticipantYieldsEmptyList() throws Exception {
+        RiotMatchDTO match = parse("someone-else");
+
+        assertTrue(match.getInfo().getParticipants().isEmpty());
+        assertNull(RiotMatchMapper.toMatchHistoryDTO(match, "someone-else", null));
+    }
+
+    @Test
+    void testEmptyBodyReturnsNull() throws Exception {
+        assertNull(RiotMatchStreamParser.parseForParticipant(new byte[0], "puuid-a"));
+        assertNull(RiotMatchStreamParser.parseForParticipant(null, "puuid-a"));
+    }
+
+    @Test
+    void testMalformedPayloadThrows() {
+        byte[] body = "{\"info\": {\"participants\": [".getBytes(StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class, () -> RiotMatchStreamParser.parseForParticipant(body, "puuid-a"));
+    }
+
+    private RiotMatchDTO parse(String puuid) throws Exception {
+        return RiotMatchStreamParser.parseForParticipant(MATCH_JSON.getBytes(StandardCharsets.UTF_8), puuid);
+    }
+}
@@ -0,0 +1,114 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.tfg.tfg.exception.RiotApiException;
+import com.tfg.tfg.service.riot.RiotCircuitBreaker;
+import com.tfg.tfg.service.riot.RiotRateLimitInterceptor;
+import com.tfg.tfg.service.riot.RiotRateLimiter;
+import com.tfg.tfg.service.riot.RiotRetryPolicy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RiotRateLimitInterceptorUnitTest {
+
+    private static final String HOST = "europe.api.riotgames.com";
+
+    private RiotRateLimiter rateLimiter;
+    private RiotCircuitBreaker circuitBreaker;
+    private RiotRateLimitInterceptor interceptor;
+    private MockClientHttpRequest request;
+    private ClientHttpRequestExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RiotRateLimiter("20:1,100:120", 5000, 0.3, 0.5, meterRegistry);
+        circuitBreaker = new RiotCircuitBreaker(4, 2, 0.5, 60, 1, 1000, 60_000, meterRegistry);
+        interceptor = new RiotRateLimitInterceptor(rateLimiter,
+                new RiotRetryPolicy(3, 1, 5, 10000, 0.1, 10, meterRegistry), circuitBreaker);
+        request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://" + HOST + "/lol/match/v5/matches/EUW1_1"));
+        execution = mock(ClientHttpRequestExecution.class);
+    }
+
+    @Test
+    void testRetriesTransientStatusAndReacquiresBudget() throws Exception {
+        MockClientHttpResponse unavailable = new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE);
+        MockClientHttpResponse ok = new MockClientHttpResponse("{}".getBytes(), HttpStatus.OK);
+        when(execution.execute(any(), any())).thenReturn(unavailable, ok);
+
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+        assertSame(ok, response);
+        verify(execution, times(2)).execute(any(), any());
+        assertEquals(18.0, rateLimiter.getRemainingBudget(HOST, "/lol/match/v5/matches/{}"), 0.5);
+    }
+
+    @Test
+    void testRetriesIoErrorsThenRethrows() throws Exception {
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("Read timed out"));
+
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        verify(execution, times(3)).execute(any(), any());
+    }
+
+    @Test
+    void testReturnsFinalErrorResponseWhenAttemptsRunOut() throws IOException {
+        MockClientHttpResponse serverError = new MockClientHttpResponse(new byte[0], HttpStatus.INTERNAL_SERVER_ERROR);
+        when(execution.execute(any(), any())).thenReturn(serverError);
+
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+        assertEquals(500, response.getStatusCode().value());
+        verify(execution, times(3)).execute(any(), any());
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND));
+
+        assertEquals(404, interceptor.intercept(request, new byte[0], execution).getStatusCode().value());
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void testFailsFastOnceCircuitOpens() throws IOException {
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("Read timed out"));
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        clearInvocations(execution);
+
+        RiotApiException exception = assertThrows(RiotApiException.class,
+                () -> interceptor.intercept(request, new byte[0], execution));
+
+        assertTrue(circuitBreaker.isOpen(HOST));
+        assertTrue(exception.getMessage().contains("circuit open"));
+        verifyNoInteractions(execution);
+    }
+
+    @Test
+    void testClientErrorsDoNotOpenCircuit() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.FORBIDDEN));
+
+        for (int i = 0; i < 4; i++) {
+            interceptor.intercept(request, new byte[0], execution);
+        }
+
+        assertEquals(RiotCircuitBreaker.State.CLOSED, circuitBreaker.getState(HOST));
+    }
+}
@@ -0,0 +1,173 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.tfg.tfg.exception.RiotApiException;
+import com.tfg.tfg.service.riot.RiotPriority;
+import com.tfg.tfg.service.riot.RiotRateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RiotRateLimiterUnitTest {
+
+    private static final String HOST = "europe.api.riotgames.com";
+    private static final String MATCH_METHOD = "/lol/match/v5/matches/{}";
+    private static final String MATCH_IDS_METHOD = "/lol/match/v5/matches/by-puuid/{}/ids";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiotRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RiotRateLimiter("20:1,100:120", 5000, 0.3, 0.5, meterRegistry);
+    }
+
+    @Test
+    void testMethodKeyReplacesPathVariables() {
+        assertEquals("/lol/match/v5/matches/{}", RiotRateLimiter.methodKey("/lol/match/v5/matches/EUW1_7412589630"));
+        assertEquals("/lol/match/v5/matches/by-puuid/{}/ids",
+                RiotRateLimiter.methodKey("/lol/match/v5/matches/by-puuid/abc-DEF_123/ids"));
+        assertEquals("/riot/account/v1/accounts/by-riot-id/{}/{}",
+                RiotRateLimiter.methodKey("/riot/account/v1/accounts/by-riot-id/faker/kr1"));
+        assertEquals("/lol/champion-mastery/v4/champion-masteries/by-puuid/{}/top",
+                RiotRateLimiter.methodKey("/lol/champion-mastery/v4/champion-masteries/by-puuid/XyZ/top"));
+    }
+
+    @Test
+    void testDefaultAppLimitsApplyToRiotHosts() {
+        rateLimiter.acquire(HOST, MATCH_METHOD);
+
+        assertEquals(19.0, rateLimiter.getRemainingBudget(HOST, MATCH_METHOD), 0.5);
+    }
+
+    @Test
+    void testNonRiotHostsAreUnlimitedUntilHeadersSeen() {
+        rateLimiter.acquire("ddragon.leagueoflegends.com", "/cdn/{}");
+
+        assertTrue(Double.isInfinite(rateLimiter.getRemainingBudget("ddragon.leagueoflegends.com", "/cdn/{}")));
+    }
+
+    @Test
+    void testLearnsMethodLimitFromHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(RiotRateLimiter.METHOD_LIMIT_HEADER, "5:10");
+        headers.add(RiotRateLimiter.METHOD_COUNT_HEADER, "3:10");
+
+        rateLimiter.onResponse(HOST, MATCH_METHOD, 200, headers);
+
+        assertEquals(2.0, rateLimiter.getRemainingBudget(HOST, MATCH_METHOD), 0.01);
+    }
+
+    @Test
+    void testAcquireQueuesCallerUntilTokenRefills() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(RiotRateLimiter.METHOD_LIMIT_HEADER, "2:1");
+        headers.add(RiotRateLimiter.METHOD_COUNT_HEADER, "2:1");
+        rateLimiter.onResponse(HOST, MATCH_METHOD, 200, headers);
+
+        long start = System.currentTimeMillis();
+        rateLimiter.acquire(HOST, MATCH_METHOD);
+        long waited = System.currentTimeMillis() - start;
+
+        assertTrue(waited >= 300, "caller should have been queued, waited " + waited + " ms");
+        assertEquals(1, meterRegistry.get("riot.ratelimit.wait").tag("priority", "interactive").timer().count());
+        assertEquals(0, rateLimiter.getQueueDepth());
+    }
+
+    @Test
+    void testRetryAfterBlocksScope() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "1");
+        headers.add(RiotRateLimiter.LIMIT_TYPE_HEADER, "method");
+
+        rateLimiter.onResponse(HOST, MATCH_METHOD, 429, headers);
+
+        assertEquals(0.0, rateLimiter.getRemainingBudget(HOST, MATCH_METHOD));
+        assertEquals(1.0, meterRegistry.get("riot.ratelimit.throttled").counter().count());
+
+        long start = System.currentTimeMillis();
+        rateLimiter.acquire(HOST, MATCH_METHOD);
+        assertTrue(System.currentTimeMillis() - start >= 800);
+    }
+
+    @Test
+    void testAcquireFailsWhenWaitExceedsMaximum() {
+        RiotRateLimiter impatient = new RiotRateLimiter("20:1", 100, 0.3, 0.5, new SimpleMeterRegistry());
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "10");
+        headers.add(RiotRateLimiter.LIMIT_TYPE_HEADER, "application");
+        impatient.onResponse(HOST, MATCH_METHOD, 429, headers);
+
+        RiotApiException exception = assertThrows(RiotApiException.class,
+                () -> impatient.acquire(HOST, "/lol/summoner/v4/summoners/by-puuid/{}"));
+        assertEquals(429, exception.getStatusCode());
+    }
+
+    @Test
+    void testBudgetGaugesAreRegistered() {
+        rateLimiter.acquire(HOST, MATCH_METHOD);
+
+        assertNotNull(meterRegistry.find("riot.ratelimit.budget").tag("scope", "app").gauge());
+        assertNotNull(meterRegistry.find("riot.ratelimit.queue.depth").gauge());
+    }
+
+    @Test
+    void testBackgroundLanesLeaveReservedShare() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(RiotRateLimiter.METHOD_LIMIT_HEADER, "10:10");
+        headers.add(RiotRateLimiter.METHOD_COUNT_HEADER, "7:10");
+        rateLimiter.onResponse(HOST, MATCH_METHOD, 200, headers);
+
+        // 3 tokens left: the prefetch lane must leave 3 of 10 untouched
+        assertTrue(rateLimiter.hasHeadroom(HOST, MATCH_METHOD, RiotPriority.INTERACTIVE));
+        assertFalse(rateLimiter.hasHeadroom(HOST, MATCH_METHOD, RiotPriority.PREFETCH));
+        assertFalse(rateLimiter.hasHeadroom(HOST, MATCH_METHOD, RiotPriority.BULK));
+        assertTrue(rateLimiter.hasHeadroom(HOST, MATCH_IDS_METHOD, RiotPriority.PREFETCH));
+    }
+
+    @Test
+    void testBulkReserveNeverBelowPrefetchReserve() {
+        RiotRateLimiter limiter = new RiotRateLimiter("10:10", 5000, 0.5, 0.1, new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(HOST, MATCH_METHOD, RiotPriority.INTERACTIVE);
+        }
+
+        assertFalse(limiter.hasHeadroom(HOST, MATCH_METHOD, RiotPriority.PREFETCH));
+        assertFalse(limiter.hasHeadroom(HOST, MATCH_METHOD, RiotPriority.BULK));
+    }
+
+    @Test
+    void testBackgroundYieldsToQueuedInteractiveCaller() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(RiotRateLimiter.METHOD_LIMIT_HEADER, "2:1");
+        headers.add(RiotRateLimiter.METHOD_COUNT_HEADER, "2:1");
+        rateLimiter.onResponse(HOST, MATCH_METHOD, 200, headers);
+
+        Thread interactive = new Thread(() -> rateLimiter.acquire(HOST, MATCH_METHOD, RiotPriority.INTERACTIVE));
+        interactive.start();
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (rateLimiter.hasHeadroom(HOST, MATCH_IDS_METHOD, RiotPriority.BULK)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        // Another method of the same host has budget, but the interactive caller goes first
+        assertFalse(rateLimiter.hasHeadroom(HOST, MATCH_IDS_METHOD, RiotPriority.BULK));
+        assertTrue(rateLimiter.hasHeadroom(HOST, MATCH_IDS_METHOD, RiotPriority.INTERACTIVE));
+
+        long start = System.currentTimeMillis();
+        rateLimiter.acquire(HOST, MATCH_IDS_METHOD, RiotPriority.BULK);
+        long waited = System.currentTimeMillis() - start;
+        interactive.join(2000);
+
+        assertTrue(waited >= 200, "bulk caller should wait for the interactive one, waited " + waited + " ms");
+        assertFalse(interactive.isAlive());
+        assertTrue(meterRegistry.get("riot.ratelimit.preempted").tag("priority", "bulk").counter().count() > 0);
+        assertTrue(rateLimiter.hasHeadroom(HOST, MATCH_IDS_METHOD, RiotPriority.PREFETCH));
+    }
+}
@@ -0,0 +1,114 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tfg.tfg.exception.SummonerNotFoundException;
+import com.tfg.tfg.service.riot.RiotRequestCoalescer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RiotRequestCoalescerUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiotRequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RiotRequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void testConcurrentCallersShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> coalescer.execute("match:EUW1_1", () -> {
+                upstreamCalls.incrementAndGet();
+                leaderStarted.countDown();
+                awaitQuietly(release);
+                return "payload";
+            })));
+            assertTrue(leaderStarted.await(2, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> coalescer.execute("match:EUW1_1", () -> {
+                    upstreamCalls.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            waitForFollowers(4);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("payload", result.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, upstreamCalls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDifferentKeysAreNotCoalesced() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        coalescer.execute("match:A", upstreamCalls::incrementAndGet);
+        coalescer.execute("match:B", upstreamCalls::incrementAndGet);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testSequentialCallsRunAgainAfterCompletion() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        coalescer.execute("summoner:Player#EUW", upstreamCalls::incrementAndGet);
+        coalescer.execute("summoner:Player#EUW", upstreamCalls::incrementAndGet);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testExceptionIsPropagatedUnwrapped() {
+        SummonerNotFoundException thrown = assertThrows(SummonerNotFoundException.class,
+                () -> coalescer.execute("summoner:Nobody#EUW", () -> {
+                    throw new SummonerNotFoundException("not found");
+                }));
+
+        assertEquals("not found", thrown.getMessage());
+        assertEquals(0.0, meterRegistry.get("riot.coalesce.inflight").gauge().value());
+    }
+
+    private void waitForFollowers(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (meterRegistry.get("riot.coalesce.shared").counter().count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
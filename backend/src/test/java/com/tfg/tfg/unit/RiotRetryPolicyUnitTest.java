@@ -0,0 +1,102 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.tfg.tfg.service.riot.RiotRetryPolicy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RiotRetryPolicyUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RiotRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryPolicy = new RiotRetryPolicy(3, 100, 1000, 10000, 0.1, 10, meterRegistry);
+    }
+
+    @Test
+    void testSuccessAndClientErrorsAreFinal() {
+        RiotRetryPolicy.Attempts attempts = retryPolicy.start("/lol/match/v5/matches/{}");
+
+        assertEquals(-1, attempts.onResponse(200, new HttpHeaders()));
+        assertEquals(-1, attempts.onResponse(404, new HttpHeaders()));
+        assertEquals(1, attempts.getAttempts());
+        assertNull(meterRegistry.find("riot.retry.attempts").counter());
+    }
+
+    @Test
+    void testRetryAfterIsHonoredExactly() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "2");
+
+        long delay = retryPolicy.start("/lol/match/v5/matches/{}").onResponse(429, headers);
+
+        assertEquals(2000, delay);
+        assertEquals(1.0, meterRegistry.get("riot.retry.attempts").tag("reason", "429").counter().count());
+    }
+
+    @Test
+    void testBackoffIsJitteredAndGrows() {
+        RiotRetryPolicy generous = new RiotRetryPolicy(3, 100, 1000, 10000, 1.0, 1000, meterRegistry);
+        for (int i = 0; i < 50; i++) {
+            RiotRetryPolicy.Attempts attempts = generous.start("/lol/match/v5/matches/{}");
+            long first = attempts.onResponse(503, new HttpHeaders());
+            long second = attempts.onError(new SocketTimeoutException("Read timed out"));
+
+            assertTrue(first >= 0 && first <= 100, "first delay " + first);
+            assertTrue(second >= 0 && second <= 200, "second delay " + second);
+        }
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        RiotRetryPolicy.Attempts attempts = retryPolicy.start("/lol/match/v5/matches/{}");
+
+        assertTrue(attempts.onResponse(500, new HttpHeaders()) >= 0);
+        assertTrue(attempts.onResponse(502, new HttpHeaders()) >= 0);
+        assertEquals(-1, attempts.onResponse(504, new HttpHeaders()));
+        assertEquals(3, attempts.getAttempts());
+        assertEquals(1.0, meterRegistry.get("riot.retry.exhausted").tag("cause", "attempts").counter().count());
+    }
+
+    @Test
+    void testGivesUpWhenRetryWouldMissDeadline() {
+        RiotRetryPolicy tight = new RiotRetryPolicy(3, 100, 1000, 500, 0.1, 10, meterRegistry);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "5");
+
+        assertEquals(-1, tight.start("/lol/match/v5/matches/{}").onResponse(503, headers));
+        assertEquals(1.0, meterRegistry.get("riot.retry.exhausted").tag("cause", "deadline").counter().count());
+    }
+
+    @Test
+    void testRetryBudgetIsShared() {
+        RiotRetryPolicy scarce = new RiotRetryPolicy(3, 1, 1, 10000, 0.0, 1, meterRegistry);
+
+        assertTrue(scarce.start("a").onError(new IOException("reset")) >= 0);
+        assertEquals(-1, scarce.start("b").onError(new IOException("reset")));
+        assertEquals(0.0, scarce.getBudget());
+        assertEquals(1.0, meterRegistry.get("riot.retry.exhausted").tag("cause", "budget").counter().count());
+    }
+
+    @Test
+    void testRequestsRefillBudget() {
+        RiotRetryPolicy scarce = new RiotRetryPolicy(3, 1, 1, 10000, 0.5, 1, meterRegistry);
+        scarce.start("a").onError(new IOException("reset"));
+
+        scarce.start("b");
+        scarce.start("c");
+
+        assertEquals(1.0, scarce.getBudget(), 0.001);
+    }
+}
@@ -8,12 +8,17 @@ import java.lang.reflect.Field;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -30,8 +35,18 @@ import com.tfg.tfg.model.entity.Summoner;
 import com.tfg.tfg.repository.MatchRepository;
 import com.tfg.tfg.repository.SummonerRepository;
 import com.tfg.tfg.service.interfaces.IDataDragonService;
+import com.tfg.tfg.service.interfaces.IMatchArchiveService;
 import com.tfg.tfg.service.interfaces.IRankHistoryService;
 import com.tfg.tfg.service.RiotService;
+import com.tfg.tfg.config.cache.CacheRefreshCoordinator;
+import com.tfg.tfg.service.riot.MatchFreshnessTracker;
+import com.tfg.tfg.service.riot.RiotCircuitBreaker;
+import com.tfg.tfg.service.riot.RiotFetchExecutor;
+import com.tfg.tfg.service.riot.RiotIdResolver;
+import com.tfg.tfg.service.riot.RiotPriority;
+import com.tfg.tfg.service.riot.RiotRequestCoalescer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class RiotServiceUnitTest {
@@ -50,16 +65,27 @@ class RiotServiceUnitTest {
     
     @Mock
     private RestTemplate restTemplate;
+
+    @Mock
+    private IMatchArchiveService matchArchiveService;
+
+    @Mock
+    private RiotCircuitBreaker circuitBreaker;
     
+    private CacheManager cacheManager;
+
     private RiotService riotService;
     
     @BeforeEach
     void setUp() throws Exception {
-        riotService = new RiotService(summonerRepository, matchRepository, dataDragonService, rankHistoryService);
-
-        Field restTemplateField = RiotService.class.getDeclaredField("restTemplate");
-        restTemplateField.setAccessible(true);
-        restTemplateField.set(riotService, restTemplate);
+        cacheManager = new ConcurrentMapCacheManager("masteries", RiotIdResolver.UNKNOWN_RIOT_IDS_CACHE);
+        riotService = new RiotService(summonerRepository, matchRepository, dataDragonService, rankHistoryService,
+                new RiotFetchExecutor(4, 2, new SimpleMeterRegistry()),
+                new RiotRequestCoalescer(new SimpleMeterRegistry()),
+                new MatchFreshnessTracker(120, 1, new SimpleMeterRegistry()), matchArchiveService,
+                cacheManager, restTemplate, circuitBreaker,
+                new RiotIdResolver(summonerRepository, cacheManager, new SimpleMeterRegistry(), 168),
+                new CacheRefreshCoordinator(cacheManager, null, null, new SimpleMeterRegistry(), 1.0, 10000, 3000));
 
         Field apiKeyField = RiotService.class.getDeclaredField("apiKey");
         apiKeyField.setAccessible(true);
@@ -133,6 +159,120 @@ class RiotServiceUnitTest {
         verify(summonerRepository).save(any(Summoner.class));
     }
 
+    @Test
+    void testWarmSummonerKeepsLastSearchedAt() {
+
+        String riotId = "TestPlayer#EUW";
+        String puuid = "test-puuid-123";
+        java.time.LocalDateTime lastSearchedAt = java.time.LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        RiotSummonerDTO summonerDTO = new RiotSummonerDTO();
+        summonerDTO.setPuuid(puuid);
+        summonerDTO.setSummonerLevel(100);
+        summonerDTO.setProfileIconId(1);
+
+        Summoner existingSummoner = new Summoner();
+        existingSummoner.setPuuid(puuid);
+        existingSummoner.setName(riotId);
+        existingSummoner.setLastSearchedAt(lastSearchedAt);
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotAccountDTO.class),
+                anyString(), anyString(), anyString()))
+                .thenReturn(ResponseEntity.ok(new RiotAccountDTO(puuid, "TestPlayer", "EUW")));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotSummonerDTO.class),
+                anyString(), anyString()))
+                .thenReturn(ResponseEntity.ok(summonerDTO));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotLeagueEntryDTO[].class),
+                anyString(), anyString()))
+                .thenReturn(ResponseEntity.ok(new RiotLeagueEntryDTO[0]));
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(existingSummoner));
+        ArgumentCaptor<Summoner> saved = ArgumentCaptor.forClass(Summoner.class);
+
+        SummonerDTO result = riotService.warmSummoner(riotId);
+
+        assertEquals(riotId, result.getName());
+        verify(summonerRepository).save(saved.capture());
+        assertEquals(lastSearchedAt, saved.getValue().getLastSearchedAt());
+        assertEquals(100, saved.getValue().getLevel());
+    }
+
+    @Test
+    void testGetSummonerByNameReusesStoredPuuidWithoutAccountCall() {
+        String riotId = "TestPlayer#EUW";
+        String puuid = "test-puuid-123";
+        Summoner stored = new Summoner();
+        stored.setPuuid(puuid);
+        stored.setName("testplayer#euw");
+        stored.setLastSearchedAt(java.time.LocalDateTime.now().minusDays(1));
+
+        RiotSummonerDTO summonerDTO = new RiotSummonerDTO();
+        summonerDTO.setPuuid(puuid);
+        summonerDTO.setSummonerLevel(100);
+        summonerDTO.setProfileIconId(1);
+
+        when(summonerRepository.findFirstByNameIgnoreCaseOrderByLastSearchedAtDesc(riotId))
+            .thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotSummonerDTO.class),
+            anyString(), anyString())).thenReturn(ResponseEntity.ok(summonerDTO));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotLeagueEntryDTO[].class),
+            anyString(), anyString())).thenReturn(ResponseEntity.ok(new RiotLeagueEntryDTO[0]));
+
+        SummonerDTO result = riotService.getSummonerByName(riotId);
+
+        assertEquals(puuid, result.getPuuid());
+        verify(restTemplate, never()).exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotAccountDTO.class),
+            anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testGetSummonerByNamePrefetchesMasteries() throws Exception {
+
+        String riotId = "TestPlayer#EUW";
+        String puuid = "test-puuid-123";
+
+        Field prefetchField = RiotService.class.getDeclaredField("prefetchMasteries");
+        prefetchField.setAccessible(true);
+        prefetchField.set(riotService, true);
+
+        RiotSummonerDTO summonerDTO = new RiotSummonerDTO();
+        summonerDTO.setId("summoner-id");
+        summonerDTO.setSummonerLevel(100);
+        summonerDTO.setProfileIconId(1);
+
+        RiotChampionMasteryDTO mastery = new RiotChampionMasteryDTO();
+        mastery.setChampionId(103L);
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotAccountDTO.class),
+                anyString(), anyString(), anyString()))
+                .thenReturn(ResponseEntity.ok(new RiotAccountDTO(puuid, "TestPlayer", "EUW")));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotSummonerDTO.class),
+                eq(puuid), anyString()))
+                .thenReturn(ResponseEntity.ok(summonerDTO));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotLeagueEntryDTO[].class),
+                eq(puuid), anyString()))
+                .thenReturn(ResponseEntity.ok(new RiotLeagueEntryDTO[0]));
+        AtomicReference<String> masteryThread = new AtomicReference<>();
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotChampionMasteryDTO[].class),
+                eq(puuid), eq(3), anyString()))
+                .thenAnswer(invocation -> {
+                    masteryThread.set(Thread.currentThread().getName() + "/" + RiotPriority.current());
+                    return ResponseEntity.ok(new RiotChampionMasteryDTO[] { mastery });
+                });
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.empty());
+
+        SummonerDTO result = riotService.getSummonerByName(riotId);
+
+        assertEquals("UNRANKED", result.getTier());
+        long deadline = System.currentTimeMillis() + 2000;
+        while (cacheManager.getCache("masteries").get(puuid) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(cacheManager.getCache("masteries").get(puuid));
+        // Runs on the prefetch pool, leaving the interactive threads to the lookup
+        assertTrue(masteryThread.get().startsWith("riot-fetch-prefetch-"), masteryThread.get());
+        assertTrue(masteryThread.get().endsWith("/PREFETCH"), masteryThread.get());
+    }
+
     @Test
     void testGetSummonerByNameInvalidRiotIdFormat() {
 
@@ -147,6 +287,28 @@ class RiotServiceUnitTest {
         verify(summonerRepository).findByName(invalidRiotId);
     }
 
+    @Test
+    void testGetSummonerByNameUnknownRiotIdAnsweredLocally() {
+
+        String riotId = "Nobody#EUW";
+        when(restTemplate.exchange(
+            anyString(),
+            eq(HttpMethod.GET),
+            any(),
+            eq(RiotAccountDTO.class),
+            anyString(),
+            anyString(),
+            anyString()
+        )).thenThrow(org.springframework.web.client.HttpClientErrorException.create(
+                org.springframework.http.HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertThrows(SummonerNotFoundException.class, () -> riotService.getSummonerByName(riotId));
+        assertThrows(SummonerNotFoundException.class, () -> riotService.getSummonerByName("nobody#euw"));
+
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(), eq(RiotAccountDTO.class),
+                anyString(), anyString(), anyString());
+    }
+
     @Test
     void testGetSummonerByNameDatabaseFallback() {
 
@@ -162,7 +324,73 @@ class RiotServiceUnitTest {
 
         assertNotNull(result);
         assertEquals("TestPlayer", result.getName());
+        assertTrue(result.isStale());
         verify(summonerRepository).findByName(invalidRiotId);
+        // A client error would fail again: nothing to revalidate
+        verify(circuitBreaker, never()).scheduleRevalidation(anyString(), any());
+    }
+
+    @Test
+    void testGetSummonerByNameKnownMissingSkipsStoredFallback() {
+
+        String riotId = "Renamed#EUW";
+        Summoner stored = new Summoner();
+        stored.setName(riotId);
+        stored.setPuuid("old-puuid");
+        lenient().when(summonerRepository.findByName(riotId)).thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(RiotAccountDTO.class),
+                anyString(), anyString(), anyString()))
+                .thenThrow(org.springframework.web.client.HttpClientErrorException.create(
+                        org.springframework.http.HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertThrows(SummonerNotFoundException.class, () -> riotService.getSummonerByName(riotId));
+        // Answered from the negative cache exactly like the live 404
+        assertThrows(SummonerNotFoundException.class, () -> riotService.getSummonerByName(riotId));
+
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(), eq(RiotAccountDTO.class),
+                anyString(), anyString(), anyString());
+        verify(summonerRepository, never()).findByName(riotId);
+        verify(circuitBreaker, never()).scheduleRevalidation(anyString(), any());
+    }
+
+    @Test
+    void testGetSummonerByNameServerErrorRevalidatesOnceWithoutRequeueing() {
+
+        String riotId = "TestPlayer#EUW";
+        Summoner stored = new Summoner();
+        stored.setName(riotId);
+        stored.setPuuid("test-puuid");
+        when(summonerRepository.findByName(riotId)).thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(RiotAccountDTO.class),
+                anyString(), anyString(), anyString()))
+                .thenThrow(org.springframework.web.client.HttpServerErrorException.create(
+                        org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null));
+        ArgumentCaptor<BooleanSupplier> revalidation = ArgumentCaptor.forClass(BooleanSupplier.class);
+
+        assertTrue(riotService.getSummonerByName(riotId).isStale());
+        verify(circuitBreaker).scheduleRevalidation(eq("summoner:" + riotId), revalidation.capture());
+
+        // Riot still failing: the revalidation reports it and queues nothing itself
+        assertFalse(revalidation.getValue().getAsBoolean());
+        assertFalse(revalidation.getValue().getAsBoolean());
+        verify(circuitBreaker, times(1)).scheduleRevalidation(anyString(), any());
+    }
+
+    @Test
+    void testGetSummonerByNameServesStoredCopyWhileCircuitOpen() {
+        String riotId = "TestPlayer#EUW";
+        Summoner stored = new Summoner();
+        stored.setName(riotId);
+        stored.setPuuid("test-puuid");
+        when(circuitBreaker.isOpen("europe.api.riotgames.com")).thenReturn(true);
+        when(summonerRepository.findByName(riotId)).thenReturn(Optional.of(stored));
+
+        SummonerDTO result = riotService.getSummonerByName(riotId);
+
+        assertTrue(result.isStale());
+        assertEquals("test-puuid", result.getPuuid());
+        verifyNoInteractions(restTemplate);
+        verify(circuitBreaker).scheduleRevalidation(eq("summoner:" + riotId), any());
     }
 
     @Test
@@ -292,10 +520,181 @@ class RiotServiceUnitTest {
             anyString()
         )).thenReturn(ResponseEntity.ok(new String[]{"EUW1_123"}));
 
-        var result = riotService.getMatchHistory(puuid, 0, 5);
+        var result = riotService.getMatchHistory(puuid, 0, 1);
+        var second = riotService.getMatchHistory(puuid, 0, 1);
 
-        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals("EUW1_123", result.get(0).getMatchId());
+        assertEquals(1, second.size());
+        // Second read falls inside the freshness window, so Riot is only probed once
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), eq(0), eq(1), anyString());
+    }
+
+    @Test
+    void testGetMatchHistoryIncrementalSyncSinceNewestCachedMatch() {
+
+        String puuid = "test-puuid";
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+
+        MatchEntity older = new MatchEntity();
+        older.setMatchId("EUW1_1");
+        older.setTimestamp(java.time.LocalDateTime.now().minusDays(2));
+        MatchEntity newestCached = new MatchEntity();
+        newestCached.setMatchId("EUW1_2");
+        newestCached.setTimestamp(java.time.LocalDateTime.now().minusDays(1));
+        MatchEntity synced = new MatchEntity();
+        synced.setMatchId("EUW1_3");
+        synced.setTimestamp(java.time.LocalDateTime.now());
+
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(summoner));
+        when(matchRepository.findRecentMatchesBySummoner(any(), any()))
+                .thenReturn(List.of(newestCached, older), List.of(synced, newestCached));
+
+        when(restTemplate.exchange(
+            anyString(),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(String[].class),
+            eq(puuid),
+            eq(0),
+            eq(1),
+            anyString()
+        )).thenReturn(ResponseEntity.ok(new String[]{"EUW1_3"}));
+
+        long watermark = newestCached.getTimestamp().atZone(java.time.ZoneId.systemDefault()).toEpochSecond();
+        when(restTemplate.exchange(
+            contains("startTime="),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(String[].class),
+            eq(puuid),
+            eq(watermark + 1),
+            eq(0),
+            eq(100),
+            anyString()
+        )).thenReturn(ResponseEntity.ok(new String[]{"EUW1_3"}));
+        when(matchRepository.findByMatchIdAndSummonerPuuid("EUW1_3", puuid)).thenReturn(Optional.of(synced));
+
+        var result = riotService.getMatchHistory(puuid, 0, 2);
+
+        assertEquals(2, result.size());
+        assertEquals("EUW1_3", result.get(0).getMatchId());
+        assertEquals("EUW1_2", result.get(1).getMatchId());
+        // No full page of match IDs is requested
+        verify(restTemplate, never()).exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), eq(0), eq(2), anyString());
+    }
+
+    @Test
+    void testGetMatchHistoryIncrementalSyncDropsAlreadyStoredMatches() {
+
+        String puuid = "test-puuid";
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+
+        MatchEntity older = new MatchEntity();
+        older.setMatchId("EUW1_1");
+        older.setTimestamp(java.time.LocalDateTime.now().minusDays(2));
+        MatchEntity newestCached = new MatchEntity();
+        newestCached.setMatchId("EUW1_2");
+        newestCached.setTimestamp(java.time.LocalDateTime.now().minusDays(1));
+        MatchEntity synced = new MatchEntity();
+        synced.setMatchId("EUW1_3");
+        synced.setTimestamp(java.time.LocalDateTime.now());
+
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(summoner));
+        when(matchRepository.findRecentMatchesBySummoner(any(), any()))
+                .thenReturn(List.of(newestCached, older), List.of(synced, newestCached));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), eq(0), eq(1), anyString()))
+                .thenReturn(ResponseEntity.ok(new String[]{"EUW1_3"}));
+        // The watermark match comes back with the new one
+        when(restTemplate.exchange(contains("startTime="), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), anyLong(), eq(0), eq(100), anyString()))
+                .thenReturn(ResponseEntity.ok(new String[]{"EUW1_3", "EUW1_2"}));
+        when(matchRepository.findByMatchIdInAndSummoner(List.of("EUW1_3", "EUW1_2"), summoner))
+                .thenReturn(List.of(newestCached));
+        when(matchRepository.findByMatchIdAndSummonerPuuid("EUW1_3", puuid)).thenReturn(Optional.of(synced));
+
+        var result = riotService.getMatchHistory(puuid, 0, 2);
+
+        assertEquals(List.of("EUW1_3", "EUW1_2"), result.stream().map(m -> m.getMatchId()).toList());
+        // Only the new match is looked up; the page is rebuilt from the database
+        verify(matchRepository, never()).findByMatchIdAndSummonerPuuid("EUW1_2", puuid);
+        verify(matchRepository, times(2)).findRecentMatchesBySummoner(any(), any());
+    }
+
+    @Test
+    void testGetMatchHistoryIncrementalSyncPagesThroughTheWholeGap() {
+
+        String puuid = "test-puuid";
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+
+        MatchEntity older = new MatchEntity();
+        older.setMatchId("EUW1_0");
+        older.setTimestamp(java.time.LocalDateTime.now().minusDays(2));
+        MatchEntity newestCached = new MatchEntity();
+        newestCached.setMatchId("EUW1_1");
+        newestCached.setTimestamp(java.time.LocalDateTime.now().minusDays(1));
+
+        String[] firstPage = new String[100];
+        for (int i = 0; i < firstPage.length; i++) {
+            firstPage[i] = "EUW1_" + (200 - i);
+        }
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(summoner));
+        when(matchRepository.findRecentMatchesBySummoner(any(), any())).thenReturn(List.of(newestCached, older));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), eq(0), eq(1), anyString()))
+                .thenReturn(ResponseEntity.ok(new String[]{"EUW1_200"}));
+        when(restTemplate.exchange(contains("startTime="), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), anyLong(), eq(0), eq(100), anyString()))
+                .thenReturn(ResponseEntity.ok(firstPage));
+        when(restTemplate.exchange(contains("startTime="), eq(HttpMethod.GET), isNull(), eq(String[].class),
+                eq(puuid), anyLong(), eq(100), eq(100), anyString()))
+                .thenReturn(ResponseEntity.ok(new String[]{"EUW1_100"}));
+        when(matchRepository.findByMatchIdAndSummonerPuuid(anyString(), eq(puuid))).thenAnswer(invocation -> {
+            MatchEntity match = new MatchEntity();
+            match.setMatchId(invocation.getArgument(0));
+            return Optional.of(match);
+        });
+
+        var result = riotService.getMatchHistory(puuid, 0, 2);
+
+        assertEquals(List.of("EUW1_200", "EUW1_199"), result.stream().map(m -> m.getMatchId()).toList());
+        // The games past the first page are stored too, so the history has no hole
+        verify(matchRepository).findByMatchIdAndSummonerPuuid("EUW1_101", puuid);
+        verify(matchRepository).findByMatchIdAndSummonerPuuid("EUW1_100", puuid);
+    }
+
+    @Test
+    void testGetMatchIdsPushesQueueAndTypeFilters() {
+
+        String puuid = "test-puuid";
+
+        when(restTemplate.exchange(
+            argThat((String url) -> url.contains("&queue=440&type=ranked&")),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(String[].class),
+            eq(puuid),
+            eq(0),
+            eq(2),
+            anyString()
+        )).thenReturn(ResponseEntity.ok(new String[]{"EUW1_2", "EUW1_1"}));
+
+        var result = riotService.getMatchIds(puuid, 0, 2, 440, RiotService.MATCH_TYPE_RANKED);
+
+        assertEquals(List.of("EUW1_2", "EUW1_1"), result);
+    }
 
+    @Test
+    void testGetMatchHistoryRejectsUnknownMatchType() {
+        assertThrows(IllegalArgumentException.class,
+                () -> riotService.getMatchHistory("test-puuid", 0, 5, null, "aram"));
+        verifyNoInteractions(restTemplate);
     }
 
     @Test
@@ -375,10 +774,10 @@ class RiotServiceUnitTest {
             anyString(),
             eq(HttpMethod.GET),
             isNull(),
-            eq(RiotMatchDTO.class),
+            eq(byte[].class),
             eq("EUW1_123"),
             anyString()
-        )).thenReturn(ResponseEntity.ok(riotMatch));
+        )).thenReturn(ResponseEntity.ok(toJson(riotMatch)));
 
         RiotMatchDTO riotMatch2 = new RiotMatchDTO();
         RiotMatchDTO.MetadataDTO metadata2 = new RiotMatchDTO.MetadataDTO();
@@ -412,10 +811,10 @@ class RiotServiceUnitTest {
             anyString(),
             eq(HttpMethod.GET),
             isNull(),
-            eq(RiotMatchDTO.class),
+            eq(byte[].class),
             eq("EUW1_456"),
             anyString()
-        )).thenReturn(ResponseEntity.ok(riotMatch2));
+        )).thenReturn(ResponseEntity.ok(toJson(riotMatch2)));
 
         var result = riotService.getMatchHistory(puuid, 0, 10);
 
@@ -433,7 +832,7 @@ class RiotServiceUnitTest {
             anyString(),
             eq(HttpMethod.GET),
             isNull(),
-            eq(RiotMatchDTO.class),
+            eq(byte[].class),
             anyString(),
             anyString()
         )).thenReturn(ResponseEntity.ok(null));
@@ -724,10 +1123,11 @@ class RiotServiceUnitTest {
         try {
             java.lang.reflect.Method method = RiotService.class.getDeclaredMethod(
                 "saveSummonerToDatabase", 
-                SummonerDTO.class
+                SummonerDTO.class,
+                boolean.class
             );
             method.setAccessible(true);
-            method.invoke(riotService, dto);
+            method.invoke(riotService, dto, true);
 
             verify(summonerRepository).save(any(Summoner.class));
         } catch (Exception e) {
@@ -748,17 +1148,6 @@ class RiotServiceUnitTest {
         when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(summoner));
         when(matchRepository.findRecentMatchesBySummoner(any(), any())).thenReturn(List.of(oldMatch));
 
-        when(restTemplate.exchange(
-            anyString(),
-            eq(HttpMethod.GET),
-            isNull(),
-            eq(String[].class),
-            eq(puuid),
-            eq(0),
-            eq(1),
-            anyString()
-        )).thenReturn(ResponseEntity.ok(new String[]{"EUW1_NEW"}));
-
         when(restTemplate.exchange(
             contains("/lol/match/v5/matches/by-puuid/"),
             eq(HttpMethod.GET),
@@ -800,10 +1189,10 @@ class RiotServiceUnitTest {
             anyString(),
             eq(HttpMethod.GET),
             isNull(),
-            eq(RiotMatchDTO.class),
+            eq(byte[].class),
             anyString(),
             anyString()
-        )).thenReturn(ResponseEntity.ok(riotMatch));
+        )).thenReturn(ResponseEntity.ok(toJson(riotMatch)));
 
         var result = riotService.getMatchHistory(puuid, 0, 5);
 
@@ -811,37 +1200,160 @@ class RiotServiceUnitTest {
     }
 
     @Test
-    void testFetchAndAddMatchToHistoryHttpException() {
+    void testFetchMatchForHistoryHttpException() {
 
         String matchId = "EUW1_ERROR";
         String puuid = "test-puuid";
-        List<com.tfg.tfg.model.dto.MatchHistoryDTO> matches = new java.util.ArrayList<>();
         
         when(restTemplate.exchange(
             anyString(),
             eq(HttpMethod.GET),
             isNull(),
-            eq(RiotMatchDTO.class),
+            eq(byte[].class),
             eq(matchId),
             anyString()
         )).thenThrow(new org.springframework.web.client.HttpClientErrorException(org.springframework.http.HttpStatus.NOT_FOUND));
 
         try {
             java.lang.reflect.Method method = RiotService.class.getDeclaredMethod(
-                "fetchAndAddMatchToHistory",
+                "fetchMatchForHistory",
                 String.class,
-                String.class,
-                List.class
+                String.class
             );
             method.setAccessible(true);
-            method.invoke(riotService, matchId, puuid, matches);
+            Object result = method.invoke(riotService, matchId, puuid);
 
-            assertTrue(matches.isEmpty());
+            assertNull(result);
         } catch (Exception e) {
             fail("Should handle exception gracefully: " + e.getMessage());
         }
     }
 
+    @Test
+    void testFetchMatchForHistoryStreamingParse() throws Exception {
+
+        String matchId = "EUW1_STREAM";
+        String puuid = "test-puuid";
+        Field streamingField = RiotService.class.getDeclaredField("streamingParse");
+        streamingField.setAccessible(true);
+        streamingField.set(riotService, true);
+
+        String body = "{\"metadata\":{\"matchId\":\"EUW1_STREAM\"},\"info\":{\"gameCreation\":1640995200000,"
+                + "\"gameDuration\":1800,\"queueId\":420,\"participants\":["
+                + "{\"puuid\":\"other\",\"championName\":\"Zed\",\"kills\":1},"
+                + "{\"puuid\":\"test-puuid\",\"championName\":\"Ahri\",\"championId\":103,\"kills\":10,"
+                + "\"deaths\":5,\"assists\":15,\"win\":true}]}}";
+
+        when(restTemplate.exchange(
+            anyString(),
+            eq(HttpMethod.GET),
+            isNull(),
+            eq(byte[].class),
+            eq(matchId),
+            anyString()
+        )).thenReturn(ResponseEntity.ok(body.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+
+        java.lang.reflect.Method method = RiotService.class.getDeclaredMethod(
+            "fetchMatchForHistory", String.class, String.class);
+        method.setAccessible(true);
+        com.tfg.tfg.model.dto.MatchHistoryDTO result = (com.tfg.tfg.model.dto.MatchHistoryDTO) method.invoke(riotService, matchId, puuid);
+
+        assertNotNull(result);
+        assertEquals("EUW1_STREAM", result.getMatchId());
+        assertEquals("Ahri", result.getChampionName());
+        assertEquals(10, result.getKills());
+        assertEquals(420, result.getQueueId());
+    }
+
+    @Test
+    void testFetchMatchForHistoryFansOutToKnownParticipants() throws Exception {
+
+        String matchId = "EUW1_FANOUT";
+        String puuid = "test-puuid";
+        Field streamingField = RiotService.class.getDeclaredField("streamingParse");
+        streamingField.setAccessible(true);
+        streamingField.set(riotService, true);
+
+        String body = "{\"metadata\":{\"matchId\":\"EUW1_FANOUT\",\"participants\":[\"test-puuid\",\"mate\",\"stranger\",\"cached\"]},"
+                + "\"info\":{\"gameCreation\":1640995200000,\"gameDuration\":1800,\"queueId\":420,\"participants\":["
+                + "{\"puuid\":\"test-puuid\",\"championName\":\"Ahri\",\"kills\":10,\"win\":true},"
+                + "{\"puuid\":\"mate\",\"championName\":\"Lux\",\"kills\":2,\"win\":true},"
+                + "{\"puuid\":\"stranger\",\"championName\":\"Zed\",\"kills\":7,\"win\":false},"
+                + "{\"puuid\":\"cached\",\"championName\":\"Garen\",\"kills\":1,\"win\":false}]}}";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(byte[].class), eq(matchId), anyString()))
+            .thenReturn(ResponseEntity.ok(body.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+
+        Summoner requester = new Summoner();
+        requester.setPuuid(puuid);
+        Summoner mate = new Summoner();
+        mate.setPuuid("mate");
+        Summoner cached = new Summoner();
+        cached.setPuuid("cached");
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(requester));
+        when(matchRepository.findByMatchIdAndSummonerPuuid(matchId, puuid)).thenReturn(Optional.empty());
+        when(summonerRepository.findByPuuidIn(java.util.Set.of("mate", "stranger", "cached")))
+            .thenReturn(List.of(mate, cached));
+        when(matchRepository.findSummonerPuuidsByMatchIdAndSummonerIn(matchId, List.of(mate, cached)))
+            .thenReturn(List.of("cached"));
+
+        java.lang.reflect.Method method = RiotService.class.getDeclaredMethod(
+            "fetchMatchForHistory", String.class, String.class);
+        method.setAccessible(true);
+        assertNotNull(method.invoke(riotService, matchId, puuid));
+
+        verify(matchRepository).save(argThat((MatchEntity m) -> m.getSummoner() == requester));
+        @SuppressWarnings("unchecked")
+        org.mockito.ArgumentCaptor<List<MatchEntity>> batch = org.mockito.ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(mate, batch.getValue().get(0).getSummoner());
+        assertEquals("Lux", batch.getValue().get(0).getChampionName());
+        assertEquals(matchId, batch.getValue().get(0).getMatchId());
+    }
+
+    @Test
+    void testFanOutSkipsRowsStoredConcurrently() throws Exception {
+
+        String matchId = "EUW1_RACE";
+        String puuid = "test-puuid";
+        Field streamingField = RiotService.class.getDeclaredField("streamingParse");
+        streamingField.setAccessible(true);
+        streamingField.set(riotService, true);
+
+        String body = "{\"metadata\":{\"matchId\":\"EUW1_RACE\",\"participants\":[\"test-puuid\",\"mate\",\"rival\"]},"
+                + "\"info\":{\"gameCreation\":1640995200000,\"gameDuration\":1800,\"queueId\":420,\"participants\":["
+                + "{\"puuid\":\"test-puuid\",\"championName\":\"Ahri\",\"kills\":10,\"win\":true},"
+                + "{\"puuid\":\"mate\",\"championName\":\"Lux\",\"kills\":2,\"win\":true},"
+                + "{\"puuid\":\"rival\",\"championName\":\"Zed\",\"kills\":7,\"win\":false}]}}";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(byte[].class), eq(matchId), anyString()))
+            .thenReturn(ResponseEntity.ok(body.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+
+        Summoner mate = new Summoner();
+        mate.setPuuid("mate");
+        Summoner rival = new Summoner();
+        rival.setPuuid("rival");
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.empty());
+        when(summonerRepository.findByPuuidIn(java.util.Set.of("mate", "rival"))).thenReturn(List.of(mate, rival));
+        // "rival" stores the match itself between the check and the insert
+        when(matchRepository.saveAll(anyList()))
+            .thenThrow(new org.springframework.dao.DataIntegrityViolationException("uk_match_summoner"));
+        when(matchRepository.save(any(MatchEntity.class))).thenAnswer(invocation -> {
+            MatchEntity match = invocation.getArgument(0);
+            if (match.getSummoner() == rival) {
+                throw new org.springframework.dao.DataIntegrityViolationException("uk_match_summoner");
+            }
+            return match;
+        });
+
+        java.lang.reflect.Method method = RiotService.class.getDeclaredMethod(
+            "fetchMatchForHistory", String.class, String.class);
+        method.setAccessible(true);
+        assertNotNull(method.invoke(riotService, matchId, puuid));
+
+        verify(matchRepository).save(argThat((MatchEntity m) -> m != null && m.getSummoner() == mate));
+        verify(matchRepository).save(argThat((MatchEntity m) -> m != null && m.getSummoner() == rival));
+    }
+
     @Test
     void testGetSummonerByNameSaveToDatabaseException() {
 
@@ -956,6 +1468,48 @@ class RiotServiceUnitTest {
         assertEquals(180, result.getLosses());
     }
 
+    @Test
+    void testRefreshRankedEntryUpdatesStoredSummoner() {
+        String puuid = "puuid-refresh";
+        Summoner stored = new Summoner();
+        stored.setPuuid(puuid);
+        stored.setName("Player#EUW");
+        stored.setTier("GOLD");
+        stored.setRank("II");
+        stored.setLp(10);
+
+        RiotLeagueEntryDTO rankedEntry = new RiotLeagueEntryDTO();
+        rankedEntry.setQueueType("RANKED_SOLO_5x5");
+        rankedEntry.setTier("PLATINUM");
+        rankedEntry.setRank("IV");
+        rankedEntry.setLeaguePoints(3);
+        rankedEntry.setWins(51);
+        rankedEntry.setLosses(40);
+
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(stored));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotLeagueEntryDTO[].class), eq(puuid), anyString()))
+            .thenReturn(ResponseEntity.ok(new RiotLeagueEntryDTO[]{rankedEntry}));
+
+        Optional<SummonerDTO> result = riotService.refreshRankedEntry(puuid);
+
+        assertTrue(result.isPresent());
+        assertEquals("PLATINUM", result.get().getTier());
+        assertEquals(3, result.get().getLp());
+        verify(summonerRepository).save(stored);
+        assertEquals("IV", stored.getRank());
+        assertEquals(51, stored.getWins());
+        // Only league-v4 is queried
+        verify(restTemplate, times(1)).exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Object[].class));
+    }
+
+    @Test
+    void testRefreshRankedEntryUnknownSummoner() {
+        when(summonerRepository.findByPuuid("missing")).thenReturn(Optional.empty());
+
+        assertTrue(riotService.refreshRankedEntry("missing").isEmpty());
+        verifyNoInteractions(restTemplate);
+    }
+
     @Test
     void testGetSummonerByNameUnranked() {
 
@@ -1024,8 +1578,8 @@ class RiotServiceUnitTest {
         info.setTeams(List.of(team1));
         riotMatch.setInfo(info);
         
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotMatchDTO.class), eq(matchId), anyString()))
-            .thenReturn(ResponseEntity.ok(riotMatch));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(byte[].class), eq(matchId), anyString()))
+            .thenReturn(ResponseEntity.ok(toJson(riotMatch)));
         when(dataDragonService.getChampionIconUrl(103L)).thenReturn("http://champion.png");
 
         var result = riotService.getMatchDetails(matchId);
@@ -1042,7 +1596,7 @@ class RiotServiceUnitTest {
 
         String matchId = "EUW1_ERROR";
         
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotMatchDTO.class), eq(matchId), anyString()))
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(byte[].class), eq(matchId), anyString()))
             .thenThrow(new org.springframework.web.client.HttpClientErrorException(
                 org.springframework.http.HttpStatus.NOT_FOUND, "Match not found"));
 
@@ -1062,14 +1616,56 @@ class RiotServiceUnitTest {
         riotMatch.setMetadata(metadata);
         riotMatch.setInfo(null);
         
-        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(RiotMatchDTO.class), eq(matchId), anyString()))
-            .thenReturn(ResponseEntity.ok(riotMatch));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(byte[].class), eq(matchId), anyString()))
+            .thenReturn(ResponseEntity.ok(toJson(riotMatch)));
 
         var result = riotService.getMatchDetails(matchId);
 
         assertNull(result);
     }
 
+    @Test
+    void testGetMatchDetailsServedFromArchive() {
+
+        String matchId = "EUW1_ARCHIVED";
+        RiotMatchDTO riotMatch = new RiotMatchDTO();
+        RiotMatchDTO.MetadataDTO metadata = new RiotMatchDTO.MetadataDTO();
+        metadata.setMatchId(matchId);
+        riotMatch.setMetadata(metadata);
+        RiotMatchDTO.InfoDTO info = new RiotMatchDTO.InfoDTO();
+        info.setQueueId(440);
+        info.setParticipants(List.of());
+        riotMatch.setInfo(info);
+
+        when(matchArchiveService.findPayload(matchId)).thenReturn(Optional.of(toJson(riotMatch)));
+
+        var result = riotService.getMatchDetails(matchId);
+
+        assertNotNull(result);
+        assertEquals(440, result.getQueueId());
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testGetMatchDetailsArchivesRiotPayload() {
+
+        String matchId = "EUW1_NEW";
+        RiotMatchDTO riotMatch = new RiotMatchDTO();
+        RiotMatchDTO.MetadataDTO metadata = new RiotMatchDTO.MetadataDTO();
+        metadata.setMatchId(matchId);
+        riotMatch.setMetadata(metadata);
+        RiotMatchDTO.InfoDTO info = new RiotMatchDTO.InfoDTO();
+        info.setParticipants(List.of());
+        riotMatch.setInfo(info);
+        byte[] payload = toJson(riotMatch);
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(byte[].class), eq(matchId), anyString()))
+            .thenReturn(ResponseEntity.ok(payload));
+
+        assertNotNull(riotService.getMatchDetails(matchId));
+        verify(matchArchiveService).archive(matchId, payload);
+    }
+
     @Test
     void testGetTopChampionMasterieshttpClientErrorExceptionreturnsEmpty() {
 
@@ -1123,4 +1719,12 @@ class RiotServiceUnitTest {
         assertEquals(riotId, result.getName());
         verify(summonerRepository).findByName(riotId);
     }
+
+    private static byte[] toJson(RiotMatchDTO match) {
+        try {
+            return new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsBytes(match);
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.tfg.tfg.config.cache.SmileRedisSerializer;
+import com.tfg.tfg.model.dto.MatchDetailDTO;
+import com.tfg.tfg.model.dto.ParticipantDTO;
+import com.tfg.tfg.model.dto.SummonerDTO;
+import com.tfg.tfg.model.dto.TeamDTO;
+import com.tfg.tfg.model.dto.riot.RiotChampionMasteryDTO;
+
+class SmileRedisSerializerUnitTest {
+
+    private final SmileRedisSerializer serializer = new SmileRedisSerializer(-1);
+
+    @Test
+    void testMatchDetailRoundTrips() {
+        MatchDetailDTO match = match();
+
+        Object read = serializer.deserialize(serializer.serialize(match));
+
+        assertEquals(match, read);
+    }
+
+    @Test
+    void testSummonerWithTimestampRoundTrips() {
+        SummonerDTO summoner = new SummonerDTO();
+        summoner.setName("Player#EUW");
+        summoner.setPuuid("puuid-1");
+        summoner.setLevel(321);
+        summoner.setLastSearchedAt(LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+
+        assertEquals(summoner, serializer.deserialize(serializer.serialize(summoner)));
+    }
+
+    @Test
+    void testListsAndStringsKeepTheirElementTypes() {
+        RiotChampionMasteryDTO mastery = new RiotChampionMasteryDTO();
+        mastery.setChampionId(266L);
+        mastery.setChampionName("Aatrox");
+        List<RiotChampionMasteryDTO> masteries = List.of(mastery).stream().toList();
+
+        List<?> read = (List<?>) serializer.deserialize(serializer.serialize(masteries));
+        RiotChampionMasteryDTO readMastery = assertInstanceOf(RiotChampionMasteryDTO.class, read.get(0));
+        assertEquals(266L, readMastery.getChampionId());
+        assertEquals("Aatrox", readMastery.getChampionName());
+        assertEquals(Collections.emptyList(), serializer.deserialize(serializer.serialize(Collections.emptyList())));
+        assertEquals("puuid-1", serializer.deserialize(serializer.serialize("puuid-1")));
+    }
+
+    @Test
+    void testLargeValuesAreCompressedAndSmaller() {
+        SmileRedisSerializer compressing = new SmileRedisSerializer(256);
+        MatchDetailDTO match = match();
+
+        byte[] plain = serializer.serialize(match);
+        byte[] compressed = compressing.serialize(match);
+
+        assertEquals(1, plain[0]);
+        assertEquals(2, compressed[0]);
+        assertTrue(compressed.length < plain.length);
+        assertEquals(match, compressing.deserialize(compressed));
+        assertEquals(match, serializer.deserialize(compressed));
+    }
+
+    @Test
+    void testSmallValuesAreNotCompressed() {
+        assertEquals(1, new SmileRedisSerializer(256).serialize("short")[0]);
+    }
+
+    @Test
+    void testNullAndUnknownFormat() {
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(new byte[0]));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[] { '{', '}' }));
+    }
+
+    private static MatchDetailDTO match() {
+        MatchDetailDTO match = new MatchDetailDTO();
+        match.setMatchId("EUW1_7000000001");
+        match.setGameCreation(1_760_000_000_000L);
+        match.setGameDuration(1_845L);
+        match.setGameMode("CLASSIC");
+        match.setQueueId(420);
+        List<ParticipantDTO> participants = new ArrayList<>();
+        IntStream.range(0, 10).forEach(i -> {
+            ParticipantDTO participant = new ParticipantDTO();
+            participant.setRiotIdGameName("Player" + i);
+            participant.setRiotIdTagline("EUW");
+            participant.setChampionName("Champion" + i);
+            participant.setKills(i);
+            participant.setDeaths(10 - i);
+            participant.setAssists(2 * i);
+            participant.setTeamId(i < 5 ? 100 : 200);
+            participant.setWin(i < 5);
+            participant.setItem0(3000 + i);
+            participants.add(participant);
+        });
+        TeamDTO blue = new TeamDTO();
+        blue.setTeamId(100);
+        blue.setWin(true);
+        blue.setParticipants(participants.subList(0, 5).stream().toList());
+        blue.setBans(List.of("Yasuo", "Zed"));
+        match.setParticipants(participants);
+        match.setTeams(List.of(blue));
+        return match;
+    }
+}
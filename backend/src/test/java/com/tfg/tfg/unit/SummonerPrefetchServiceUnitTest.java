@@ -0,0 +1,187 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.tfg.tfg.exception.RiotApiException;
+import com.tfg.tfg.model.dto.SummonerDTO;
+import com.tfg.tfg.model.entity.Summoner;
+import com.tfg.tfg.repository.SummonerRepository;
+import com.tfg.tfg.repository.UserModelRepository;
+import com.tfg.tfg.service.SummonerPrefetchService;
+import com.tfg.tfg.service.interfaces.IDashboardService;
+import com.tfg.tfg.service.interfaces.IRiotService;
+import com.tfg.tfg.service.riot.RiotPriority;
+import com.tfg.tfg.service.riot.RiotRateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SummonerPrefetchServiceUnitTest {
+
+    @Mock
+    private UserModelRepository userRepository;
+
+    @Mock
+    private SummonerRepository summonerRepository;
+
+    @Mock
+    private IRiotService riotService;
+
+    @Mock
+    private IDashboardService dashboardService;
+
+    @Mock
+    private RiotRateLimiter rateLimiter;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRefreshesLinkedAndFavoriteSummonersOnce() {
+        givenFollowed(List.of("linked", "shared"), List.of("shared", "favorite"));
+        givenSpareQuota();
+        givenStored("linked", "EUW1_1");
+        givenStored("shared", "EUW1_2");
+        givenStored("favorite", "EUW1_3");
+
+        service(300, 21600, 10).runCycle();
+
+        verify(riotService).refreshRankedEntry("linked");
+        verify(riotService).refreshRankedEntry("shared");
+        verify(riotService).refreshRankedEntry("favorite");
+        verify(dashboardService, times(3)).getRankedMatchesWithLP(any(Summoner.class), isNull(), eq(0), eq(30));
+        assertEquals(3.0, meterRegistry.get("riot.prefetch.refreshes").tag("result", "active").counter().count());
+    }
+
+    @Test
+    void testSkipsSummonersThatAreNotDue() {
+        givenFollowed(List.of("linked"), List.of());
+        givenSpareQuota();
+        givenStored("linked", "EUW1_1");
+
+        SummonerPrefetchService service = service(300, 21600, 10);
+        service.runCycle();
+        service.runCycle();
+
+        verify(riotService, times(1)).refreshRankedEntry("linked");
+    }
+
+    @Test
+    void testBacksOffWhenNoNewMatch() {
+        givenFollowed(List.of("linked"), List.of());
+        givenSpareQuota();
+        givenStored("linked", "EUW1_1");
+
+        // Zero minimum interval: an active summoner is due again straight away
+        SummonerPrefetchService service = service(0, 3600, 10);
+        service.runCycle();
+        service.runCycle();
+        service.runCycle();
+
+        verify(riotService, times(2)).refreshRankedEntry("linked");
+        assertEquals(1.0, meterRegistry.get("riot.prefetch.refreshes").tag("result", "idle").counter().count());
+    }
+
+    @Test
+    void testDefersWithoutHeadroomInPrefetchLane() {
+        givenFollowed(List.of("linked"), List.of());
+        when(rateLimiter.hasHeadroom(anyString(), anyString(), eq(RiotPriority.PREFETCH))).thenReturn(false);
+
+        service(300, 21600, 10).runCycle();
+
+        verifyNoInteractions(riotService, dashboardService);
+        assertEquals(1.0, meterRegistry.get("riot.prefetch.deferred").counter().count());
+    }
+
+    @Test
+    void testRefreshRunsInPrefetchLane() {
+        givenFollowed(List.of("linked"), List.of());
+        givenSpareQuota();
+        when(riotService.refreshRankedEntry("linked")).thenAnswer(invocation -> {
+            assertEquals(RiotPriority.PREFETCH, RiotPriority.current());
+            return Optional.empty();
+        });
+
+        service(300, 21600, 10).runCycle();
+
+        assertEquals(RiotPriority.INTERACTIVE, RiotPriority.current());
+        assertEquals(1.0, meterRegistry.get("riot.prefetch.refreshes").tag("result", "unknown").counter().count());
+    }
+
+    @Test
+    void testCapsSummonersPerCycle() {
+        givenFollowed(List.of("a", "b", "c"), List.of());
+        givenSpareQuota();
+        givenStored("a", "EUW1_1");
+        givenStored("b", "EUW1_2");
+
+        service(300, 21600, 2).runCycle();
+
+        verify(riotService).refreshRankedEntry("a");
+        verify(riotService).refreshRankedEntry("b");
+        verify(riotService, never()).refreshRankedEntry("c");
+    }
+
+    @Test
+    void testUnknownSummonerSkipsMatchRefresh() {
+        givenFollowed(List.of("linked"), List.of());
+        givenSpareQuota();
+        when(riotService.refreshRankedEntry("linked")).thenReturn(Optional.empty());
+
+        service(300, 21600, 10).runCycle();
+
+        verifyNoInteractions(dashboardService);
+        assertEquals(1.0, meterRegistry.get("riot.prefetch.refreshes").tag("result", "unknown").counter().count());
+    }
+
+    @Test
+    void testFailureIsCountedAndDoesNotStopCycle() {
+        givenFollowed(List.of("broken", "linked"), List.of());
+        givenSpareQuota();
+        when(riotService.refreshRankedEntry("broken")).thenThrow(new RiotApiException("unavailable", 503));
+        givenStored("linked", "EUW1_1");
+
+        assertDoesNotThrow(() -> service(300, 21600, 10).runCycle());
+
+        verify(riotService).refreshRankedEntry("linked");
+        assertEquals(1.0, meterRegistry.get("riot.prefetch.refreshes").tag("result", "failed").counter().count());
+    }
+
+    private SummonerPrefetchService service(long minIntervalSeconds, long maxIntervalSeconds, int maxPerCycle) {
+        return new SummonerPrefetchService(userRepository, summonerRepository, riotService, dashboardService,
+                rateLimiter, meterRegistry, minIntervalSeconds, maxIntervalSeconds, maxPerCycle);
+    }
+
+    private void givenFollowed(List<String> linked, List<String> favorites) {
+        when(userRepository.findLinkedSummonerPuuids()).thenReturn(linked);
+        when(userRepository.findFavoriteSummonerPuuids()).thenReturn(favorites);
+    }
+
+    private void givenSpareQuota() {
+        when(rateLimiter.hasHeadroom(anyString(), anyString(), eq(RiotPriority.PREFETCH))).thenReturn(true);
+    }
+
+    private void givenStored(String puuid, String newestMatchId) {
+        SummonerDTO dto = new SummonerDTO();
+        dto.setPuuid(puuid);
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+        when(riotService.refreshRankedEntry(puuid)).thenReturn(Optional.of(dto));
+        when(summonerRepository.findByPuuid(puuid)).thenReturn(Optional.of(summoner));
+        when(riotService.getLatestMatchId(puuid)).thenReturn(Optional.of(newestMatchId));
+    }
+}
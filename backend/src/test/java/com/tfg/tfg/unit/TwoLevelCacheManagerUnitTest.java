@@ -0,0 +1,288 @@
+package com.tfg.tfg.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.tfg.tfg.config.cache.CacheInvalidationMessage;
+import com.tfg.tfg.config.cache.RedisAvailability;
+import com.tfg.tfg.config.cache.TwoLevelCache;
+import com.tfg.tfg.config.cache.TwoLevelCacheManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerUnitTest {
+
+    private static final String CHANNEL = "test:cache-invalidation";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteManager;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteManager = new ConcurrentMapCacheManager("summoners", "champions");
+        cacheManager = new TwoLevelCacheManager(remoteManager, 100, Duration.ofMinutes(1), redisTemplate, CHANNEL);
+    }
+
+    @Test
+    void testReadsAreServedFromL1AfterFirstHit() {
+        remoteManager.getCache("champions").put(266L, "Aatrox");
+        Cache cache = cacheManager.getCache("champions");
+
+        assertEquals("Aatrox", cache.get(266L, String.class));
+        remoteManager.getCache("champions").evict(266L);
+
+        assertEquals("Aatrox", cache.get(266L, String.class));
+        assertSame(cache, cacheManager.getCache("champions"));
+    }
+
+    @Test
+    void testUnknownCacheIsNull() {
+        assertNull(cacheManager.getCache("unknown"));
+    }
+
+    @Test
+    void testLoaderResultIsStoredInBothLevels() {
+        Cache cache = cacheManager.getCache("summoners");
+
+        assertEquals("loaded", cache.get("Player#EUW", () -> "loaded"));
+
+        assertEquals("loaded", remoteManager.getCache("summoners").get("Player#EUW", String.class));
+        assertEquals("loaded", cache.get("Player#EUW", () -> "not called"));
+    }
+
+    @Test
+    void testWritesAndEvictionsArePublished() {
+        Cache cache = cacheManager.getCache("summoners");
+
+        cache.put("Player#EUW", "v1");
+        cache.evict("Player#EUW");
+        cache.clear();
+
+        String origin = cacheManager.getInstanceId();
+        verify(redisTemplate, times(2)).convertAndSend(CHANNEL,
+                new CacheInvalidationMessage(origin, "summoners", "Player#EUW").encode());
+        verify(redisTemplate).convertAndSend(CHANNEL, new CacheInvalidationMessage(origin, "summoners", null).encode());
+        assertNull(cache.get("Player#EUW"));
+    }
+
+    @Test
+    void testPublishFailureDoesNotFailWrite() {
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenThrow(new IllegalStateException("down"));
+        Cache cache = cacheManager.getCache("summoners");
+
+        cache.put("Player#EUW", "v1");
+
+        assertEquals("v1", cache.get("Player#EUW", String.class));
+    }
+
+    @Test
+    void testMessagesFromOtherInstancesEvictL1Only() {
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("summoners");
+        cache.put("Player#EUW", "v1");
+        cache.put("Other#EUW", "v2");
+        remoteManager.getCache("summoners").put("Player#EUW", "v2");
+
+        cacheManager.onMessage(message(new CacheInvalidationMessage("other-pod", "summoners", "Player#EUW")), null);
+
+        assertEquals("v2", cache.get("Player#EUW", String.class));
+        assertNotNull(cache.getLocalCache().getIfPresent("Other#EUW"));
+
+        cacheManager.onMessage(message(new CacheInvalidationMessage("other-pod", "summoners", null)), null);
+        assertNull(cache.getLocalCache().getIfPresent("Other#EUW"));
+    }
+
+    @Test
+    void testOwnMessagesAreIgnored() {
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("summoners");
+        cache.put("Player#EUW", "v1");
+
+        cacheManager.onMessage(message(
+                new CacheInvalidationMessage(cacheManager.getInstanceId(), "summoners", "Player#EUW")), null);
+
+        assertNotNull(cache.getLocalCache().getIfPresent("Player#EUW"));
+    }
+
+    @Test
+    void testMessageEncodingRoundTrips() {
+        CacheInvalidationMessage evict = new CacheInvalidationMessage("pod-1", "summoners", "Name|With#Pipe");
+        CacheInvalidationMessage clear = new CacheInvalidationMessage("pod-1", "summoners", null);
+
+        assertEquals(evict, CacheInvalidationMessage.decode(evict.encode()));
+        assertEquals(clear, CacheInvalidationMessage.decode(clear.encode()));
+        assertNull(CacheInvalidationMessage.decode("garbage"));
+    }
+
+    @Test
+    void testServesFromL1AloneWhileRedisIsDown() {
+        FlakyCache remote = new FlakyCache("summoners");
+        RedisAvailability availability = new RedisAvailability(60_000, new SimpleMeterRegistry());
+        TwoLevelCacheManager degradable = degradableManager(remote, availability);
+        Cache cache = degradable.getCache("summoners");
+        cache.put("Player#EUW", "v1");
+        remote.down = true;
+
+        assertNull(cache.get("Missing#EUW"));
+        assertTrue(availability.isDown());
+        int callsWhenDown = remote.calls;
+
+        assertEquals("v1", cache.get("Player#EUW", String.class));
+        assertEquals("loaded", cache.get("Other#EUW", () -> "loaded"));
+        assertEquals("loaded", cache.get("Other#EUW", () -> "not called"));
+        cache.put("Third#EUW", "v3");
+        cache.evict("Player#EUW");
+
+        assertEquals(callsWhenDown, remote.calls);
+        assertNull(cache.get("Player#EUW"));
+        verify(redisTemplate, times(1)).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void testChangesMadeWhileDownAreReplayedWhenRedisReturns() throws InterruptedException {
+        FlakyCache remote = new FlakyCache("summoners");
+        RedisAvailability availability = new RedisAvailability(0, new SimpleMeterRegistry());
+        TwoLevelCacheManager degradable = degradableManager(remote, availability);
+        TwoLevelCache cache = (TwoLevelCache) degradable.getCache("summoners");
+        cache.put("Stale#EUW", "old");
+        remote.down = true;
+        cache.put("Player#EUW", "written-while-down");
+        cache.evict("Stale#EUW");
+        assertTrue(cache.hasPendingChanges());
+
+        remote.down = false;
+        cache.get("Probe#EUW");
+
+        long deadline = System.currentTimeMillis() + 2000;
+        while (cache.hasPendingChanges() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(availability.isDown());
+        assertFalse(cache.hasPendingChanges());
+        assertEquals("written-while-down", remote.get("Player#EUW", String.class));
+        assertNull(remote.get("Stale#EUW"));
+        availability.shutdown();
+    }
+
+    @Test
+    void testLoaderIsNotRerunWhenRedisFailsOnTheWrite() {
+        FlakyCache remote = new FlakyCache("summoners");
+        RedisAvailability availability = new RedisAvailability(60_000, new SimpleMeterRegistry());
+        Cache cache = degradableManager(remote, availability).getCache("summoners");
+        remote.writesDown = true;
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("loaded", cache.get("Player#EUW", () -> {
+            loads.incrementAndGet();
+            return "loaded";
+        }));
+
+        assertEquals(1, loads.get());
+        assertTrue(availability.isDown());
+        assertEquals("loaded", cache.get("Player#EUW", String.class));
+    }
+
+    @Test
+    void testOnlyOneProbePerRetryInterval() {
+        RedisAvailability availability = new RedisAvailability(60_000, new SimpleMeterRegistry());
+        assertTrue(availability.allowRequest());
+
+        availability.onFailure(new RedisConnectionFailureException("down"));
+
+        assertFalse(availability.allowRequest());
+        RedisAvailability probing = new RedisAvailability(0, new SimpleMeterRegistry());
+        probing.onFailure(new RedisConnectionFailureException("down"));
+        assertTrue(probing.allowRequest());
+        probing.onSuccess();
+        assertFalse(probing.isDown());
+    }
+
+    private TwoLevelCacheManager degradableManager(FlakyCache remote, RedisAvailability availability) {
+        ConcurrentMapCacheManager remotes = new ConcurrentMapCacheManager() {
+            @Override
+            public Cache getCache(String name) {
+                return remote;
+            }
+        };
+        return new TwoLevelCacheManager(remotes, 100, Duration.ofMinutes(1), redisTemplate, CHANNEL,
+                availability, Duration.ofMinutes(10));
+    }
+
+    /**
+     * In-memory L2 that fails like an unreachable Redis while {@code down}.
+     */
+    private static class FlakyCache extends ConcurrentMapCache {
+        volatile boolean down;
+        /** Reads (and value loaders) work, but storing the loaded value fails */
+        volatile boolean writesDown;
+        int calls;
+
+        FlakyCache(String name) {
+            super(name);
+        }
+
+        private void check() {
+            calls++;
+            if (down) {
+                throw new RedisConnectionFailureException("Redis down");
+            }
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            check();
+            return super.lookup(key);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            check();
+            super.put(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            check();
+            super.evict(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            check();
+            if (!writesDown) {
+                return super.get(key, valueLoader);
+            }
+            try {
+                valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            throw new RedisConnectionFailureException("Redis down on write");
+        }
+    }
+
+    private static DefaultMessage message(CacheInvalidationMessage invalidation) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                invalidation.encode().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -11,4 +11,5 @@ export interface Summoner {
   wins?: number;
   losses?: number;
   lastSearchedAt?: string; // ISO date string
+  stale?: boolean; // Served from the stored copy while Riot is unavailable
 }
\ No newline at end of file